@@ -0,0 +1,44 @@
+package com.teamhyungie.WildWatch.config;
+
+import com.teamhyungie.WildWatch.repository.IncidentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * One-off backfill of incidents.finished_at from incident_updates, for databases where
+ * migration V10 has not run (Flyway is disabled by default). Off unless
+ * incident.finished-at.backfill.enabled=true; turn it on for one startup, then off again.
+ */
+@Configuration
+@Slf4j
+public class FinishedAtBackfillConfig {
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Value("${incident.finished-at.backfill.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Fill finishedAt for incidents finished before the column existed.
+     * Runs once per application start (not on every context refresh); rows that already have a value are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFinishedAt() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int updated = incidentRepository.backfillFinishedAt();
+            if (updated > 0) {
+                log.info("Backfilled finished_at for {} incidents", updated);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill finished_at: {}", e.getMessage());
+        }
+    }
+}
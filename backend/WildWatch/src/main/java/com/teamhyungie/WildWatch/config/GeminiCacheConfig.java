@@ -0,0 +1,74 @@
+package com.teamhyungie.WildWatch.config;
+
+import com.teamhyungie.WildWatch.service.GeminiResponseCache;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * Creates the Gemini response caches used by GeminiResponseCache on the JCache manager
+ * loaded from ehcache.xml. They are created here rather than in ehcache.xml so TTLs,
+ * size and the optional disk tier (stored in the ehcache.xml persistence directory)
+ * can be set per environment.
+ */
+@Configuration
+public class GeminiCacheConfig {
+
+    @Value("${gemini.cache.heap-entries:2000}")
+    private long heapEntries;
+
+    @Value("${gemini.cache.disk.enabled:false}")
+    private boolean diskEnabled;
+
+    @Value("${gemini.cache.disk.size-mb:100}")
+    private long diskSizeMb;
+
+    @Value("${gemini.cache.ttl.tags-minutes:1440}")
+    private long tagsTtlMinutes;
+
+    @Value("${gemini.cache.ttl.office-minutes:720}")
+    private long officeTtlMinutes;
+
+    @Value("${gemini.cache.ttl.classification-minutes:1440}")
+    private long classificationTtlMinutes;
+
+    @Value("${gemini.cache.ttl.moderation-minutes:60}")
+    private long moderationTtlMinutes;
+
+    @Value("${gemini.cache.ttl.analysis-minutes:60}")
+    private long analysisTtlMinutes;
+
+    @Bean
+    public JCacheManagerCustomizer geminiCacheCustomizer() {
+        return cacheManager -> {
+            createCache(cacheManager, GeminiResponseCache.TAGS, tagsTtlMinutes);
+            createCache(cacheManager, GeminiResponseCache.OFFICE, officeTtlMinutes);
+            createCache(cacheManager, GeminiResponseCache.CLASSIFICATION, classificationTtlMinutes);
+            createCache(cacheManager, GeminiResponseCache.MODERATION, moderationTtlMinutes);
+            createCache(cacheManager, GeminiResponseCache.ANALYSIS, analysisTtlMinutes);
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cacheManager, String name, long ttlMinutes) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        ResourcePoolsBuilder resources = ResourcePoolsBuilder.heap(heapEntries);
+        if (diskEnabled) {
+            resources = resources.disk(diskSizeMb, MemoryUnit.MB, true);
+        }
+        CacheConfigurationBuilder<String, Serializable> config = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(String.class, Serializable.class, resources)
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMinutes(ttlMinutes)));
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(config));
+    }
+}
@@ -0,0 +1,12 @@
+package com.teamhyungie.WildWatch.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background tasks (incident pipeline polling, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,77 @@
+package com.teamhyungie.WildWatch.config;
+
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Executor of the client outbound channel that keeps publish order per WebSocket session.
+ *
+ * Messages of one session run one at a time, in the order they were handed to the channel; the
+ * sessions take turns on the pool, one message each. Unlike the broker's own preservePublishOrder
+ * queue, a session's waiting messages are queued after the channel's interceptors ran, so
+ * WebSocketSessionMonitor counts (and bounds) every one of them.
+ */
+class SessionOrderedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final boolean preserveOrder;
+    private final Map<String, SessionQueue> queues = new ConcurrentHashMap<>();
+
+    SessionOrderedTaskExecutor(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        String sessionId = preserveOrder && task instanceof MessageHandlingRunnable handling
+                ? SimpMessageHeaderAccessor.getSessionId(handling.getMessage().getHeaders())
+                : null;
+        if (sessionId == null) {
+            super.execute(task);
+            return;
+        }
+        boolean[] created = new boolean[1];
+        SessionQueue queue = queues.compute(sessionId, (id, existing) -> {
+            SessionQueue sessionQueue = existing;
+            if (sessionQueue == null) {
+                sessionQueue = new SessionQueue(id);
+                created[0] = true;
+            }
+            sessionQueue.tasks.add(task);
+            return sessionQueue;
+        });
+        // A queue in the map always has its turn scheduled on the pool
+        if (created[0]) {
+            super.execute(queue);
+        }
+    }
+
+    private class SessionQueue implements Runnable {
+        private final String sessionId;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        SessionQueue(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task = tasks.poll();
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                // Removed when empty, atomically with execute() adding to it; otherwise next turn
+                if (queues.computeIfPresent(sessionId, (id, queue) -> queue.tasks.isEmpty() ? null : queue) != null) {
+                    SessionOrderedTaskExecutor.super.execute(this);
+                }
+            }
+        }
+    }
+}
@@ -1,18 +1,97 @@
 package com.teamhyungie.WildWatch.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP over WebSocket.
+ *
+ * websocket.broker.mode=simple (default) keeps subscriptions in this instance's memory.
+ * websocket.broker.mode=relay forwards /topic to an external STOMP broker (ActiveMQ, Artemis, ...),
+ * so messages published on one backend instance reach subscribers connected to any other.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketSessionMonitor sessionMonitor;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    // Heartbeats of the shared "system" connection this server publishes on
+    @Value("${websocket.broker.relay.heartbeat-ms:10000}")
+    private long relayHeartbeatMillis;
+
+    // Heartbeats the simple broker exchanges with clients (the relay leaves these to the broker)
+    @Value("${websocket.heartbeat.send-ms:120000}")
+    private long heartbeatSendMillis;
+
+    @Value("${websocket.heartbeat.receive-ms:120000}")
+    private long heartbeatReceiveMillis;
+
+    @Value("${websocket.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    // Messages reach each session in the order they were published (the notification outbox relies
+    // on it). SessionOrderedTaskExecutor keeps the order rather than the broker's preservePublishOrder,
+    // whose per-session queue is unbounded and invisible to WebSocketSessionMonitor; the monitor also
+    // closes a session whose send stalls, since its later messages wait behind it instead of tripping
+    // the send limits below
+    @Value("${websocket.outbound.preserve-order:true}")
+    private boolean preserveOrder;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${websocket.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    public WebSocketConfig(WebSocketSessionMonitor sessionMonitor) {
+        this.sessionMonitor = sessionMonitor;
+    }
+
     @Bean
     public TaskScheduler customMessageBrokerTaskScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
@@ -22,14 +101,67 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         return scheduler;
     }
 
+    private boolean isRelayMode() {
+        return "relay".equalsIgnoreCase(brokerMode);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic")
-                .setHeartbeatValue(new long[]{120000, 120000}) // Set heartbeat to 120 seconds (much less frequent)
-                .setTaskScheduler(customMessageBrokerTaskScheduler());
+        if (isRelayMode()) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode)
+                    .setSystemHeartbeatSendInterval(relayHeartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(relayHeartbeatMillis)
+                    .setTaskScheduler(customMessageBrokerTaskScheduler());
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[]{heartbeatSendMillis, heartbeatReceiveMillis})
+                    .setTaskScheduler(customMessageBrokerTaskScheduler());
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    /**
+     * Fixed-size pools. The inbound queue is bounded; the outbound one is bounded per session by
+     * WebSocketSessionMonitor instead, since a single broadcast queues one task per subscriber.
+     * Outbound tasks of a session run one at a time, in publish order.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundPoolSize)
+                .maxPoolSize(inboundPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(new SessionOrderedTaskExecutor(preserveOrder))
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize);
+        registration.interceptors(sessionMonitor);
+    }
+
+    /**
+     * A session that takes longer than the send-time limit to accept a frame, or whose unsent
+     * frames exceed the buffer limit, is closed as a slow consumer
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(sessionMonitor);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
@@ -0,0 +1,196 @@
+package com.teamhyungie.WildWatch.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-session backpressure for the client outbound channel.
+ *
+ * Counts, per WebSocket session, the messages waiting on the outbound executor. A session that
+ * falls more than websocket.outbound.session-queue-limit messages behind is a slow consumer: the
+ * message is dropped and the session closed, like Spring does when the send-time or send-buffer
+ * limit is exceeded, so one client on a bad network cannot pile up memory for everyone.
+ *
+ * Messages are counted here, when they are published to the session and before they wait for
+ * their turn in SessionOrderedTaskExecutor, so the count covers the session's whole backlog and a
+ * message over the limit is never queued.
+ *
+ * Since the executor hands a session one message at a time, Spring's send-time check (which runs
+ * when a second send overlaps a stuck one) never fires. A session whose send has been in progress
+ * longer than the send-time limit is therefore also closed here; that fails the stuck send and the
+ * session's queued messages are discarded as they come up.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionMonitor implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private final int sessionQueueLimit;
+    private final long sendTimeLimitNanos;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final DistributionSummary queueDepth;
+    private final Counter dropped;
+    private final Counter slowDisconnects;
+
+    private static class SessionState {
+        final WebSocketSession session;
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean closing = new AtomicBoolean();
+        volatile long sendingSince; // System.nanoTime() when the current send started, 0 when idle
+
+        SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    public WebSocketSessionMonitor(MeterRegistry meterRegistry,
+                                   @Value("${websocket.outbound.session-queue-limit:500}") int sessionQueueLimit,
+                                   @Value("${websocket.send-time-limit-ms:10000}") long sendTimeLimitMillis) {
+        this.sessionQueueLimit = sessionQueueLimit;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMillis);
+        this.queueDepth = DistributionSummary.builder("websocket.session.outbound.queue.depth")
+                .description("Outbound messages queued for a session, including the one just added")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("websocket.session.outbound.dropped")
+                .description("Outbound messages dropped because their session was too far behind")
+                .register(meterRegistry);
+        this.slowDisconnects = Counter.builder("websocket.session.slow.disconnects")
+                .description("Sessions closed as slow consumers")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", sessions, Map::size).register(meterRegistry);
+        Gauge.builder("websocket.session.outbound.queue.max", sessions, WebSocketSessionMonitor::maxQueued)
+                .description("Deepest outbound queue of any session")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionState(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                // Also the status Spring uses when the send-time or buffer limit is exceeded
+                if (closeStatus.getCode() == CloseStatus.SESSION_NOT_RELIABLE.getCode()) {
+                    slowDisconnects.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionState state = state(message);
+        if (state == null) {
+            return message;
+        }
+        int depth = state.queued.incrementAndGet();
+        if (depth > sessionQueueLimit) {
+            state.queued.decrementAndGet();
+            dropped.increment();
+            closeSlowConsumer(state, "more than " + sessionQueueLimit + " outbound messages queued");
+            return null;
+        }
+        queueDepth.record(depth);
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SessionState state = state(message);
+        if (state != null) {
+            state.sendingSince = System.nanoTime();
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent) {
+            release(message); // Never reached the executor
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SessionState state = state(message);
+        if (state != null) {
+            state.sendingSince = 0;
+        }
+        release(message);
+    }
+
+    /**
+     * Closes sessions whose current send has taken longer than the send-time limit
+     */
+    @Scheduled(fixedDelayString = "${websocket.outbound.stall-check-ms:1000}")
+    public void closeStalledSessions() {
+        long now = System.nanoTime();
+        for (SessionState state : sessions.values()) {
+            long since = state.sendingSince;
+            if (since != 0 && now - since > sendTimeLimitNanos) {
+                closeSlowConsumer(state, "a send has been in progress for more than "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeLimitNanos) + " ms");
+            }
+        }
+    }
+
+    private void release(Message<?> message) {
+        SessionState state = state(message);
+        if (state != null) {
+            state.queued.updateAndGet(queued -> Math.max(0, queued - 1));
+        }
+    }
+
+    private SessionState state(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private void closeSlowConsumer(SessionState state, String reason) {
+        if (state.closing.compareAndSet(false, true)) {
+            log.warn("Closing WebSocket session {}: {}", state.session.getId(), reason);
+            try {
+                state.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (Exception e) {
+                log.debug("Failed to close WebSocket session {}: {}", state.session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static double maxQueued(Map<String, SessionState> sessions) {
+        int max = 0;
+        for (SessionState state : sessions.values()) {
+            max = Math.max(max, state.queued.get());
+        }
+        return max;
+    }
+}
@@ -3,6 +3,7 @@ package com.teamhyungie.WildWatch.controller;
 import com.teamhyungie.WildWatch.dto.ActivityLogResponse;
 import com.teamhyungie.WildWatch.model.User;
 import com.teamhyungie.WildWatch.service.ActivityLogService;
+import com.teamhyungie.WildWatch.service.UnreadCounterService;
 import com.teamhyungie.WildWatch.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,7 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +31,7 @@ import java.util.stream.Collectors;
 public class ActivityLogController {
     private final ActivityLogService activityLogService;
     private final UserService userService;
+    private final UnreadCounterService unreadCounterService;
     private final Logger logger = LoggerFactory.getLogger(ActivityLogController.class);
 
     @GetMapping
@@ -36,8 +40,9 @@ public class ActivityLogController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         User user = userService.getUserByEmail(userDetails.getUsername());
+        LocalDateTime readAt = activityLogService.getReadWatermark(user);
         Page<ActivityLogResponse> logs = activityLogService.getUserActivityLogs(user, PageRequest.of(page, size))
-            .map(ActivityLogResponse::fromActivityLog);
+            .map(log -> ActivityLogResponse.fromActivityLog(log, readAt));
         
         logger.debug("Fetching activities for user: {}", user.getEmail());
         logger.debug("Total activities found: {}", logs.getTotalElements());
@@ -46,6 +51,15 @@ public class ActivityLogController {
         return ResponseEntity.ok(logs);
     }
 
+    /**
+     * Unread count from memory; changes are also pushed to /topic/notifications/{userId}/unread-count
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Integer>> getUnreadCount(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(Map.of("unread", unreadCounterService.getUnreadCount(userDetails.getUsername())));
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(
             @PathVariable String id,
@@ -56,10 +70,10 @@ public class ActivityLogController {
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(
+    public ResponseEntity<Map<String, Integer>> markAllAsRead(
             @AuthenticationPrincipal UserDetails userDetails) {
         User user = userService.getUserByEmail(userDetails.getUsername());
-        activityLogService.markAllAsRead(user);
-        return ResponseEntity.ok().build();
+        int marked = activityLogService.markAllAsRead(user);
+        return ResponseEntity.ok(Map.of("markedAsRead", marked));
     }
 } 
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.teamhyungie.WildWatch.controller;
 
 import com.teamhyungie.WildWatch.dto.BuildingResponse;
+import com.teamhyungie.WildWatch.dto.CoordinateBatch;
 import com.teamhyungie.WildWatch.dto.GeolocationRequest;
 import com.teamhyungie.WildWatch.dto.GeolocationResponse;
 import com.teamhyungie.WildWatch.service.BuildingService;
 import com.teamhyungie.WildWatch.service.GeolocationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +23,10 @@ public class GeolocationController {
     private final GeolocationService geolocationService;
     private final BuildingService buildingService;
 
+    // Most points accepted by one batch request
+    @Value("${geolocation.batch.max-points:1000}")
+    private int maxBatchPoints;
+
     @PostMapping("/reverse-geocode")
     public ResponseEntity<GeolocationResponse> reverseGeocode(@Valid @RequestBody GeolocationRequest request) {
         GeolocationResponse response = geolocationService.reverseGeocode(request.getLatitude(), request.getLongitude());
@@ -44,6 +50,18 @@ public class GeolocationController {
         ));
     }
 
+    /**
+     * Validates many GPS fixes at once; returns one flag per point, in request order
+     */
+    @PostMapping("/validate-locations")
+    public ResponseEntity<?> validateLocations(@RequestBody List<GeolocationRequest> points) {
+        try {
+            return ResponseEntity.ok(geolocationService.validateLocations(CoordinateBatch.of(points, maxBatchPoints)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/buildings")
     public ResponseEntity<List<BuildingResponse>> getAllBuildings() {
         List<BuildingResponse> buildings = buildingService.getAllBuildings();
@@ -68,6 +86,18 @@ public class GeolocationController {
         return ResponseEntity.ok(buildings);
     }
 
+    /**
+     * Resolves many coordinates at once; returns one building code per point, in request order
+     */
+    @PostMapping("/buildings/lookup")
+    public ResponseEntity<?> lookupBuildings(@RequestBody List<GeolocationRequest> points) {
+        try {
+            return ResponseEntity.ok(buildingService.findBuildingCodesByCoordinates(CoordinateBatch.of(points, maxBatchPoints)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/campus-info")
     public ResponseEntity<Map<String, Object>> getCampusInfo() {
         return ResponseEntity.ok(Map.of(
@@ -1,6 +1,8 @@
 package com.teamhyungie.WildWatch.controller;
 
 import com.teamhyungie.WildWatch.model.Office;
+import com.teamhyungie.WildWatch.service.AiExecutor;
+import com.teamhyungie.WildWatch.service.IncidentAnalysisService;
 import com.teamhyungie.WildWatch.service.ModerationService;
 import com.teamhyungie.WildWatch.service.OfficeAssignmentService;
 import com.teamhyungie.WildWatch.service.TagGenerationService;
@@ -23,6 +25,8 @@ public class IncidentAnalysisController {
     private final com.teamhyungie.WildWatch.service.OfficeAdminService officeAdminService;
     private final com.teamhyungie.WildWatch.service.SimilarityService similarityService;
     private final com.teamhyungie.WildWatch.service.IncidentClassificationService incidentClassificationService;
+    private final IncidentAnalysisService incidentAnalysisService;
+    private final AiExecutor aiExecutor;
 
     @PostMapping("/analyze")
     public ResponseEntity<?> analyze(@RequestBody AnalyzeRequest req) {
@@ -37,55 +41,54 @@ public class IncidentAnalysisController {
             enhancedLocation = req.location;
         }
 
-        // Use provided tags from step 1, or generate if not provided (fallback)
-        List<String> tags = (req.tags != null && !req.tags.isEmpty())
-                ? req.tags
-                : tagGenerationService.generateTags(req.description, enhancedLocation, req.incidentType);
-        
         // Collect office names from office_admins (cached for performance)
         var officeNames = officeAdminService.getOfficeNames();
-        
-        // PARALLEL PROCESSING: Run independent AI operations concurrently
+
+        // UNIFIED ANALYSIS: one Gemini call for tags, office, classification and moderation.
+        // Anything it fails to provide is computed by the dedicated services below.
+        IncidentAnalysisService.Analysis analysis = null;
+        if (incidentAnalysisService.isEnabled()) {
+            AiExecutor.Call<IncidentAnalysisService.Analysis> analysisCall = aiExecutor.submit("unified-analysis", () ->
+                    incidentAnalysisService.analyze(req.incidentType, req.description, enhancedLocation, req.tags, officeNames));
+            aiExecutor.awaitAll(analysisCall);
+            analysis = analysisCall.getOrElse(() -> null);
+        }
+
+        // Use provided tags from step 1, or generate if not provided (fallback)
+        List<String> tags;
+        if (req.tags != null && !req.tags.isEmpty()) {
+            tags = req.tags;
+        } else if (analysis != null && analysis.getTags() != null) {
+            tags = analysis.getTags();
+        } else {
+            tags = tagGenerationService.generateTags(req.description, enhancedLocation, req.incidentType);
+        }
+
+        // PARALLEL PROCESSING: Run independent AI operations concurrently on the bounded AI pool
         // These three operations don't depend on each other, so they can run in parallel
-        java.util.concurrent.CompletableFuture<Office> officeFuture = 
-            java.util.concurrent.CompletableFuture.supplyAsync(() -> 
-                officeAssignmentService.assignOffice(req.description, enhancedLocation, tags));
-        
-        java.util.concurrent.CompletableFuture<Boolean> isIncidentFuture = 
-            java.util.concurrent.CompletableFuture.supplyAsync(() -> 
-                incidentClassificationService.isRealIncident(req.incidentType, req.description));
-        
-        java.util.concurrent.CompletableFuture<ModerationService.Result> moderationFuture = 
-            java.util.concurrent.CompletableFuture.supplyAsync(() -> 
-                moderationService.review(req.incidentType, req.description, enhancedLocation, tags, officeNames));
-        
-        // Wait for all parallel operations to complete
-        try {
-            Office office = officeFuture.get();
-            boolean isIncident = isIncidentFuture.get();
-            ModerationService.Result mod = moderationFuture.get();
-
-            Map<String, Object> payload = new java.util.HashMap<>();
-            payload.put("decision", mod.decision.name());
-            payload.put("confidence", mod.confidence);
-            payload.put("reasons", mod.reasons);
-            payload.put("suggestedTags", tags);
-            payload.put("suggestedOffice", office.name());
-            payload.put("normalizedLocation", enhancedLocation);
-            payload.put("isIncident", isIncident);
-
-            if ("ALLOW".equalsIgnoreCase(mod.decision.name())) {
-                // Use tag-based similarity (Jaccard similarity on all 20 tags)
-                var similars = similarityService.findSimilarByTags(tags, 3);
-                payload.put("similarIncidents", similars);
-            }
-
-            return ResponseEntity.ok(payload);
-        } catch (Exception e) {
-            // Fallback to sequential processing if parallel fails
-        Office office = officeAssignmentService.assignOffice(req.description, enhancedLocation, tags);
-            boolean isIncident = incidentClassificationService.isRealIncident(req.incidentType, req.description);
-        ModerationService.Result mod = moderationService.review(req.incidentType, req.description, enhancedLocation, tags, officeNames);
+        AiExecutor.Call<Office> officeCall = analysis != null && analysis.getOffice() != null
+                ? aiExecutor.completed("office-assignment", analysis.getOffice())
+                : aiExecutor.submit("office-assignment", () ->
+                        officeAssignmentService.assignOffice(req.description, enhancedLocation, tags));
+
+        AiExecutor.Call<Boolean> isIncidentCall = analysis != null && analysis.getIsIncident() != null
+                ? aiExecutor.completed("classification", analysis.getIsIncident())
+                : aiExecutor.submit("classification", () ->
+                        incidentClassificationService.isRealIncident(req.incidentType, req.description));
+
+        AiExecutor.Call<ModerationService.Result> moderationCall = analysis != null && analysis.getModeration() != null
+                ? aiExecutor.completed("moderation", analysis.getModeration())
+                : aiExecutor.submit("moderation", () ->
+                        moderationService.review(req.incidentType, req.description, enhancedLocation, tags, officeNames));
+
+        // Waits with a deadline; a failed or timed-out call is retried alone, then falls back
+        aiExecutor.awaitAll(officeCall, isIncidentCall, moderationCall);
+
+        Office office = officeCall.getOrElse(() ->
+                officeAssignmentService.fallbackOfficeAssignment(req.description, tags));
+        boolean isIncident = isIncidentCall.getOrElse(() -> true); // Same default as the service on error
+        ModerationService.Result mod = moderationCall.getOrElse(() ->
+                ModerationService.Result.allowFallback("moderation-unavailable"));
 
         Map<String, Object> payload = new java.util.HashMap<>();
         payload.put("decision", mod.decision.name());
@@ -94,15 +97,15 @@ public class IncidentAnalysisController {
         payload.put("suggestedTags", tags);
         payload.put("suggestedOffice", office.name());
         payload.put("normalizedLocation", enhancedLocation);
-            payload.put("isIncident", isIncident);
+        payload.put("isIncident", isIncident);
 
         if ("ALLOW".equalsIgnoreCase(mod.decision.name())) {
+            // Use tag-based similarity (Jaccard similarity on all 20 tags)
             var similars = similarityService.findSimilarByTags(tags, 3);
             payload.put("similarIncidents", similars);
         }
 
         return ResponseEntity.ok(payload);
-        }
     }
 
     @Data
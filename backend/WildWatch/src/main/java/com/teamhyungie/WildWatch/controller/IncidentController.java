@@ -19,6 +19,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -40,9 +41,12 @@ public class IncidentController {
     private final FollowUpService followUpService;
     private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Create a new incident", description = "Report a new incident with optional file attachments")
+    @Operation(summary = "Create a new incident", description = "Report a new incident with optional file attachments. " +
+            "The report is saved as Received and enriched in the background (location, tags, office, evidence upload); " +
+            "the reporter is notified on /topic/notifications/{userId} when it has been sent to its office. " +
+            "Resubmitting with the same Idempotency-Key returns the incident created the first time.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Incident created successfully",
+        @ApiResponse(responseCode = "200", description = "Incident received",
                 content = @Content(schema = @Schema(implementation = IncidentResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid incident data")
     })
@@ -50,10 +54,11 @@ public class IncidentController {
     public ResponseEntity<IncidentResponse> createIncident(
             @RequestParam("incidentData") String incidentDataJson,
             @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
         try {
             IncidentRequest request = objectMapper.readValue(incidentDataJson, IncidentRequest.class);
-            IncidentResponse response = incidentService.createIncident(request, userDetails.getUsername(), files);
+            IncidentResponse response = incidentService.createIncident(request, userDetails.getUsername(), files, idempotencyKey);
             return ResponseEntity.ok(response);
         } catch (com.fasterxml.jackson.core.JsonParseException e) {
             // JSON parsing error - likely special characters in input
@@ -87,9 +92,15 @@ public class IncidentController {
         return ResponseEntity.ok(incidents);
     }
 
+    @Operation(summary = "Get public incidents", description = "Community Reports feed. Without a limit the whole feed is returned; " +
+            "with a limit, pass the upvoteCount, submittedAt and id of the last row as the cursor for the next page")
     @GetMapping("/public")
-    public ResponseEntity<List<IncidentResponse>> getPublicIncidents() {
-        List<IncidentResponse> incidents = incidentService.getPublicIncidents();
+    public ResponseEntity<List<IncidentResponse>> getPublicIncidents(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer afterUpvotes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterSubmittedAt,
+            @RequestParam(required = false) String afterId) {
+        List<IncidentResponse> incidents = incidentService.getPublicIncidents(limit, afterUpvotes, afterSubmittedAt, afterId);
         return ResponseEntity.ok(incidents);
     }
 
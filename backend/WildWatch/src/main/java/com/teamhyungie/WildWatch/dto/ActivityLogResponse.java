@@ -1,6 +1,7 @@
 package com.teamhyungie.WildWatch.dto;
 
 import com.teamhyungie.WildWatch.model.ActivityLog;
+import com.teamhyungie.WildWatch.service.NotificationReadMarkService;
 import lombok.Data;
 import java.time.LocalDateTime;
 
@@ -20,12 +21,19 @@ public class ActivityLogResponse {
     }
 
     public static ActivityLogResponse fromActivityLog(ActivityLog activityLog) {
+        return fromActivityLog(activityLog, null);
+    }
+
+    /**
+     * @param readAt the user's read watermark; logs created at or before it count as read
+     */
+    public static ActivityLogResponse fromActivityLog(ActivityLog activityLog, LocalDateTime readAt) {
         ActivityLogResponse response = new ActivityLogResponse();
         response.setId(activityLog.getId());
         response.setActivityType(activityLog.getActivityType());
         response.setDescription(activityLog.getDescription());
         response.setCreatedAt(activityLog.getCreatedAt());
-        response.setIsRead(activityLog.getIsRead());
+        response.setIsRead(NotificationReadMarkService.isRead(activityLog.getIsRead(), activityLog.getCreatedAt(), readAt));
 
         if (activityLog.getIncident() != null) {
             IncidentInfo incidentInfo = new IncidentInfo();
@@ -0,0 +1,30 @@
+package com.teamhyungie.WildWatch.dto;
+
+import java.util.List;
+
+/**
+ * Points of a batch geolocation request as parallel coordinate arrays, in request order
+ */
+public record CoordinateBatch(double[] latitudes, double[] longitudes) {
+
+    /**
+     * @throws IllegalArgumentException if there are more than maxPoints points or a point is
+     *                                  missing a coordinate
+     */
+    public static CoordinateBatch of(List<GeolocationRequest> points, int maxPoints) {
+        if (points.size() > maxPoints) {
+            throw new IllegalArgumentException("At most " + maxPoints + " points per request, got " + points.size());
+        }
+        double[] latitudes = new double[points.size()];
+        double[] longitudes = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            GeolocationRequest point = points.get(i);
+            if (point == null || point.getLatitude() == null || point.getLongitude() == null) {
+                throw new IllegalArgumentException("Point " + i + " is missing a coordinate");
+            }
+            latitudes[i] = point.getLatitude();
+            longitudes[i] = point.getLongitude();
+        }
+        return new CoordinateBatch(latitudes, longitudes);
+    }
+}
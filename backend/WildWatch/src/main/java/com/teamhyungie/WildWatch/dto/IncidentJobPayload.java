@@ -0,0 +1,35 @@
+package com.teamhyungie.WildWatch.dto;
+
+import com.teamhyungie.WildWatch.model.Office;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs of a submission that the enrichment stages still need, stored as JSON on the IncidentJob
+ */
+@Data
+public class IncidentJobPayload {
+    private String enhancedLocationInfo; // building/address + location text, as given to the AI services
+    private List<String> allTags; // tags from step 1, if the client sent them
+    private Office requestedOffice; // office chosen by the reporter, if any
+    private Office assignedOffice; // result of the ANALYZE stage, applied when the job completes
+    private List<SpooledFile> files = new ArrayList<>();
+
+    /**
+     * Evidence file kept in spooled_evidence until the UPLOAD_EVIDENCE stage has stored it
+     */
+    @Data
+    public static class SpooledFile {
+        private String spoolId; // SpooledEvidence id, required
+        private String fileName;
+        private String contentType;
+        private long size;
+        private String contentHash; // SHA-256 (hex), computed while spooling, required
+        private boolean uploaded;
+        private int attempts; // failed upload attempts of this file
+        private String lastError;
+        private boolean failed; // given up after the last attempt; its spool is kept for the retention period
+    }
+}
@@ -1,10 +1,12 @@
 package com.teamhyungie.WildWatch.dto;
 
+import com.teamhyungie.WildWatch.model.Evidence;
 import com.teamhyungie.WildWatch.model.Incident;
 import com.teamhyungie.WildWatch.model.Office;
 import com.teamhyungie.WildWatch.model.Building;
 import com.teamhyungie.WildWatch.model.PriorityLevel;
 import com.teamhyungie.WildWatch.model.IncidentGeneralTag;
+import com.teamhyungie.WildWatch.model.Witness;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -85,14 +87,15 @@ public class IncidentResponse {
 
     /**
      * Constructor for office admin incident management queries Includes
-     * transfer information and date/time details
+     * transfer information and date/time details. The finished date is only
+     * kept for resolved/dismissed cases
      */
     public IncidentResponse(String id, String trackingNumber, String incidentType, String location,
             String status, String description, LocalDateTime submittedAt,
             LocalDate dateOfIncident, LocalTime timeOfIncident,
             String firstName, String lastName, String email,
             String transferredFrom, String lastTransferredTo, String lastTransferNotes,
-            PriorityLevel priorityLevel) {
+            PriorityLevel priorityLevel, LocalDateTime finishedDate) {
         this.id = id;
         this.trackingNumber = trackingNumber;
         this.incidentType = incidentType;
@@ -109,6 +112,9 @@ public class IncidentResponse {
         this.lastTransferredTo = lastTransferredTo;
         this.lastTransferNotes = lastTransferNotes;
         this.priorityLevel = priorityLevel;
+        if (status != null && (status.equalsIgnoreCase("resolved") || status.equalsIgnoreCase("dismissed"))) {
+            this.finishedDate = finishedDate;
+        }
     }
 
     /**
@@ -178,6 +184,74 @@ public class IncidentResponse {
         }
     }
 
+    /**
+     * Constructor for the public Community Reports feed. Includes the assigned
+     * office admin's name and masks reporter details for anonymous incidents.
+     * Evidence, witnesses and tags are filled in per page by the service
+     */
+    public IncidentResponse(String id, String trackingNumber, String incidentType, String location,
+            String status, String description, LocalDateTime submittedAt,
+            LocalDate dateOfIncident, LocalTime timeOfIncident,
+            String formattedAddress, Double latitude, Double longitude, Building building, String room,
+            Office assignedOffice, PriorityLevel priorityLevel, Boolean verified, Integer upvoteCount,
+            String resolutionNotes, LocalDateTime finishedDate, LocalDateTime estimatedResolutionDate,
+            String transferredFrom, String lastTransferredTo, String lastTransferNotes,
+            Boolean preferAnonymous, Boolean isPrivate, Boolean isIncident, Boolean isAnonymous,
+            String firstName, String lastName, String email, String schoolIdNumber, String contactNumber,
+            String officeAdminFirstName, String officeAdminLastName,
+            String resolutionExtendedByFirstName, String resolutionExtendedByLastName,
+            LocalDateTime resolutionExtendedAt) {
+        this.id = id;
+        this.trackingNumber = trackingNumber;
+        this.incidentType = incidentType;
+        this.location = location;
+        this.status = status;
+        this.description = description;
+        this.submittedAt = submittedAt;
+        this.dateOfIncident = dateOfIncident;
+        this.timeOfIncident = timeOfIncident;
+        this.formattedAddress = formattedAddress;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.building = building;
+        this.buildingName = building != null ? building.getFullName() : null;
+        this.buildingCode = building != null ? building.getCode() : null;
+        this.room = room;
+        this.assignedOffice = assignedOffice;
+        this.priorityLevel = priorityLevel;
+        this.verified = verified;
+        this.upvoteCount = upvoteCount;
+        this.resolutionNotes = resolutionNotes;
+        this.finishedDate = finishedDate;
+        this.estimatedResolutionDate = estimatedResolutionDate;
+        this.transferredFrom = transferredFrom;
+        this.lastTransferredTo = lastTransferredTo;
+        this.lastTransferNotes = lastTransferNotes;
+        this.preferAnonymous = preferAnonymous;
+        this.isPrivate = isPrivate;
+        this.isIncident = isIncident;
+        if (officeAdminFirstName != null) {
+            this.officeAdminName = officeAdminFirstName + " " + officeAdminLastName;
+        }
+        if (resolutionExtendedByFirstName != null) {
+            this.resolutionExtendedBy = resolutionExtendedByFirstName + " " + resolutionExtendedByLastName;
+        }
+        this.resolutionExtendedAt = resolutionExtendedAt;
+        if (isAnonymous != null && isAnonymous) {
+            this.submittedBy = "Anonymous Reporter";
+            this.submittedByFullName = "Anonymous Reporter";
+            this.submittedByIdNumber = "***";
+            this.submittedByEmail = "***";
+            this.submittedByPhone = "***";
+        } else {
+            this.submittedBy = email;
+            this.submittedByFullName = firstName + " " + lastName;
+            this.submittedByIdNumber = schoolIdNumber;
+            this.submittedByEmail = email;
+            this.submittedByPhone = contactNumber;
+        }
+    }
+
     @Data
     public static class EvidenceDTO {
 
@@ -187,6 +261,17 @@ public class IncidentResponse {
         private String fileType;
         private Long fileSize;
         private LocalDateTime uploadedAt;
+
+        public static EvidenceDTO from(Evidence evidence) {
+            EvidenceDTO dto = new EvidenceDTO();
+            dto.setId(evidence.getId());
+            dto.setFileUrl(evidence.getFileUrl());
+            dto.setFileName(evidence.getFileName());
+            dto.setFileType(evidence.getFileType());
+            dto.setFileSize(evidence.getFileSize());
+            dto.setUploadedAt(evidence.getUploadedAt());
+            return dto;
+        }
     }
 
     @Data
@@ -199,6 +284,26 @@ public class IncidentResponse {
         private String additionalNotes;
         // Flag to indicate if this witness is a registered user
         private boolean registeredUser;
+
+        public static WitnessDTO from(Witness witness) {
+            WitnessDTO dto = new WitnessDTO();
+            dto.setId(witness.getId());
+
+            // Check if this witness is a registered user
+            if (witness.getUser() != null) {
+                dto.setUserId(witness.getUser().getId());
+                dto.setName(witness.getUser().getFullName());
+                dto.setContactInformation(witness.getUser().getEmail());
+                dto.setRegisteredUser(true);
+            } else {
+                dto.setName(witness.getName());
+                dto.setContactInformation(witness.getContactInformation());
+                dto.setRegisteredUser(false);
+            }
+
+            dto.setAdditionalNotes(witness.getAdditionalNotes());
+            return dto;
+        }
     }
 
     public static IncidentResponse fromIncident(Incident incident) {
@@ -236,6 +341,7 @@ public class IncidentResponse {
         response.setResolutionExtendedBy(incident.getResolutionExtendedBy() != null
                 ? incident.getResolutionExtendedBy().getFirstName() + " " + incident.getResolutionExtendedBy().getLastName() : null);
         response.setResolutionExtendedAt(incident.getResolutionExtendedAt());
+        response.setFinishedDate(incident.getFinishedAt());
         response.setPreferAnonymous(incident.getPreferAnonymous());
         response.setIsPrivate(incident.getIsPrivate());
         response.setIsIncident(incident.getIsIncident());
@@ -257,43 +363,12 @@ public class IncidentResponse {
 
         // Map evidence
         if (incident.getEvidence() != null) {
-            response.setEvidence(
-                    incident.getEvidence().stream().map(e -> {
-                        EvidenceDTO dto = new EvidenceDTO();
-                        dto.setId(e.getId());
-                        dto.setFileUrl(e.getFileUrl());
-                        dto.setFileName(e.getFileName());
-                        dto.setFileType(e.getFileType());
-                        dto.setFileSize(e.getFileSize());
-                        dto.setUploadedAt(e.getUploadedAt());
-                        return dto;
-                    }).collect(Collectors.toList())
-            );
+            response.setEvidence(incident.getEvidence().stream().map(EvidenceDTO::from).collect(Collectors.toList()));
         }
 
         // Map witnesses
         if (incident.getWitnesses() != null) {
-            response.setWitnesses(
-                    incident.getWitnesses().stream().map(w -> {
-                        WitnessDTO dto = new WitnessDTO();
-                        dto.setId(w.getId());
-
-                        // Check if this witness is a registered user
-                        if (w.getUser() != null) {
-                            dto.setUserId(w.getUser().getId());
-                            dto.setName(w.getUser().getFullName());
-                            dto.setContactInformation(w.getUser().getEmail());
-                            dto.setRegisteredUser(true);
-                        } else {
-                            dto.setName(w.getName());
-                            dto.setContactInformation(w.getContactInformation());
-                            dto.setRegisteredUser(false);
-                        }
-
-                        dto.setAdditionalNotes(w.getAdditionalNotes());
-                        return dto;
-                    }).collect(Collectors.toList())
-            );
+            response.setWitnesses(incident.getWitnesses().stream().map(WitnessDTO::from).collect(Collectors.toList()));
         }
 
         return response;
@@ -1,5 +1,6 @@
 package com.teamhyungie.WildWatch.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
@@ -129,25 +130,62 @@ public enum Building {
     private final String code;
     private final LatLngBounds bounds;
     private final String description;
+    // Polygon vertices as {lat, lng}, or null when the footprint is the bounds box itself
+    @Getter(AccessLevel.PACKAGE)
+    private final double[][] footprint;
 
     Building(String fullName, String code, LatLngBounds bounds, String description) {
         this.fullName = fullName;
         this.code = code;
         this.bounds = bounds;
         this.description = description;
+        this.footprint = null;
+    }
+
+    /**
+     * Building with a polygon footprint; its bounds are the polygon's bounding box
+     *
+     * @param footprint vertices as {lat, lng}, in order around the polygon
+     */
+    Building(String fullName, String code, double[][] footprint, String description) {
+        this.fullName = fullName;
+        this.code = code;
+        this.bounds = LatLngBounds.around(footprint);
+        this.description = description;
+        this.footprint = footprint;
     }
 
     public boolean containsPoint(double latitude, double longitude) {
-        return bounds.contains(latitude, longitude);
+        return BuildingIndex.INSTANCE.contains(this, latitude, longitude);
     }
 
+    /**
+     * Building whose footprint contains the point; where footprints overlap the smallest one wins.
+     * Falls back to CAMPUS_GROUNDS.
+     */
     public static Building findBuildingByCoordinates(double latitude, double longitude) {
-        for (Building building : Building.values()) {
-            if (building.containsPoint(latitude, longitude)) {
-                return building;
-            }
+        return BuildingIndex.INSTANCE.find(latitude, longitude);
+    }
+
+    /**
+     * Batch form of {@link #findBuildingByCoordinates(double, double)}
+     *
+     * @return the building of each point, in input order
+     * @throws IllegalArgumentException if an array is null or they differ in length
+     */
+    public static Building[] findBuildingsByCoordinates(double[] latitudes, double[] longitudes) {
+        if (latitudes == null || longitudes == null) {
+            throw new IllegalArgumentException("latitudes and longitudes are required");
+        }
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("latitudes and longitudes differ in length");
+        }
+        BuildingIndex index = BuildingIndex.INSTANCE;
+        Building[] buildings = new Building[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            buildings[i] = index.find(latitudes[i], longitudes[i]);
         }
-        return CAMPUS_GROUNDS; // Default fallback
+        return buildings;
     }
 
     @Getter
@@ -164,6 +202,18 @@ public enum Building {
             this.northEastLng = northEastLng;
         }
 
+        static LatLngBounds around(double[][] points) {
+            double swLat = Double.MAX_VALUE, swLng = Double.MAX_VALUE;
+            double neLat = -Double.MAX_VALUE, neLng = -Double.MAX_VALUE;
+            for (double[] point : points) {
+                swLat = Math.min(swLat, point[0]);
+                swLng = Math.min(swLng, point[1]);
+                neLat = Math.max(neLat, point[0]);
+                neLng = Math.max(neLng, point[1]);
+            }
+            return new LatLngBounds(swLat, swLng, neLat, neLng);
+        }
+
         public boolean contains(double latitude, double longitude) {
             return latitude >= southWestLat && latitude <= northEastLat &&
                    longitude >= southWestLng && longitude <= northEastLng;
@@ -0,0 +1,188 @@
+package com.teamhyungie.WildWatch.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uniform grid over the building footprints, built once on first use.
+ *
+ * Each cell lists the buildings whose footprint overlaps it, smallest area first, so a lookup
+ * tests only a few footprints and overlapping buildings always resolve to the smallest one
+ * (ties by declaration order). Points in no footprint resolve to the fallback building.
+ */
+final class BuildingIndex {
+
+    static final int GRID_SIZE = 64;
+    // Cells are widened by this much (about 0.1 mm) when assigning candidates, against rounding
+    private static final double EPSILON = 1e-9;
+
+    static final BuildingIndex INSTANCE =
+            new BuildingIndex(Building.values(), Building::getFootprint, Building.CAMPUS_GROUNDS);
+
+    private final Building fallback;
+    private final double minLat;
+    private final double minLng;
+    private final double maxLat;
+    private final double maxLng;
+    private final double cellLat;
+    private final double cellLng;
+    private final Shape[] shapesByOrdinal;
+    private final Shape[][] cells;
+    // Per cell: candidates from this index on cover the whole cell, so the first of them always matches
+    private final int[] firstCovering;
+
+    /**
+     * A footprint: a box, or a polygon with its bounding box as prefilter
+     */
+    private static final class Shape {
+        final Building building;
+        final double minLat;
+        final double minLng;
+        final double maxLat;
+        final double maxLng;
+        final double[] lats; // null for boxes
+        final double[] lngs;
+        final double area;
+
+        Shape(Building building, double[][] footprint) {
+            this.building = building;
+            Building.LatLngBounds bounds = footprint == null ? building.getBounds() : Building.LatLngBounds.around(footprint);
+            this.minLat = bounds.getSouthWestLat();
+            this.minLng = bounds.getSouthWestLng();
+            this.maxLat = bounds.getNorthEastLat();
+            this.maxLng = bounds.getNorthEastLng();
+            if (footprint == null) {
+                this.lats = null;
+                this.lngs = null;
+                this.area = (maxLat - minLat) * (maxLng - minLng);
+            } else {
+                this.lats = new double[footprint.length];
+                this.lngs = new double[footprint.length];
+                double twiceArea = 0;
+                for (int i = 0; i < footprint.length; i++) {
+                    lats[i] = footprint[i][0];
+                    lngs[i] = footprint[i][1];
+                }
+                for (int i = 0, j = footprint.length - 1; i < footprint.length; j = i++) {
+                    twiceArea += (lngs[j] + lngs[i]) * (lats[j] - lats[i]);
+                }
+                this.area = Math.abs(twiceArea) / 2;
+            }
+        }
+
+        boolean contains(double lat, double lng) {
+            if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+                return false;
+            }
+            if (lats == null) {
+                return true;
+            }
+            // Ray casting
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        boolean intersects(double cellMinLat, double cellMinLng, double cellMaxLat, double cellMaxLng) {
+            return minLat <= cellMaxLat && maxLat >= cellMinLat && minLng <= cellMaxLng && maxLng >= cellMinLng;
+        }
+
+        boolean covers(double cellMinLat, double cellMinLng, double cellMaxLat, double cellMaxLng) {
+            return lats == null && minLat <= cellMinLat && maxLat >= cellMaxLat && minLng <= cellMinLng && maxLng >= cellMaxLng;
+        }
+    }
+
+    /**
+     * @param buildings  every Building constant
+     * @param footprints polygon of each building, or null where its bounds box is the footprint
+     */
+    BuildingIndex(Building[] buildings, Function<Building, double[][]> footprints, Building fallback) {
+        this.fallback = fallback;
+        this.shapesByOrdinal = new Shape[buildings.length];
+        List<Shape> shapes = new ArrayList<>();
+        for (Building building : buildings) {
+            Shape shape = new Shape(building, footprints.apply(building));
+            shapesByOrdinal[building.ordinal()] = shape;
+            if (building != fallback) {
+                shapes.add(shape);
+            }
+        }
+        shapes.sort(Comparator.<Shape>comparingDouble(shape -> shape.area)
+                .thenComparingInt(shape -> shape.building.ordinal()));
+
+        double lo = Double.MAX_VALUE, lg = Double.MAX_VALUE, hi = -Double.MAX_VALUE, hg = -Double.MAX_VALUE;
+        for (Shape shape : shapes) {
+            lo = Math.min(lo, shape.minLat);
+            lg = Math.min(lg, shape.minLng);
+            hi = Math.max(hi, shape.maxLat);
+            hg = Math.max(hg, shape.maxLng);
+        }
+        this.minLat = lo;
+        this.minLng = lg;
+        this.maxLat = hi;
+        this.maxLng = hg;
+        this.cellLat = shapes.isEmpty() ? 1 : (hi - lo) / GRID_SIZE;
+        this.cellLng = shapes.isEmpty() ? 1 : (hg - lg) / GRID_SIZE;
+
+        this.cells = new Shape[GRID_SIZE * GRID_SIZE][];
+        this.firstCovering = new int[GRID_SIZE * GRID_SIZE];
+        List<Shape> candidates = new ArrayList<>();
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                double cMinLat = minLat + row * cellLat - EPSILON;
+                double cMinLng = minLng + col * cellLng - EPSILON;
+                double cMaxLat = minLat + (row + 1) * cellLat + EPSILON;
+                double cMaxLng = minLng + (col + 1) * cellLng + EPSILON;
+                candidates.clear();
+                int covering = -1;
+                for (Shape shape : shapes) {
+                    if (shape.intersects(cMinLat, cMinLng, cMaxLat, cMaxLng)) {
+                        candidates.add(shape);
+                        if (shape.covers(cMinLat, cMinLng, cMaxLat, cMaxLng)) {
+                            covering = candidates.size() - 1;
+                            break; // Larger shapes can never win in this cell
+                        }
+                    }
+                }
+                int cell = row * GRID_SIZE + col;
+                cells[cell] = candidates.toArray(new Shape[0]);
+                firstCovering[cell] = covering;
+            }
+        }
+    }
+
+    Building find(double latitude, double longitude) {
+        int row = (int) Math.floor((latitude - minLat) / cellLat);
+        int col = (int) Math.floor((longitude - minLng) / cellLng);
+        // Points on the outer edge belong to the last row/column
+        if (row >= GRID_SIZE && latitude <= maxLat) {
+            row = GRID_SIZE - 1;
+        }
+        if (col >= GRID_SIZE && longitude <= maxLng) {
+            col = GRID_SIZE - 1;
+        }
+        if (row < 0 || row >= GRID_SIZE || col < 0 || col >= GRID_SIZE) {
+            return fallback;
+        }
+        int cell = row * GRID_SIZE + col;
+        Shape[] candidates = cells[cell];
+        int covering = firstCovering[cell];
+        for (int i = 0; i < candidates.length; i++) {
+            if (i == covering || candidates[i].contains(latitude, longitude)) {
+                return candidates[i].building;
+            }
+        }
+        return fallback;
+    }
+
+    boolean contains(Building building, double latitude, double longitude) {
+        return shapesByOrdinal[building.ordinal()].contains(latitude, longitude);
+    }
+}
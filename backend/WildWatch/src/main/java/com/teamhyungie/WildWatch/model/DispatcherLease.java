@@ -0,0 +1,24 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Named lease held by at most one instance at a time, so a dispatcher that must run in a
+ * single place (e.g. the ordered notification outbox) does not run on every instance.
+ */
+@Entity
+@Table(name = "dispatcher_leases")
+@Data
+public class DispatcherLease {
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", length = 64)
+    private String owner; // instance holding the lease, null when released
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -29,6 +29,10 @@ public class Evidence {
     @Column(name = "file_size")
     private Long fileSize;
 
+    // SHA-256 of the content; the file is the shared StoredObject with this hash
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "uploaded_at")
     private LocalDateTime uploadedAt;
 
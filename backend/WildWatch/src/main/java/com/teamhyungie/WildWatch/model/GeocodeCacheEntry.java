@@ -0,0 +1,28 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the reverse-geocode cache: the address Google returned for a point in
+ * the geohash cell
+ */
+@Entity
+@Table(name = "geocode_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodeCacheEntry {
+    @Id
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
+    @Column(name = "formatted_address", length = 500, nullable = false)
+    private String formattedAddress;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+}
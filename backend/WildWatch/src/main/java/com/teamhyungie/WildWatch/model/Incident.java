@@ -134,7 +134,8 @@ public class Incident {
     @Column(name = "is_private")
     private Boolean isPrivate;
 
-    @Column(name = "upvote_count")
+    // Only written by UpvoteAggregator's atomic updates, never by saving the entity
+    @Column(name = "upvote_count", updatable = false)
     private Integer upvoteCount = 0;
 
     @Column(name = "estimated_resolution_date")
@@ -147,6 +148,9 @@ public class Incident {
     @Column(name = "resolution_extended_at")
     private LocalDateTime resolutionExtendedAt;
 
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt; // set when the incident transitions to Resolved/Closed
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "resolved_by")
     private User resolvedBy;
@@ -157,6 +161,9 @@ public class Incident {
     @Column(name = "is_incident")
     private Boolean isIncident = true; // Default to true (treat as incident)
 
+    @Column(name = "tag_minhash")
+    private byte[] tagMinhash; // MinHash signature of generalTags for approximate similarity
+
     @PrePersist
     protected void onCreate() {
         submittedAt = LocalDateTime.now(APP_TIMEZONE);
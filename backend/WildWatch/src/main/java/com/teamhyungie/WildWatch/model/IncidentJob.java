@@ -0,0 +1,81 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Background enrichment of a submitted incident (geocoding, AI tags/office/classification,
+ * evidence upload). One row per submission; {@link #stage} records how far it got, so a
+ * retry or a restarted worker resumes at the stage that has not finished yet.
+ */
+@Entity
+@Table(name = "incident_jobs")
+@Data
+public class IncidentJob {
+
+    public enum Stage {
+        GEOCODE, ANALYZE, UPLOAD_EVIDENCE, COMPLETE, DONE
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "incident_id", nullable = false)
+    private String incidentId;
+
+    // Per-user submission key (Idempotency-Key header, or random); a resubmission with the same key is not processed twice
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false)
+    private Stage stage = Stage.GEOCODE;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // attempts of the current stage
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil; // lease of the worker running the job
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner; // random id of the claim holding the lease
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload; // JSON IncidentJobPayload
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now(APP_TIMEZONE);
+        if (nextRunAt == null) {
+            nextRunAt = createdAt;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now(APP_TIMEZONE);
+    }
+}
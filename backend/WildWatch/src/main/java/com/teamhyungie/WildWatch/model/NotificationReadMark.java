@@ -0,0 +1,25 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user "read all" watermark: activity logs created (and bulletin notifications updated)
+ * at or before the timestamp count as read, whatever their is_read flag says.
+ * "Mark all as read" only moves the watermark instead of updating every unread row.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+@Data
+public class NotificationReadMark {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "activity_logs_read_at")
+    private LocalDateTime activityLogsReadAt;
+
+    @Column(name = "bulletin_notifications_read_at")
+    private LocalDateTime bulletinNotificationsReadAt;
+}
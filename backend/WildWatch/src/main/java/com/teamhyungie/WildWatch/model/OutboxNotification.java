@@ -0,0 +1,53 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * WebSocket notification written in the same transaction as the change it announces and
+ * sent by NotificationOutboxService after commit, in createdAt order. The id comes from a sequence
+ * allocated in blocks so inserts need no key round-trip and can be batched; each instance takes its
+ * own block, so ids only order the rows written by one instance and break ties between equal
+ * timestamps.
+ *
+ * A send that fails is retried with backoff; after the last attempt the row is given up on
+ * (failedAt set) and kept for inspection until the retention period has passed.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+public class OutboxNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "destination", nullable = false)
+    private String destination;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON body of the message
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now(APP_TIMEZONE); // send order, with id
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt; // null until sent
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts; // failed sends so far
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // after a failed send, not retried before this
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt; // set when given up on after the last attempt
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,38 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * One chunk of an evidence file waiting for the UPLOAD_EVIDENCE stage of its incident job. Kept
+ * in the database so whichever instance claims the job can read it, and split in chunks so the
+ * file is written and read as a stream. Written in the submission's transaction and deleted in
+ * the one that records the uploaded evidence.
+ */
+@Entity
+@Table(name = "spooled_evidence", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"spool_id", "seq"})
+})
+@Data
+public class SpooledEvidence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "spool_id", nullable = false)
+    private String spoolId; // the file this chunk belongs to
+
+    @Column(name = "seq", nullable = false)
+    private int seq; // position of the chunk in the file, from 0
+
+    @Column(name = "job_id", nullable = false)
+    private String jobId;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now(APP_TIMEZONE);
+}
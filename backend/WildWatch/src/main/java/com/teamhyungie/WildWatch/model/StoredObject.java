@@ -0,0 +1,32 @@
+package com.teamhyungie.WildWatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A file in the storage bucket, indexed by the SHA-256 of its content. Evidence and bulletin
+ * media with the same content all point at the one object (by content_hash and file_url).
+ * The object itself has a random name, so the public bucket does not reveal which contents exist.
+ */
+@Entity
+@Table(name = "stored_objects")
+@Data
+public class StoredObject {
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_url", length = 1000, nullable = false)
+    private String fileUrl;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Refreshed whenever an upload reuses the object, so the orphan sweep leaves it alone
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+}
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(com.teamhyungie.WildWatch.security.UserCacheEvictionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
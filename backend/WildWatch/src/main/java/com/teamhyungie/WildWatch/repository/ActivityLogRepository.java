@@ -5,8 +5,12 @@ import com.teamhyungie.WildWatch.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,4 +18,18 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, String
     Page<ActivityLog> findByUser(User user, Pageable pageable);
     Page<ActivityLog> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     List<ActivityLog> findByUserAndIsReadFalse(User user);
+
+    @Modifying
+    @Query("UPDATE ActivityLog a SET a.isRead = true WHERE a.user = :user AND a.isRead = false")
+    int markAllAsRead(@Param("user") User user);
+
+    // Unread = not flagged as read and newer than the user's read watermark
+    @Query("SELECT COUNT(a) FROM ActivityLog a WHERE a.user.id = :userId AND a.isRead = false AND a.createdAt > :since")
+    int countUnread(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * @return creation time of the user's newest committed log, or null if there is none
+     */
+    @Query("SELECT MAX(a.createdAt) FROM ActivityLog a WHERE a.user.id = :userId")
+    LocalDateTime findLatestCreatedAt(@Param("userId") Long userId);
 } 
\ No newline at end of file
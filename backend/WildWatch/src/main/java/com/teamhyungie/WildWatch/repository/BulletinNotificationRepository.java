@@ -6,10 +6,12 @@ import com.teamhyungie.WildWatch.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,8 +30,13 @@ public interface BulletinNotificationRepository extends JpaRepository<BulletinNo
     
     List<BulletinNotification> findByRecipientAndIsReadFalseOrderByUpdatedAtDesc(User recipient);
     
-    @Query("SELECT COUNT(bn) FROM BulletinNotification bn WHERE bn.recipient = :recipient AND bn.isRead = false")
-    int countUnreadNotifications(@Param("recipient") User recipient);
+    // Unread = not flagged as read and updated after the user's read watermark
+    @Query("SELECT COUNT(bn) FROM BulletinNotification bn WHERE bn.recipient = :recipient AND bn.isRead = false AND bn.updatedAt > :since")
+    int countUnreadNotifications(@Param("recipient") User recipient, @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("UPDATE BulletinNotification bn SET bn.isRead = true WHERE bn.recipient = :recipient AND bn.isRead = false")
+    int markAllAsRead(@Param("recipient") User recipient);
     
     void deleteByBulletin(OfficeBulletin bulletin);
 }
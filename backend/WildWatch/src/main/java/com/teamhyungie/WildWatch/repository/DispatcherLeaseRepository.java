@@ -0,0 +1,44 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.DispatcherLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface DispatcherLeaseRepository extends JpaRepository<DispatcherLease, String> {
+
+    /**
+     * Creates the lease row, already expired, unless another instance did so first
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO dispatcher_leases (name, lease_until) VALUES (:name, :now) ON CONFLICT (name) DO NOTHING",
+           nativeQuery = true)
+    int createIfMissing(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes the lease if it is free or expired, or extends it if the owner already holds it.
+     * Only one concurrent caller (across instances) gets 1 back.
+     * @return 1 if the owner holds the lease until leaseUntil, 0 if another instance holds it
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE DispatcherLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.owner IS NULL OR l.leaseUntil < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Gives the lease up early so the next instance with work does not wait for it to expire
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE DispatcherLease l SET l.owner = NULL, l.leaseUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
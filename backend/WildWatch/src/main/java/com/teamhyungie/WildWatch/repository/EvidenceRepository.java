@@ -3,11 +3,17 @@ package com.teamhyungie.WildWatch.repository;
 import com.teamhyungie.WildWatch.model.Evidence;
 import com.teamhyungie.WildWatch.model.Incident;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EvidenceRepository extends JpaRepository<Evidence, String> {
     List<Evidence> findByIncident(Incident incident);
+
+    @Query("SELECT e FROM Evidence e WHERE e.incident.id IN :incidentIds")
+    List<Evidence> findByIncidentIds(@Param("incidentIds") Collection<String> incidentIds);
 } 
\ No newline at end of file
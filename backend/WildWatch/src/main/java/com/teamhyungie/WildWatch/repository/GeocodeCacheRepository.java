@@ -0,0 +1,15 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.GeocodeCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, String> {
+
+    List<GeocodeCacheEntry> findByFetchedAtAfterOrderByFetchedAtDesc(LocalDateTime since, Pageable pageable);
+}
@@ -0,0 +1,62 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.IncidentJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IncidentJobRepository extends JpaRepository<IncidentJob, String> {
+
+    Optional<IncidentJob> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * IDs of pending jobs that are due, oldest first
+     */
+    @Query("SELECT j.id FROM IncidentJob j WHERE j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.PENDING " +
+           "AND j.nextRunAt <= :now ORDER BY j.nextRunAt")
+    List<String> findDueJobIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims a pending job for one worker. Only one concurrent caller (across instances) gets 1 back.
+     * @param owner Random id of this claim, needed to renew the lease
+     * @return 1 if the job was claimed, 0 if someone else got it first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IncidentJob j SET j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.RUNNING, " +
+           "j.lockedUntil = :lockedUntil, j.leaseOwner = :owner, j.attempts = j.attempts + 1 " +
+           "WHERE j.id = :id AND j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.PENDING")
+    int claim(@Param("id") String id, @Param("owner") String owner, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Extends the lease of a running job if the claim still holds it. In a surrounding transaction
+     * the job row stays locked until it ends, so the lease cannot be released meanwhile.
+     * @return 1 if the lease was renewed, 0 if it was released (and maybe claimed again)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IncidentJob j SET j.lockedUntil = :lockedUntil " +
+           "WHERE j.id = :id AND j.leaseOwner = :owner " +
+           "AND j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.RUNNING")
+    int renewLease(@Param("id") String id, @Param("owner") String owner, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Puts jobs whose worker lease ran out (e.g. the instance died mid-stage) back in the queue
+     * @return Number of jobs released
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IncidentJob j SET j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.PENDING, " +
+           "j.lockedUntil = NULL, j.leaseOwner = NULL " +
+           "WHERE j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.RUNNING AND j.lockedUntil < :now")
+    int releaseExpired(@Param("now") LocalDateTime now);
+}
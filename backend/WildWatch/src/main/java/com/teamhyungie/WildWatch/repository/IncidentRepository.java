@@ -3,18 +3,46 @@ package com.teamhyungie.WildWatch.repository;
 import com.teamhyungie.WildWatch.model.Incident;
 import com.teamhyungie.WildWatch.model.Office;
 import com.teamhyungie.WildWatch.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.QueryHint;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IncidentRepository extends JpaRepository<Incident, String> {
+
+    /**
+     * Projection shared by the public Community Reports feed queries
+     */
+    String PUBLIC_FEED_SELECT = "SELECT new com.teamhyungie.WildWatch.dto.IncidentResponse(" +
+           "i.id, i.trackingNumber, i.incidentType, i.location, i.status, " +
+           "i.description, i.submittedAt, i.dateOfIncident, i.timeOfIncident, " +
+           "i.formattedAddress, i.latitude, i.longitude, i.building, i.room, " +
+           "i.assignedOffice, i.priorityLevel, i.verified, i.upvoteCount, " +
+           "i.resolutionNotes, i.finishedAt, i.estimatedResolutionDate, " +
+           "i.transferredFrom, i.lastTransferredTo, i.lastTransferNotes, " +
+           "i.preferAnonymous, i.isPrivate, i.isIncident, i.isAnonymous, " +
+           "u.firstName, u.lastName, u.email, u.schoolIdNumber, u.contactNumber, " +
+           "au.firstName, au.lastName, re.firstName, re.lastName, i.resolutionExtendedAt) " +
+           "FROM Incident i JOIN i.submittedBy u " +
+           "LEFT JOIN OfficeAdmin oa ON oa.officeCode = i.assignedOffice " +
+           "LEFT JOIN oa.user au " +
+           "LEFT JOIN i.resolutionExtendedBy re " +
+           "WHERE LOWER(i.status) IN ('in progress', 'resolved') " +
+           "AND (i.isPrivate = false OR i.isPrivate IS NULL) ";
+
+    String PUBLIC_FEED_ORDER = "ORDER BY COALESCE(i.upvoteCount, 0) DESC, i.submittedAt DESC, i.id DESC";
+
     List<Incident> findBySubmittedByOrderBySubmittedAtDesc(User user);
     Optional<Incident> findByTrackingNumber(String trackingNumber);
     
@@ -49,8 +77,53 @@ public interface IncidentRepository extends JpaRepository<Incident, String> {
            "ORDER BY i.submittedAt DESC")
     List<Incident> findResolvedWithResolutionNotesAndTagsOrderBySubmittedAtDesc();
     
+    /**
+     * In-progress and resolved incidents that already have a persisted MinHash signature.
+     * Tags are not fetched - the approximate similarity index only needs the signature.
+     */
+    @Query("SELECT i FROM Incident i " +
+           "WHERE LOWER(i.status) IN ('in progress', 'resolved') AND i.tagMinhash IS NOT NULL " +
+           "ORDER BY i.submittedAt DESC")
+    List<Incident> findSimilarityCandidatesWithSignature();
+    
+    /**
+     * In-progress and resolved incidents without a MinHash signature yet (backfill), with tags fetched
+     */
+    @Query("SELECT DISTINCT i FROM Incident i " +
+           "LEFT JOIN FETCH i.generalTags " +
+           "WHERE LOWER(i.status) IN ('in progress', 'resolved') AND i.tagMinhash IS NULL " +
+           "ORDER BY i.submittedAt DESC")
+    List<Incident> findSimilarityCandidatesWithoutSignature();
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Incident i SET i.tagMinhash = :signature WHERE i.id = :id")
+    int updateTagMinhash(@Param("id") String id, @Param("signature") byte[] signature);
+    
     List<Incident> findByStatus(String status);
     
+    /**
+     * One-off backfill of finishedAt for incidents resolved/closed before the column existed:
+     * uses the latest Resolved/Closed entry in incident_updates. Only touches rows where it is still null.
+     * @return Number of incidents updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Incident i SET i.finishedAt = " +
+           "(SELECT MAX(u.updatedAt) FROM IncidentUpdate u WHERE u.incident = i AND LOWER(u.status) IN ('resolved', 'closed')) " +
+           "WHERE i.finishedAt IS NULL " +
+           "AND EXISTS (SELECT 1 FROM IncidentUpdate u2 WHERE u2.incident = i AND LOWER(u2.status) IN ('resolved', 'closed'))")
+    int backfillFinishedAt();
+
+    /**
+     * Latitude, longitude and formatted address of recent incidents that have all three,
+     * newest first (warms the reverse-geocode cache)
+     */
+    @Query("SELECT i.latitude, i.longitude, i.formattedAddress FROM Incident i " +
+           "WHERE i.latitude IS NOT NULL AND i.longitude IS NOT NULL AND i.formattedAddress IS NOT NULL " +
+           "AND i.submittedAt > :since ORDER BY i.submittedAt DESC")
+    List<Object[]> findGeocodedLocationsSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
     /**
      * Optimized query for public incidents (Community Reports)
      * Fetches only In Progress and Resolved incidents that are not private
@@ -63,6 +136,32 @@ public interface IncidentRepository extends JpaRepository<Incident, String> {
            "ORDER BY i.upvoteCount DESC, i.submittedAt DESC")
     List<Incident> findPublicIncidents();
     
+    /**
+     * Public Community Reports feed as a single projection query (first page, or everything when unpaged).
+     * Ordered by (upvoteCount, submittedAt, id) descending so pages can be continued with a keyset cursor.
+     */
+    @Query(PUBLIC_FEED_SELECT + PUBLIC_FEED_ORDER)
+    List<com.teamhyungie.WildWatch.dto.IncidentResponse> findPublicFeed(Pageable pageable);
+    
+    /**
+     * Next page of the public feed: rows strictly after the (upvoteCount, submittedAt, id) cursor
+     */
+    @Query(PUBLIC_FEED_SELECT +
+           "AND (COALESCE(i.upvoteCount, 0) < :upvotes " +
+           "OR (COALESCE(i.upvoteCount, 0) = :upvotes AND i.submittedAt < :submittedAt) " +
+           "OR (COALESCE(i.upvoteCount, 0) = :upvotes AND i.submittedAt = :submittedAt AND i.id < :id)) " +
+           PUBLIC_FEED_ORDER)
+    List<com.teamhyungie.WildWatch.dto.IncidentResponse> findPublicFeedAfter(@Param("upvotes") Integer upvotes,
+                                                                           @Param("submittedAt") LocalDateTime submittedAt,
+                                                                           @Param("id") String id,
+                                                                           Pageable pageable);
+    
+    /**
+     * (incident id, tag name) pairs of the given incidents, for filling in a page of the public feed
+     */
+    @Query("SELECT i.id, t.name FROM Incident i JOIN i.generalTags t WHERE i.id IN :ids")
+    List<Object[]> findTagNamesByIncidentIds(@Param("ids") Collection<String> ids);
+    
     /**
      * Optimized query for dashboard that fetches only the necessary fields for display
      * and joins the submitter information to avoid N+1 queries
@@ -89,12 +188,18 @@ public interface IncidentRepository extends JpaRepository<Incident, String> {
     List<com.teamhyungie.WildWatch.dto.IncidentResponse> findDashboardIncidentsByOffice(@Param("office") Office office);
     
     /**
-     * Optimized query for office admin incident management page that includes transfer information
+     * Optimized query for office admin incident management page that includes transfer information.
+     * The finished date (latest Resolved/Dismissed update) comes from a correlated subquery,
+     * so the whole page is served by this single statement. It is only looked up for incidents
+     * that are currently Resolved or Dismissed; a reopened incident has none.
      */
     @Query("SELECT new com.teamhyungie.WildWatch.dto.IncidentResponse(" +
            "i.id, i.trackingNumber, i.incidentType, i.location, i.status, " +
            "i.description, i.submittedAt, i.dateOfIncident, i.timeOfIncident, " +
-           "u.firstName, u.lastName, u.email, i.transferredFrom, i.lastTransferredTo, i.lastTransferNotes, i.priorityLevel) " +
+           "u.firstName, u.lastName, u.email, i.transferredFrom, i.lastTransferredTo, i.lastTransferNotes, i.priorityLevel, " +
+           "CASE WHEN LOWER(i.status) IN ('resolved', 'dismissed') THEN " +
+           "(SELECT MAX(iu.updatedAt) FROM IncidentUpdate iu " +
+           "WHERE iu.incident = i AND LOWER(iu.status) IN ('resolved', 'dismissed')) END) " +
            "FROM Incident i JOIN i.submittedBy u " +
            "WHERE i.assignedOffice = :office " +
            "ORDER BY i.submittedAt DESC")
@@ -113,7 +218,7 @@ public interface IncidentRepository extends JpaRepository<Incident, String> {
     List<com.teamhyungie.WildWatch.dto.IncidentResponse> findVerifiedCases(@Param("office") Office office);
     
     /**
-     * Optimized query for case tracking page - returns only active cases (pending/in progress)
+     * Optimized query for case tracking page - returns only active cases (received/pending/in progress)
      * Uses query cache with name "activeCases"
      */
     @QueryHints({
@@ -125,7 +230,7 @@ public interface IncidentRepository extends JpaRepository<Incident, String> {
            "i.description, i.submittedAt, i.dateOfIncident, i.timeOfIncident, " +
            "i.priorityLevel) " +
            "FROM Incident i " +
-           "WHERE i.submittedBy = :user AND LOWER(i.status) IN ('pending', 'in progress') " +
+           "WHERE i.submittedBy = :user AND LOWER(i.status) IN ('received', 'pending', 'in progress') " +
            "ORDER BY i.submittedAt DESC")
     List<com.teamhyungie.WildWatch.dto.IncidentResponse> findActiveCasesByUser(@Param("user") User user);
     
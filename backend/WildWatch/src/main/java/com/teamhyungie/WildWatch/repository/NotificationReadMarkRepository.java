@@ -0,0 +1,9 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.NotificationReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMark, Long> {
+}
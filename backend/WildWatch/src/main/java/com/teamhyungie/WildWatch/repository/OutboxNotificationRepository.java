@@ -0,0 +1,62 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.OutboxNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    /**
+     * Oldest notifications due to be sent, in the order they were written. Ids are handed out in
+     * blocks per instance, so they only break ties between rows written at the same time.
+     * A row waiting for its retry holds back its recipient's later rows (broadcasts count as one
+     * recipient), so they are neither sent out of order nor fill the page.
+     */
+    @Query("SELECT n FROM OutboxNotification n WHERE n.dispatchedAt IS NULL AND n.failedAt IS NULL " +
+           "AND NOT EXISTS (SELECT w.id FROM OutboxNotification w " +
+           "WHERE w.dispatchedAt IS NULL AND w.failedAt IS NULL AND w.nextAttemptAt > :now " +
+           "AND (w.userId = n.userId OR (w.userId IS NULL AND n.userId IS NULL)) " +
+           "AND (w.createdAt < n.createdAt OR (w.createdAt = n.createdAt AND w.id <= n.id))) " +
+           "ORDER BY n.createdAt, n.id")
+    List<OutboxNotification> findUndispatched(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByDispatchedAtIsNullAndFailedAtIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxNotification n SET n.dispatchedAt = :dispatchedAt WHERE n.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxNotification n SET n.attempts = n.attempts + 1, n.nextAttemptAt = :nextAttemptAt, " +
+           "n.lastError = :error WHERE n.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Gives up on a notification after its last failed attempt
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxNotification n SET n.attempts = n.attempts + 1, n.failedAt = :failedAt, " +
+           "n.lastError = :error WHERE n.id = :id")
+    int markFailed(@Param("id") Long id, @Param("failedAt") LocalDateTime failedAt, @Param("error") String error);
+
+    /**
+     * Deletes notifications sent, or given up on, before the cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxNotification n WHERE n.dispatchedAt < :before OR n.failedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,50 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.SpooledEvidence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SpooledEvidenceRepository extends JpaRepository<SpooledEvidence, Long> {
+
+    /**
+     * Writes one chunk without keeping it in the persistence context, so spooling a file holds
+     * no more than one chunk on the heap
+     */
+    @Modifying
+    @Query(value = "INSERT INTO spooled_evidence (spool_id, seq, job_id, content, created_at) " +
+                   "VALUES (:spoolId, :seq, :jobId, :content, :now)",
+           nativeQuery = true)
+    int insertChunk(@Param("spoolId") String spoolId, @Param("seq") int seq, @Param("jobId") String jobId,
+                    @Param("content") byte[] content, @Param("now") LocalDateTime now);
+
+    /**
+     * @return the chunk's bytes, or null if the file has no such chunk
+     */
+    @Query("SELECT s.content FROM SpooledEvidence s WHERE s.spoolId = :spoolId AND s.seq = :seq")
+    byte[] findChunk(@Param("spoolId") String spoolId, @Param("seq") int seq);
+
+    boolean existsBySpoolId(String spoolId);
+
+    @Modifying
+    @Query("DELETE FROM SpooledEvidence s WHERE s.spoolId IN :spoolIds")
+    int deleteBySpoolIds(@Param("spoolIds") Collection<String> spoolIds);
+
+    /**
+     * Deletes what is left of the files of jobs that finished before the cutoff, i.e. files the
+     * upload stage gave up on
+     * @return Number of chunks deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SpooledEvidence s WHERE s.jobId IN (SELECT j.id FROM IncidentJob j " +
+           "WHERE j.status = com.teamhyungie.WildWatch.model.IncidentJob.Status.DONE AND j.updatedAt < :cutoff)")
+    int deleteOfJobsFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
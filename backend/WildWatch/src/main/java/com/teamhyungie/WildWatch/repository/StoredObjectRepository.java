@@ -0,0 +1,54 @@
+package com.teamhyungie.WildWatch.repository;
+
+import com.teamhyungie.WildWatch.model.StoredObject;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+
+    String UNREFERENCED = "NOT EXISTS (SELECT 1 FROM Evidence e WHERE e.contentHash = s.contentHash) " +
+           "AND NOT EXISTS (SELECT 1 FROM BulletinMedia m WHERE m.contentHash = s.contentHash)";
+
+    /**
+     * @return number of objects touched; fewer than asked for if some were swept meanwhile
+     */
+    @Modifying
+    @Query("UPDATE StoredObject s SET s.lastUsedAt = :now WHERE s.contentHash IN :hashes")
+    int touch(@Param("hashes") Collection<String> hashes, @Param("now") LocalDateTime now);
+
+    /**
+     * Indexes an object unless the content is already indexed (e.g. by a concurrent upload)
+     *
+     * @return 1 if this object was indexed, 0 if another one already was
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_objects (content_hash, file_url, file_size, created_at, last_used_at) " +
+                   "VALUES (:hash, :fileUrl, :fileSize, :now, :now) ON CONFLICT (content_hash) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("fileUrl") String fileUrl,
+                       @Param("fileSize") Long fileSize, @Param("now") LocalDateTime now);
+
+    /**
+     * Objects no evidence or bulletin media points at, unused since the cutoff
+     */
+    @Query("SELECT s FROM StoredObject s WHERE s.lastUsedAt < :cutoff AND " + UNREFERENCED)
+    List<StoredObject> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Deletes the object's row if it is still unreferenced and unused since the cutoff
+     *
+     * @return 1 if the row was deleted
+     */
+    @Modifying
+    @Query("DELETE FROM StoredObject s WHERE s.contentHash = :hash AND s.lastUsedAt < :cutoff AND " + UNREFERENCED)
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,11 +3,20 @@ package com.teamhyungie.WildWatch.repository;
 import com.teamhyungie.WildWatch.model.Witness;
 import com.teamhyungie.WildWatch.model.Incident;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface WitnessRepository extends JpaRepository<Witness, String> {
     List<Witness> findByIncident(Incident incident);
+
+    /**
+     * Witnesses of the given incidents, with their registered user (if any) fetched in the same query
+     */
+    @Query("SELECT w FROM Witness w LEFT JOIN FETCH w.user WHERE w.incident.id IN :incidentIds")
+    List<Witness> findByIncidentIds(@Param("incidentIds") Collection<String> incidentIds);
 } 
\ No newline at end of file
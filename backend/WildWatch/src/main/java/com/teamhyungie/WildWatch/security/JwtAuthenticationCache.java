@@ -0,0 +1,119 @@
+package com.teamhyungie.WildWatch.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users already authenticated by a JWT, so repeat requests with the same token skip both the
+ * JWT parse and the users lookup.
+ *
+ * Entries are keyed by the token's signature (and checked against the whole token) and expire
+ * with the token, or after security.jwt.auth-cache.ttl-ms if that comes first, which bounds how
+ * long another instance's change can go unnoticed. Changes to a user on this instance evict their
+ * entries right away (see UserCacheEvictionListener).
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> signaturesByUser = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private static class Entry {
+        final String token;
+        final UserDetails userDetails;
+        final long expiresAt;
+
+        Entry(String token, UserDetails userDetails, long expiresAt) {
+            this.token = token;
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public JwtAuthenticationCache(MeterRegistry meterRegistry,
+                                  @Value("${security.jwt.auth-cache.ttl-ms:600000}") long ttlMillis,
+                                  @Value("${security.jwt.auth-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("security.jwt.auth-cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.jwt.auth-cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("security.jwt.auth-cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * The user the token was issued to, or null if the token is not cached (or has expired)
+     */
+    public UserDetails get(String token) {
+        Entry entry = entries.get(signature(token));
+        if (entry == null || !entry.token.equals(token) || entry.expiresAt <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.userDetails;
+    }
+
+    /**
+     * Caches a token that has just been verified
+     *
+     * @param expiration the token's exp claim
+     */
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + ttlMillis, expiration != null ? expiration.getTime() : now);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        String signature = signature(token);
+        entries.put(signature, new Entry(token, userDetails, expiresAt));
+        signaturesByUser.computeIfAbsent(userDetails.getUsername(), username -> ConcurrentHashMap.newKeySet())
+                .add(signature);
+    }
+
+    /**
+     * Forgets every token of the user, e.g. after a password or role change or deletion
+     */
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        Set<String> signatures = signaturesByUser.remove(username);
+        if (signatures != null) {
+            signatures.forEach(entries::remove);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.auth-cache.sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt <= now);
+        signaturesByUser.values().forEach(signatures -> signatures.removeIf(s -> !entries.containsKey(s)));
+        signaturesByUser.values().removeIf(Set::isEmpty);
+    }
+
+    private static String signature(String token) {
+        int lastDot = token.lastIndexOf('.');
+        return lastDot >= 0 ? token.substring(lastDot + 1) : token;
+    }
+}
@@ -1,5 +1,6 @@
 package com.teamhyungie.WildWatch.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,14 +21,16 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final JwtAuthenticationCache authenticationCache;
     
     @Autowired
     private ApplicationContext applicationContext;
     
     private UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, JwtAuthenticationCache authenticationCache) {
         this.jwtUtil = jwtUtil;
+        this.authenticationCache = authenticationCache;
     }
     
     private UserDetailsService getUserDetailsService() {
@@ -41,7 +44,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String jwt = null;
-        String userEmail = null;
 
         // Try to get token from Authorization header
         final String authHeader = request.getHeader("Authorization");
@@ -68,18 +70,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        try {
-            userEmail = jwtUtil.extractUsername(jwt);
-        } catch (Exception e) {
-            // If token is invalid, continue with chain
-            filterChain.doFilter(request, response);
-            return;
-        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Tokens seen before skip the parse and the user lookup
+            UserDetails userDetails = authenticationCache.get(jwt);
+            if (userDetails == null) {
+                Claims claims;
+                try {
+                    claims = jwtUtil.parseClaims(jwt);
+                } catch (Exception e) {
+                    // If token is invalid or expired, continue with chain
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                String userEmail = claims.getSubject();
+                if (userEmail != null) {
+                    UserDetails loaded = getUserDetailsService().loadUserByUsername(userEmail);
+                    if (userEmail.equals(loaded.getUsername())) {
+                        authenticationCache.put(jwt, loaded, claims.getExpiration());
+                        userDetails = loaded;
+                    }
+                }
+            }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = getUserDetailsService().loadUserByUsername(userEmail);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
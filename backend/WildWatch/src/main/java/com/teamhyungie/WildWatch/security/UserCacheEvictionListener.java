@@ -0,0 +1,37 @@
+package com.teamhyungie.WildWatch.security;
+
+import com.teamhyungie.WildWatch.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user's cached JWT authentications whenever the user row is updated (password, role,
+ * ...) or deleted. Evicts again after commit, in case a request cached the old row in between.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final JwtAuthenticationCache authenticationCache;
+
+    public UserCacheEvictionListener(JwtAuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        String email = user.getEmail();
+        authenticationCache.evictUser(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    authenticationCache.evictUser(email);
+                }
+            });
+        }
+    }
+}
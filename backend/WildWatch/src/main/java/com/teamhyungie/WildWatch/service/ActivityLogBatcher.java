@@ -0,0 +1,186 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.dto.NotificationDTO;
+import com.teamhyungie.WildWatch.model.ActivityLog;
+import com.teamhyungie.WildWatch.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Write-behind buffer for activity logs and their notifications.
+ *
+ * Inside a transaction, entries are collected until just before commit and then saved together,
+ * so Hibernate sends them as JDBC batches (hibernate.jdbc.batch_size) instead of statements
+ * interleaved with the caller's queries. Outside a transaction they are collected for a short
+ * window and written in one transaction by a background thread.
+ *
+ * Logs are stamped with the time they are written rather than the time they were added, so a
+ * read watermark set from the newest written log never covers a log still in the buffer.
+ *
+ * Log ids are UUIDs generated in the JVM and outbox ids come from a pooled sequence, so no
+ * insert needs a round-trip for its key and all of them can be batched.
+ */
+@Component
+@Slf4j
+public class ActivityLogBatcher {
+
+    private final ActivityLogRepository activityLogRepository;
+    private final NotificationOutboxService notificationOutbox;
+    private final UnreadCounterService unreadCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMillis;
+    private final int maxWindowEntries;
+
+    private final Queue<Entry> windowBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final DistributionSummary batchSizes;
+
+    /**
+     * Log entry and the notification announcing it (its id is filled in once the log is saved)
+     */
+    private static class Entry {
+        final ActivityLog log;
+        final NotificationDTO notification;
+
+        Entry(ActivityLog log, NotificationDTO notification) {
+            this.log = log;
+            this.notification = notification;
+        }
+    }
+
+    public ActivityLogBatcher(ActivityLogRepository activityLogRepository,
+                              NotificationOutboxService notificationOutbox,
+                              UnreadCounterService unreadCounters,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${activity.log.batch.window-ms:50}") long windowMillis,
+                              @Value("${activity.log.batch.max-entries:500}") int maxWindowEntries) {
+        this.activityLogRepository = activityLogRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.unreadCounters = unreadCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.windowMillis = windowMillis;
+        this.maxWindowEntries = maxWindowEntries;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSizes = DistributionSummary.builder("activity.log.batch.size")
+                .description("Activity logs written per flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers the log; it is written before the current transaction commits (and dropped if it
+     * rolls back), or within the batch window when there is no transaction
+     */
+    public void add(ActivityLog activityLog, NotificationDTO notification) {
+        Entry entry = new Entry(activityLog, notification);
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionBuffer().add(entry);
+            return;
+        }
+        windowBuffer.add(entry);
+        if (windowBuffer.size() >= maxWindowEntries) {
+            flusher.execute(this::flushWindow);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flushWindow, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry> transactionBuffer() {
+        List<Entry> buffer = (List<Entry>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<Entry> entries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ActivityLogBatcher.this);
+                }
+            });
+            buffer = entries;
+        }
+        return buffer;
+    }
+
+    private void flushWindow() {
+        flushScheduled.set(false);
+        List<Entry> batch = new ArrayList<>();
+        Entry entry;
+        while ((entry = windowBuffer.poll()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (Exception e) {
+            log.error("Failed to write {} activity logs: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+        List<ActivityLog> logs = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            entry.log.setCreatedAt(now);
+            entry.notification.setCreatedAt(now);
+            logs.add(entry.log);
+        }
+        activityLogRepository.saveAll(logs);
+        Map<Long, Integer> addedPerUser = new HashMap<>();
+        for (Entry entry : entries) {
+            entry.notification.setId(entry.log.getId());
+            Long userId = entry.notification.getUserId();
+            // Send notification to user-specific WebSocket topic to prevent cross-user notification leakage
+            notificationOutbox.enqueue(userId, "/topic/notifications/" + userId, entry.notification);
+            if (userId != null && !Boolean.TRUE.equals(entry.log.getIsRead())) {
+                addedPerUser.merge(userId, 1, Integer::sum);
+            }
+        }
+        addedPerUser.forEach(unreadCounters::logsAdded);
+        batchSizes.record(entries.size());
+        entries.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.execute(this::flushWindow);
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -6,29 +6,38 @@ import com.teamhyungie.WildWatch.model.User;
 import com.teamhyungie.WildWatch.repository.ActivityLogRepository;
 import com.teamhyungie.WildWatch.dto.NotificationDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class ActivityLogService {
+    // "watermark" = "read all" only moves the user's read watermark, "bulk" = one UPDATE over the unread rows
+    @Value("${notification.read-all.strategy:watermark}")
+    private String readAllStrategy;
+
     private final ActivityLogRepository activityLogRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ActivityLogBatcher activityLogBatcher;
+    private final NotificationReadMarkService readMarkService;
+    private final UnreadCounterService unreadCounters;
 
+    /**
+     * Records the activity and its WebSocket notification. Both are written in batches by
+     * ActivityLogBatcher, in the caller's transaction when there is one, and the notification
+     * is only sent once they are committed.
+     */
     public void logActivity(String activityType, String description, Incident incident, User user) {
         ActivityLog log = new ActivityLog();
         log.setActivityType(activityType);
         log.setDescription(description);
         log.setIncident(incident);
         log.setUser(user);
-        activityLogRepository.save(log);
-        // Send notification to user-specific WebSocket topic to prevent cross-user notification leakage
-        messagingTemplate.convertAndSend("/topic/notifications/" + user.getId(), toNotificationDTO(log));
+        activityLogBatcher.add(log, toNotificationDTO(log));
     }
 
     private NotificationDTO toNotificationDTO(ActivityLog log) {
@@ -55,6 +64,17 @@ public class ActivityLogService {
         return activityLogRepository.findByUserOrderByCreatedAtDesc(user, pageable);
     }
 
+    /**
+     * Logs created at or before this time count as read (see NotificationReadMarkService)
+     */
+    public LocalDateTime getReadWatermark(User user) {
+        return readMarkService.activityLogsReadAt(user);
+    }
+
+    public int countUnread(User user) {
+        return activityLogRepository.countUnread(user.getId(), readMarkService.activityLogsReadAt(user));
+    }
+
     @Transactional
     public void markAsRead(String id, User user) {
         ActivityLog log = activityLogRepository.findById(id)
@@ -64,14 +84,26 @@ public class ActivityLogService {
             throw new RuntimeException("Not authorized to mark this notification as read");
         }
         
+        boolean wasUnread = !NotificationReadMarkService.isRead(
+                log.getIsRead(), log.getCreatedAt(), readMarkService.activityLogsReadAt(user));
         log.setIsRead(true);
         activityLogRepository.save(log);
+        if (wasUnread) {
+            unreadCounters.logRead(user.getId());
+        }
     }
 
+    /**
+     * @return how many logs were unread
+     */
     @Transactional
-    public void markAllAsRead(User user) {
-        List<ActivityLog> logs = activityLogRepository.findByUserAndIsReadFalse(user);
-        logs.forEach(log -> log.setIsRead(true));
-        activityLogRepository.saveAll(logs);
+    public int markAllAsRead(User user) {
+        unreadCounters.allRead(user.getId());
+        if ("bulk".equalsIgnoreCase(readAllStrategy)) {
+            return activityLogRepository.markAllAsRead(user);
+        }
+        int unread = countUnread(user);
+        readMarkService.markActivityLogsRead(user);
+        return unread;
     }
 } 
\ No newline at end of file
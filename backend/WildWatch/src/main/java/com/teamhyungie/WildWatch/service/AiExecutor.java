@@ -0,0 +1,177 @@
+package com.teamhyungie.WildWatch.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for the blocking Gemini calls made while analyzing a report draft.
+ *
+ * Every call gets a deadline: a call that has not finished by then is cancelled and
+ * retried once on its own, and if the retry also fails the caller's fallback value is
+ * used. Request threads therefore never wait longer than two call timeouts, and a burst
+ * of drafts queues here (or is rejected) instead of starving the common ForkJoinPool.
+ */
+@Component
+@Slf4j
+public class AiExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long callTimeoutNanos;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AiExecutor(@Value("${ai.executor.pool-size:16}") int poolSize,
+                      @Value("${ai.executor.queue-capacity:64}") int queueCapacity,
+                      @Value("${ai.executor.call-timeout-ms:20000}") long callTimeoutMs,
+                      MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-exec-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.callTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMs);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("ai.executor.queue.depth", executor, e -> e.getQueue().size())
+                .description("AI calls waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.executor.in.flight", inFlight, AtomicInteger::get)
+                .description("AI calls currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a call on the pool. A saturated pool does not throw; the call is simply
+     * marked as failed and goes through the retry/fallback path of {@link #awaitAll}.
+     */
+    public <T> Call<T> submit(String name, Supplier<T> task) {
+        Call<T> call = new Call<>(name, task);
+        call.start();
+        return call;
+    }
+
+    /**
+     * A call whose result is already known (e.g. from the unified analysis), so it can be
+     * passed to {@link #awaitAll} alongside real calls
+     */
+    public <T> Call<T> completed(String name, T value) {
+        Call<T> call = new Call<>(name, () -> value);
+        call.value = value;
+        call.succeeded = true;
+        return call;
+    }
+
+    /**
+     * Waits for all calls up to one call timeout, then retries the calls that failed or
+     * timed out (in parallel, once) and waits up to one more call timeout for them.
+     */
+    public void awaitAll(Call<?>... calls) {
+        awaitUntil(System.nanoTime() + callTimeoutNanos, calls);
+
+        List<Call<?>> failed = new ArrayList<>();
+        for (Call<?> call : calls) {
+            if (!call.succeeded) {
+                failed.add(call);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        for (Call<?> call : failed) {
+            log.warn("AI call '{}' failed, retrying it alone", call.name);
+            call.start();
+        }
+        awaitUntil(System.nanoTime() + callTimeoutNanos, failed.toArray(new Call<?>[0]));
+    }
+
+    private void awaitUntil(long deadline, Call<?>... calls) {
+        for (Call<?> call : calls) {
+            call.await(deadline);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void record(String name, String outcome) {
+        meterRegistry.counter("ai.executor.calls", "call", name, "outcome", outcome).increment();
+    }
+
+    /**
+     * Handle for one AI call; read the result with {@link #getOrElse} after {@link #awaitAll}
+     */
+    public final class Call<T> {
+        private final String name;
+        private final Supplier<T> task;
+        private Future<T> future;
+        private T value;
+        private boolean succeeded;
+
+        private Call(String name, Supplier<T> task) {
+            this.name = name;
+            this.task = task;
+        }
+
+        private void start() {
+            try {
+                future = executor.submit(() -> {
+                    inFlight.incrementAndGet();
+                    try {
+                        return task.get();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future = null;
+                record(name, "rejected");
+                log.warn("AI executor saturated, rejected call '{}'", name);
+            }
+        }
+
+        private void await(long deadline) {
+            if (future == null) {
+                return;
+            }
+            try {
+                value = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                succeeded = true;
+                record(name, "success");
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                record(name, "timeout");
+                log.warn("AI call '{}' timed out and was cancelled", name);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                record(name, "failure");
+                log.warn("AI call '{}' failed: {}", name, e.getMessage());
+            } finally {
+                future = null;
+            }
+        }
+
+        public T getOrElse(Supplier<T> fallback) {
+            return succeeded ? value : fallback.get();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.teamhyungie.WildWatch.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces WebSocket broadcasts of values that supersede each other (counts, snapshots).
+ *
+ * Only the latest value per destination is kept and the pending values are sent every
+ * websocket.broadcast.coalesce-ms, so a burst of changes costs subscribers one frame per
+ * interval instead of one per change. Not for messages that must all arrive (use
+ * NotificationOutboxService for those). With an interval of 0 values are sent right away.
+ */
+@Component
+@Slf4j
+public class BroadcastCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long intervalMillis;
+
+    private final Map<Key, Object> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter sent;
+    private final Counter suppressed;
+
+    /**
+     * Destination plus an optional key for values on a shared destination that do not replace
+     * each other (e.g. different notifications on a user's topic)
+     */
+    private static final class Key {
+        final String destination;
+        final String key;
+
+        Key(String destination, String key) {
+            this.destination = destination;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return destination.equals(other.destination) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * destination.hashCode() + Objects.hashCode(key);
+        }
+    }
+
+    public BroadcastCoalescer(SimpMessagingTemplate messagingTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${websocket.broadcast.coalesce-ms:250}") long intervalMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.intervalMillis = intervalMillis;
+        this.sent = Counter.builder("websocket.broadcast.frames")
+                .tag("result", "sent")
+                .description("Coalesced broadcasts sent")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("websocket.broadcast.frames")
+                .tag("result", "suppressed")
+                .description("Broadcasts replaced by a newer value before they were sent")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the value to the destination at the next flush, replacing any value still pending there
+     */
+    public void send(String destination, Object payload) {
+        send(destination, null, payload);
+    }
+
+    /**
+     * Like {@link #send(String, Object)}, but only replaces a pending value with the same key
+     */
+    public void send(String destination, String key, Object payload) {
+        if (intervalMillis <= 0) {
+            messagingTemplate.convertAndSend(destination, payload);
+            sent.increment();
+            return;
+        }
+        if (pending.put(new Key(destination, key), payload) != null) {
+            suppressed.increment();
+        }
+    }
+
+    private void flush() {
+        for (Key key : pending.keySet()) {
+            Object payload = pending.remove(key);
+            if (payload == null) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(key.destination, payload);
+                sent.increment();
+            } catch (Exception e) {
+                log.warn("Failed to broadcast to {}: {}", key.destination, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.execute(this::flush);
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
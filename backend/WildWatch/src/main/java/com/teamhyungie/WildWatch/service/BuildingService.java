@@ -1,6 +1,7 @@
 package com.teamhyungie.WildWatch.service;
 
 import com.teamhyungie.WildWatch.dto.BuildingResponse;
+import com.teamhyungie.WildWatch.dto.CoordinateBatch;
 import com.teamhyungie.WildWatch.model.Building;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,15 @@ public class BuildingService {
         return building != null ? Optional.of(building) : Optional.empty();
     }
 
+    /**
+     * Building code for each point, in input order
+     */
+    public List<String> findBuildingCodesByCoordinates(CoordinateBatch points) {
+        return Arrays.stream(Building.findBuildingsByCoordinates(points.latitudes(), points.longitudes()))
+                .map(Building::name)
+                .collect(Collectors.toList());
+    }
+
     public List<BuildingResponse> getBuildingsWithinBounds(Double swLat, Double swLng, Double neLat, Double neLng) {
         return Arrays.stream(Building.values())
                 .filter(building -> {
@@ -9,10 +9,10 @@ import com.teamhyungie.WildWatch.repository.BulletinNotificationRepository;
 import com.teamhyungie.WildWatch.repository.BulletinUpvoteRepository;
 import com.teamhyungie.WildWatch.service.ActivityLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +30,12 @@ public class BulletinNotificationService {
     private final BulletinUpvoteRepository upvoteRepository;
     private final UserService userService;
     private final ActivityLogService activityLogService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final NotificationReadMarkService readMarkService;
+
+    // "watermark" = "read all" only moves the user's read watermark, "bulk" = one UPDATE over the unread rows
+    @Value("${notification.read-all.strategy:watermark}")
+    private String readAllStrategy;
     private static final int MAX_DISPLAYED_UPVOTERS = 3;
 
     /**
@@ -136,8 +141,9 @@ public class BulletinNotificationService {
             System.out.println("Notification ID: " + notification.getId() + ", Type: " + notification.getNotificationType() + ", Read: " + notification.getIsRead());
         }
         
+        LocalDateTime readAt = readMarkService.bulletinNotificationsReadAt(user);
         return notifications.stream()
-            .map(this::mapToNotificationResponse)
+            .map(notification -> mapToNotificationResponse(notification, readAt))
             .collect(Collectors.toList());
     }
     
@@ -151,7 +157,8 @@ public class BulletinNotificationService {
         Page<BulletinNotification> notifications = notificationRepository
             .findByRecipientOrderByUpdatedAtDesc(user, pageable);
         
-        return notifications.map(this::mapToNotificationResponse);
+        LocalDateTime readAt = readMarkService.bulletinNotificationsReadAt(user);
+        return notifications.map(notification -> mapToNotificationResponse(notification, readAt));
     }
     
     /**
@@ -173,42 +180,52 @@ public class BulletinNotificationService {
     
     /**
      * Mark all notifications as read for a user
+     *
+     * @return how many notifications were unread
      */
     @Transactional
-    public void markAllAsRead(String userEmail) {
+    public int markAllAsRead(String userEmail) {
         User user = userService.getUserByEmail(userEmail);
         
-        List<BulletinNotification> notifications = notificationRepository
-            .findByRecipientAndIsReadFalseOrderByUpdatedAtDesc(user);
-        
-        notifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(notifications);
+        if ("bulk".equalsIgnoreCase(readAllStrategy)) {
+            return notificationRepository.markAllAsRead(user);
+        }
+        int unread = countUnreadNotifications(user);
+        readMarkService.markBulletinNotificationsRead(user);
+        return unread;
     }
     
     /**
      * Count unread notifications for a user
      */
     public int countUnreadNotifications(String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
-        
-        return notificationRepository.countUnreadNotifications(user);
+        return countUnreadNotifications(userService.getUserByEmail(userEmail));
+    }
+    
+    private int countUnreadNotifications(User user) {
+        return notificationRepository.countUnreadNotifications(user, readMarkService.bulletinNotificationsReadAt(user));
     }
     
     /**
      * Send real-time notification via WebSocket
      */
     private void sendRealTimeNotification(BulletinNotification notification) {
-        NotificationResponse response = mapToNotificationResponse(notification);
-        messagingTemplate.convertAndSend(
+        // Sent because the notification just changed, so it is newer than any watermark
+        NotificationResponse response = mapToNotificationResponse(notification, null);
+        // Keyed by notification: a newer snapshot of the same notification replaces the pending one
+        broadcastCoalescer.send(
             "/topic/notifications/" + notification.getRecipient().getId(), 
+            notification.getId(),
             response
         );
     }
     
     /**
      * Map notification entity to DTO
+     *
+     * @param readAt the recipient's read watermark; notifications updated at or before it count as read
      */
-    private NotificationResponse mapToNotificationResponse(BulletinNotification notification) {
+    private NotificationResponse mapToNotificationResponse(BulletinNotification notification, LocalDateTime readAt) {
         NotificationResponse response = new NotificationResponse();
         response.setId(notification.getId());
         response.setType(notification.getNotificationType().name());
@@ -216,7 +233,7 @@ public class BulletinNotificationService {
         response.setBulletinTitle(notification.getBulletin().getTitle());
         response.setCreatedAt(notification.getCreatedAt());
         response.setUpdatedAt(notification.getUpdatedAt());
-        response.setIsRead(notification.getIsRead());
+        response.setIsRead(NotificationReadMarkService.isRead(notification.getIsRead(), notification.getUpdatedAt(), readAt));
         response.setUpvoteCount(notification.getUpvoteCount());
         
         // Set latest upvoter info
@@ -6,7 +6,6 @@ import com.teamhyungie.WildWatch.model.User;
 import com.teamhyungie.WildWatch.repository.BulletinUpvoteRepository;
 import com.teamhyungie.WildWatch.repository.OfficeBulletinRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +19,7 @@ public class BulletinUpvoteService {
     private final OfficeBulletinRepository bulletinRepository;
     private final UserService userService;
     private final BulletinNotificationService notificationService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastCoalescer broadcastCoalescer;
 
     /**
      * Toggle upvote for a bulletin
@@ -48,7 +47,7 @@ public class BulletinUpvoteService {
             notificationService.processUpvoteRemoval(upvote);
             
             // Send real-time update
-            messagingTemplate.convertAndSend("/topic/bulletins/" + bulletinId + "/upvotes", bulletin.getUpvoteCount());
+            broadcastCoalescer.send("/topic/bulletins/" + bulletinId + "/upvotes", bulletin.getUpvoteCount());
             
             return false;
         } else {
@@ -64,7 +63,7 @@ public class BulletinUpvoteService {
             notificationService.processUpvote(upvote);
             
             // Send real-time update
-            messagingTemplate.convertAndSend("/topic/bulletins/" + bulletinId + "/upvotes", bulletin.getUpvoteCount());
+            broadcastCoalescer.send("/topic/bulletins/" + bulletinId + "/upvotes", bulletin.getUpvoteCount());
             
             return true;
         }
@@ -0,0 +1,131 @@
+package com.teamhyungie.WildWatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The campus boundary polygon, compiled once for fast point-in-polygon checks.
+ *
+ * Points outside the polygon's bounding box are rejected without looking at any edge; the
+ * rest are ray cast against edges whose slope was worked out up front. Instances are
+ * immutable and safe to share between threads.
+ */
+@Component
+public class CampusGeometry {
+
+    // Campus boundary as "lat,lng" vertices separated by ';'
+    static final String DEFAULT_POLYGON =
+            "10.297153610508257,123.87918444217755;" +
+            "10.296456911339208,123.87927563728236;" +
+            "10.294170119974705,123.87994394768552;" +
+            "10.294352090572659,123.88092281728376;" +
+            "10.294005902515728,123.88106265579779;" +
+            "10.294409788545215,123.88163103169356;" +
+            "10.29469827824969,123.88147766042012;" +
+            "10.295665826408769,123.8817528265405;" +
+            "10.296078586876392,123.88089575177703;" +
+            "10.296504661645105,123.88083259889503;" +
+            "10.296642248161724,123.88048525806984;" +
+            "10.297476642525188,123.88037699599445;" +
+            "10.29752546340363,123.88003416608909;" +
+            "10.29725472934614,123.87993943677313";
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    // Edge k runs from vertex k-1 (wrapping) to vertex k
+    private final double[] edgeStartLat;
+    private final double[] edgeEndLat;
+    private final double[] edgeStartLng;
+    private final double[] edgeSlope; // change in lng per unit of lat
+
+    public CampusGeometry(@Value("${campus.boundary.polygon:}") String polygon) {
+        this(parse(polygon == null || polygon.isBlank() ? DEFAULT_POLYGON : polygon));
+    }
+
+    /**
+     * @param polygon vertices as {lat, lng}, in order around the boundary
+     */
+    public CampusGeometry(double[][] polygon) {
+        if (polygon.length < 3) {
+            throw new IllegalArgumentException("Campus polygon needs at least 3 vertices, got " + polygon.length);
+        }
+        int n = polygon.length;
+        this.edgeStartLat = new double[n];
+        this.edgeEndLat = new double[n];
+        this.edgeStartLng = new double[n];
+        this.edgeSlope = new double[n];
+
+        double south = Double.MAX_VALUE, north = -Double.MAX_VALUE;
+        double west = Double.MAX_VALUE, east = -Double.MAX_VALUE;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double latI = polygon[i][0], lngI = polygon[i][1];
+            double latJ = polygon[j][0], lngJ = polygon[j][1];
+            edgeStartLat[i] = latI;
+            edgeEndLat[i] = latJ;
+            edgeStartLng[i] = lngI;
+            // Horizontal edges never straddle a point's latitude, so their slope is never used
+            edgeSlope[i] = latJ == latI ? 0 : (lngJ - lngI) / (latJ - latI);
+
+            south = Math.min(south, latI);
+            north = Math.max(north, latI);
+            west = Math.min(west, lngI);
+            east = Math.max(east, lngI);
+        }
+        this.minLat = south;
+        this.maxLat = north;
+        this.minLng = west;
+        this.maxLng = east;
+    }
+
+    /**
+     * Ray casting test, after a bounding-box reject
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLat || latitude > maxLat || longitude < minLng || longitude > maxLng) {
+            return false;
+        }
+        boolean inside = false;
+        for (int k = 0; k < edgeSlope.length; k++) {
+            if ((edgeStartLat[k] > latitude) != (edgeEndLat[k] > latitude)
+                    && longitude < edgeSlope[k] * (latitude - edgeStartLat[k]) + edgeStartLng[k]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Batch form of {@link #contains(double, double)}
+     *
+     * @return whether each point is inside, in input order
+     */
+    public boolean[] contains(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("latitudes and longitudes differ in length");
+        }
+        boolean[] inside = new boolean[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            inside[i] = contains(latitudes[i], longitudes[i]);
+        }
+        return inside;
+    }
+
+    /**
+     * Parses "lat,lng;lat,lng;..." into {lat, lng} vertices
+     */
+    static double[][] parse(String polygon) {
+        String[] points = polygon.trim().split("\\s*;\\s*");
+        double[][] vertices = new double[points.length][];
+        for (int i = 0; i < points.length; i++) {
+            String[] parts = points[i].split("\\s*,\\s*");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid campus polygon vertex: '" + points[i] + "'");
+            }
+            vertices[i] = new double[]{Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim())};
+        }
+        return vertices;
+    }
+}
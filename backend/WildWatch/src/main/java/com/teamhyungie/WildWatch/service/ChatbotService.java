@@ -3,9 +3,7 @@ package com.teamhyungie.WildWatch.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 
@@ -16,9 +14,7 @@ public class ChatbotService {
     @Value("${gemini.api.key}")
     private String apiKey;
 
-    private static final String GEMINI_PRIMARY_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-pro:generateContent";
-    private static final String GEMINI_FALLBACK_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GeminiClient geminiClient;
 
     public String chat(String userMessage) {
         try {
@@ -53,67 +49,17 @@ IMPORTANT: Format your response in plain text without any markdown formatting. D
 User: 
 """ + userMessage;
 
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", prompt);
-
-            Map<String, Object> content = new HashMap<>();
-            content.put("parts", Collections.singletonList(part));
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("contents", Collections.singletonList(content));
-
             Map<String, Object> generationConfig = new HashMap<>();
             generationConfig.put("temperature", 0.5);
             generationConfig.put("candidateCount", 1);
-            requestBody.put("generationConfig", generationConfig);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            String primaryUrl = GEMINI_PRIMARY_URL + "?key=" + apiKey;
-            String fallbackUrl = GEMINI_FALLBACK_URL + "?key=" + apiKey;
-            log.debug("Making request to Gemini API: {} (with fallback)", primaryUrl);
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<Map> response;
+            String reply;
             try {
-                response = restTemplate.exchange(primaryUrl, HttpMethod.POST, entity, Map.class);
-                if (response.getStatusCode() != HttpStatus.OK) {
-                    log.warn("Gemini primary model returned status {} - attempting fallback", response.getStatusCode());
-                    response = restTemplate.exchange(fallbackUrl, HttpMethod.POST, entity, Map.class);
-                }
-            } catch (Exception ex) {
-                log.warn("Gemini primary model failed ({}). Attempting fallback...", ex.getMessage());
-                response = restTemplate.exchange(fallbackUrl, HttpMethod.POST, entity, Map.class);
-            }
-
-            if (response.getStatusCode() != HttpStatus.OK) {
-                log.error("Gemini API returned non-OK status: {}", response.getStatusCode());
+                reply = geminiClient.generate(GeminiClient.PRO, GeminiClient.FLASH, prompt, generationConfig).getText();
+            } catch (GeminiClient.GeminiException e) {
+                log.error("Gemini API call failed: {}", e.getMessage());
                 return "AI service error. Please try again later.";
             }
-
-            Map<String, Object> body = response.getBody();
-            if (body == null || !body.containsKey("candidates")) {
-                log.error("Invalid response from Gemini API: {}", body);
-                return "AI service error. Please try again later.";
-            }
-
-            List candidates = (List) body.get("candidates");
-            if (candidates.isEmpty()) {
-                log.error("No candidates in Gemini API response");
-                return "AI service error. Please try again later.";
-            }
-
-            Map firstCandidate = (Map) candidates.get(0);
-            Map contentMap = (Map) firstCandidate.get("content");
-            List parts = (List) contentMap.get("parts");
-            if (parts.isEmpty()) {
-                log.error("No parts in Gemini API response content");
-                return "AI service error. Please try again later.";
-            }
-
-            Map responsePart = (Map) parts.get(0);
-            String reply = ((String) responsePart.get("text")).trim();
             
             // Remove markdown formatting symbols
             reply = reply.replaceAll("\\*\\*", ""); // Remove bold markers
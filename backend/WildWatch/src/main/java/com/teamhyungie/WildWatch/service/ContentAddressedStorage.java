@@ -0,0 +1,298 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.StoredObject;
+import com.teamhyungie.WildWatch.repository.StoredObjectRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Stores evidence and bulletin media by content. The stored_objects index maps the SHA-256 of
+ * each stored file to its object; when the index already has the hash the upload is skipped
+ * and the existing object is reused. Objects keep random names, so the hash never appears in
+ * the public bucket and nobody can probe it for a file they hold.
+ *
+ * Each object is indexed as soon as its upload succeeds; an upload that loses the race to index
+ * the same content deletes its own object and uses the winner. Shared objects are never deleted
+ * on behalf of a single caller. Objects that end up with no evidence or bulletin media pointing
+ * at them (e.g. the caller's transaction rolled back) are removed by a periodic sweep once they
+ * have gone unused for the grace period.
+ */
+@Service
+@Slf4j
+public class ContentAddressedStorage {
+
+    private static final int SWEEP_BATCH = 100;
+
+    private final SupabaseStorageService storageService;
+    private final StoredObjectRepository objectRepository;
+    private final TransactionTemplate newTransaction;
+    private final long orphanGraceHours;
+    private final Counter reused;
+    private final Counter uploaded;
+    private final Counter bytesSaved;
+    private final Counter swept;
+
+    /**
+     * Outcome of storing one file: its stored object, or why it could not be stored
+     */
+    public record Outcome(StoredObject object, RuntimeException failure) {
+
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    public ContentAddressedStorage(SupabaseStorageService storageService,
+                                   StoredObjectRepository objectRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${storage.dedup.orphan-grace-hours:24}") long orphanGraceHours) {
+        this.storageService = storageService;
+        this.objectRepository = objectRepository;
+        // Index writes must not join (or roll back) the caller's transaction
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.orphanGraceHours = orphanGraceHours;
+        this.reused = meterRegistry.counter("storage.dedup.files", "result", "reused");
+        this.uploaded = meterRegistry.counter("storage.dedup.files", "result", "uploaded");
+        this.bytesSaved = Counter.builder("storage.dedup.bytes.saved")
+                .description("Upload bytes skipped because the content was already stored")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.swept = Counter.builder("storage.dedup.swept")
+                .description("Unreferenced stored objects deleted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores the files, hashing each one first
+     *
+     * @return the stored object of each upload, in input order
+     */
+    public List<StoredObject> store(List<SupabaseStorageService.Upload> uploads) {
+        return store(uploads, null);
+    }
+
+    /**
+     * Stores the files, uploading only content that is not stored yet. Distinct contents go up
+     * concurrently. If any file fails the first failure is thrown; the files that were stored
+     * stay indexed and are swept if nothing comes to reference them.
+     *
+     * @param contentHashes SHA-256 (hex) of each upload when already known, e.g. computed while
+     *                      the file was spooled; null entries (or a null list) are computed here
+     * @return the stored object of each upload, in input order
+     */
+    public List<StoredObject> store(List<SupabaseStorageService.Upload> uploads, List<String> contentHashes) {
+        List<StoredObject> result = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Outcome outcome : storeEach(uploads, contentHashes)) {
+            if (outcome.succeeded()) {
+                result.add(outcome.object());
+            } else if (failure == null) {
+                failure = outcome.failure();
+            } else if (failure != outcome.failure()) {
+                failure.addSuppressed(outcome.failure());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #store(List, List)}, but a file that cannot be stored does not fail the others
+     *
+     * @return the outcome of each upload, in input order
+     */
+    public List<Outcome> storeEach(List<SupabaseStorageService.Upload> uploads, List<String> contentHashes) {
+        Outcome[] outcomes = new Outcome[uploads.size()];
+        List<String> hashes = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            String known = contentHashes != null ? contentHashes.get(i) : null;
+            try {
+                hashes.add(known != null ? known : sha256(uploads.get(i).content()));
+            } catch (RuntimeException e) {
+                hashes.add(null);
+                outcomes[i] = new Outcome(null, e);
+            }
+        }
+
+        Set<String> distinct = new HashSet<>(hashes);
+        distinct.remove(null);
+        Map<String, StoredObject> objects = new HashMap<>();
+        objectRepository.findAllById(distinct).forEach(object -> objects.put(object.getContentHash(), object));
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+        if (!objects.isEmpty()) {
+            Integer touched = newTransaction.execute(status -> objectRepository.touch(objects.keySet(), now));
+            if (touched == null || touched < objects.size()) {
+                // Swept between the lookup and the touch: upload that content again. The touched
+                // ones are safe, the sweep only deletes objects unused since its cutoff.
+                Set<String> kept = new HashSet<>();
+                objectRepository.findAllById(objects.keySet()).forEach(object -> kept.add(object.getContentHash()));
+                objects.keySet().retainAll(kept);
+            }
+        }
+
+        // First upload of each new content
+        Map<String, SupabaseStorageService.Upload> missing = new LinkedHashMap<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            String hash = hashes.get(i);
+            if (hash == null) {
+                continue;
+            }
+            StoredObject existing = objects.get(hash);
+            if (existing != null || missing.containsKey(hash)) {
+                reused.increment();
+                bytesSaved.increment(sizeOf(uploads.get(i).content()));
+            } else {
+                missing.put(hash, uploads.get(i));
+            }
+        }
+
+        Map<String, RuntimeException> failures = new HashMap<>();
+        if (!missing.isEmpty()) {
+            List<String> missingHashes = new ArrayList<>(missing.keySet());
+            List<SupabaseStorageService.Upload> toUpload = new ArrayList<>(missing.values());
+            StoredObject[] indexed = new StoredObject[toUpload.size()];
+            List<SupabaseStorageService.Result> results = storageService.storeEach(toUpload, (url, i) ->
+                    indexed[i] = index(missingHashes.get(i), url, sizeOf(toUpload.get(i).content()), now));
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).succeeded()) {
+                    objects.put(missingHashes.get(i), indexed[i]);
+                } else {
+                    failures.put(missingHashes.get(i), results.get(i).failure());
+                }
+            }
+        }
+
+        List<Outcome> result = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            String hash = hashes.get(i);
+            if (outcomes[i] != null) {
+                result.add(outcomes[i]);
+            } else if (objects.containsKey(hash)) {
+                result.add(new Outcome(objects.get(hash), null));
+            } else {
+                result.add(new Outcome(null, failures.get(hash)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes objects that no evidence or bulletin media has pointed at for the grace period
+     */
+    @Scheduled(fixedDelayString = "${storage.dedup.sweep-ms:3600000}")
+    public void sweepUnreferenced() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now(APP_TIMEZONE).minusHours(orphanGraceHours);
+            for (StoredObject object : objectRepository.findUnreferencedBefore(cutoff, PageRequest.of(0, SWEEP_BATCH))) {
+                // The row goes first and only if still unreferenced, so a concurrent reuse keeps the
+                // file. Content uploaded again after this gets a new object under a new name.
+                Integer deleted = newTransaction.execute(status ->
+                        objectRepository.deleteIfUnreferenced(object.getContentHash(), cutoff));
+                if (deleted != null && deleted == 1) {
+                    storageService.deleteFiles(List.of(object.getFileUrl()));
+                    swept.increment();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Stored object sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * SHA-256 (hex) of everything the stream yields
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String sha256(Resource content) {
+        try (InputStream in = content.getInputStream()) {
+            return sha256(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read file " + content.getFilename() + ". Please try again!", e);
+        }
+    }
+
+    private static long sizeOf(Resource content) {
+        try {
+            return content.contentLength();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Indexes a just-uploaded object. If the content was indexed meanwhile (a concurrent upload),
+     * or the index cannot be written, the object is deleted again: its name is unique to this
+     * upload, so nothing else points at it.
+     *
+     * @return the indexed object for the content
+     */
+    private StoredObject index(String hash, String url, long size, LocalDateTime now) {
+        Integer inserted;
+        try {
+            inserted = newTransaction.execute(status -> objectRepository.insertIfAbsent(hash, url, size, now));
+        } catch (RuntimeException e) {
+            storageService.deleteFiles(List.of(url));
+            throw e;
+        }
+        if (inserted != null && inserted == 1) {
+            uploaded.increment();
+            StoredObject object = new StoredObject();
+            object.setContentHash(hash);
+            object.setFileUrl(url);
+            object.setFileSize(size);
+            object.setCreatedAt(now);
+            object.setLastUsedAt(now);
+            return object;
+        }
+        storageService.deleteFiles(List.of(url));
+        reused.increment();
+        bytesSaved.increment(size);
+        newTransaction.executeWithoutResult(status -> objectRepository.touch(List.of(hash), now));
+        return objectRepository.findById(hash)
+                .orElseThrow(() -> new IllegalStateException("Stored object " + hash + " disappeared while indexing"));
+    }
+}
@@ -0,0 +1,198 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.dto.IncidentJobPayload;
+import com.teamhyungie.WildWatch.repository.SpooledEvidenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.UUID;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Evidence files of submitted incidents, kept in spooled_evidence until the pipeline's
+ * UPLOAD_EVIDENCE stage has stored them. Files are copied in chunks from the multipart temp
+ * file and streamed back chunk by chunk, so neither the request nor the worker holds a whole
+ * file on the heap. The content hash is computed while the file is copied.
+ *
+ * Files the upload stage gave up on stay in the spool after their job is done, so they can be
+ * recovered; they are swept once the job has been finished for the retention period.
+ */
+@Service
+@Slf4j
+public class EvidenceSpool {
+
+    private final SpooledEvidenceRepository repository;
+    private final int chunkBytes;
+    private final long retentionHours;
+
+    public EvidenceSpool(SpooledEvidenceRepository repository,
+                         @Value("${incident.pipeline.spool-chunk-bytes:262144}") int chunkBytes,
+                         @Value("${incident.pipeline.spool-retention-hours:168}") long retentionHours) {
+        this.repository = repository;
+        this.chunkBytes = chunkBytes;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Copies an uploaded file into the spool. Must run in the transaction that saves the job.
+     */
+    public IncidentJobPayload.SpooledFile write(String jobId, MultipartFile file) {
+        String spoolId = UUID.randomUUID().toString();
+        MessageDigest digest = ContentAddressedStorage.newDigest();
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+        long size = 0;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            byte[] buffer = new byte[chunkBytes];
+            int seq = 0;
+            int read;
+            do {
+                read = in.readNBytes(buffer, 0, buffer.length);
+                // An empty file still gets its (empty) first chunk, so it can be found
+                if (read > 0 || seq == 0) {
+                    repository.insertChunk(spoolId, seq++, jobId,
+                            read == buffer.length ? buffer : Arrays.copyOf(buffer, read), now);
+                }
+                size += read;
+            } while (read == buffer.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", e);
+        }
+
+        IncidentJobPayload.SpooledFile spooled = new IncidentJobPayload.SpooledFile();
+        spooled.setSpoolId(spoolId);
+        spooled.setFileName(file.getOriginalFilename());
+        spooled.setContentType(file.getContentType());
+        spooled.setSize(size);
+        spooled.setContentHash(HexFormat.of().formatHex(digest.digest()));
+        return spooled;
+    }
+
+    /**
+     * Content of a spooled file; every stream opened on it reads the chunks one at a time
+     *
+     * @throws IllegalStateException if the file is not in the spool
+     */
+    public Resource read(IncidentJobPayload.SpooledFile file) {
+        if (!repository.existsBySpoolId(file.getSpoolId())) {
+            throw new IllegalStateException("Spooled evidence " + file.getFileName()
+                    + " (" + file.getSpoolId() + ") is missing");
+        }
+        return new SpooledResource(file);
+    }
+
+    /**
+     * Deletes spooled files, in the caller's transaction
+     */
+    public void delete(Collection<String> spoolIds) {
+        if (!spoolIds.isEmpty()) {
+            repository.deleteBySpoolIds(spoolIds);
+        }
+    }
+
+    /**
+     * Deletes the files left by jobs that finished more than the retention period ago
+     */
+    @Scheduled(fixedDelayString = "${incident.pipeline.spool-sweep-ms:3600000}")
+    public void sweepFinishedJobs() {
+        try {
+            int deleted = repository.deleteOfJobsFinishedBefore(LocalDateTime.now(APP_TIMEZONE).minusHours(retentionHours));
+            if (deleted > 0) {
+                log.info("Deleted {} spooled evidence chunks of finished incident jobs", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Spooled evidence sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private class SpooledResource extends AbstractResource {
+        private final IncidentJobPayload.SpooledFile file;
+
+        SpooledResource(IncidentJobPayload.SpooledFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public String getDescription() {
+            return "spooled evidence " + file.getFileName() + " [" + file.getSpoolId() + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFileName();
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getSize();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ChunkStream(file.getSpoolId(), file.getSize());
+        }
+    }
+
+    /**
+     * Reads a spooled file's chunks in order, fetching the next one when the current one is used up
+     */
+    private class ChunkStream extends InputStream {
+        private final String spoolId;
+        private long remaining;
+        private byte[] chunk = new byte[0];
+        private int position;
+        private int seq;
+
+        ChunkStream(String spoolId, long size) {
+            this.spoolId = spoolId;
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position == chunk.length) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                byte[] next = repository.findChunk(spoolId, seq);
+                if (next == null || next.length == 0) {
+                    throw new IOException("Spooled evidence " + spoolId + " has no chunk " + seq
+                            + " (" + remaining + " bytes short)");
+                }
+                chunk = next;
+                position = 0;
+                seq++;
+            }
+            int count = (int) Math.min(Math.min(len, chunk.length - position), remaining);
+            System.arraycopy(chunk, position, b, off, count);
+            position += count;
+            remaining -= count;
+            if (remaining == 0) {
+                chunk = new byte[0];
+                position = 0;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared client for Gemini generateContent calls.
+ *
+ * - One JDK HttpClient (keep-alive connection pool) with connect and per-request timeouts
+ * - A deadline per call (the AI call timeout): waits are interruptible and bounded by it, and
+ *   a wait that is interrupted or runs out aborts the HTTP exchange instead of leaving it running
+ * - A circuit breaker per model: after repeated failures the model is skipped for a while,
+ *   so callers go straight to the fallback instead of waiting for another timeout
+ * - Optional hedging: if the primary model has not answered after its recent p95 latency,
+ *   the fallback model is asked too and the first usable answer wins
+ * - Typed parsing of the response into {@link Response}
+ */
+@Component
+@Slf4j
+public class GeminiClient {
+
+    public static final String FLASH = "gemini-2.5-flash";
+    public static final String PRO = "gemini-2.5-pro";
+
+    private final String apiKey;
+    private final String baseUrl;
+    private final Duration readTimeout;
+    private final long callTimeoutNanos;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMillis;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService hedgeScheduler;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public GeminiClient(@Value("${gemini.api.key}") String apiKey,
+                        @Value("${gemini.client.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                        @Value("${gemini.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                        @Value("${gemini.client.read-timeout-ms:30000}") long readTimeoutMs,
+                        @Value("${ai.executor.call-timeout-ms:20000}") long callTimeoutMs,
+                        @Value("${gemini.client.breaker.failure-threshold:5}") int failureThreshold,
+                        @Value("${gemini.client.breaker.open-ms:30000}") long openMillis,
+                        @Value("${gemini.client.hedge.enabled:false}") boolean hedgeEnabled,
+                        @Value("${gemini.client.hedge.min-delay-ms:2000}") long hedgeMinDelayMillis) {
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.callTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMs);
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.hedgeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gemini-hedge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends the prompt to the primary model, falling back to the other model when the
+     * primary fails, returns no usable text, or has an open circuit. Both attempts together
+     * are bounded by the call deadline.
+     *
+     * @param generationConfig Gemini generationConfig (temperature, candidateCount, ...), may be null
+     * @throws GeminiException when neither model gave a usable answer in time, or the calling thread was interrupted
+     */
+    public Response generate(String primaryModel, String fallbackModel, String prompt, Map<String, Object> generationConfig) {
+        String body = requestBody(prompt, generationConfig);
+        long deadline = System.nanoTime() + callTimeoutNanos;
+        CircuitBreaker primaryBreaker = breaker(primaryModel);
+        CircuitBreaker fallbackBreaker = breaker(fallbackModel);
+
+        if (hedgeEnabled && primaryBreaker.isClosed() && fallbackBreaker.isClosed()) {
+            return generateHedged(primaryModel, fallbackModel, body, deadline);
+        }
+
+        GeminiException lastError = null;
+        for (String model : List.of(primaryModel, fallbackModel)) {
+            if (!breaker(model).allowRequest()) {
+                log.warn("Gemini {} circuit is open, skipping it", model);
+                continue;
+            }
+            try {
+                return await(send(model, body, deadline), deadline);
+            } catch (DeadlineException e) {
+                throw e; // No time left for the fallback either
+            } catch (GeminiException e) {
+                lastError = e;
+                log.warn("Gemini {} failed ({})", model, lastError.getMessage());
+            }
+        }
+        throw lastError != null ? lastError : new GeminiException("All Gemini models unavailable (circuits open)");
+    }
+
+    /**
+     * Sends the prompt to a single model, for callers that validate the answer themselves
+     * before trying another model
+     *
+     * @throws GeminiException when the model failed, gave no usable text, or its circuit is open
+     */
+    public Response generate(String model, String prompt, Map<String, Object> generationConfig) {
+        if (!breaker(model).allowRequest()) {
+            throw new GeminiException("Gemini " + model + " circuit is open");
+        }
+        long deadline = System.nanoTime() + callTimeoutNanos;
+        return await(send(model, requestBody(prompt, generationConfig), deadline), deadline);
+    }
+
+    private Response generateHedged(String primaryModel, String fallbackModel, String body, long deadline) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicBoolean fallbackStarted = new AtomicBoolean();
+        List<Attempt> attempts = new CopyOnWriteArrayList<>();
+
+        // The answer is the first success; it fails only once both models have failed
+        Runnable startFallback = () -> {
+            if (!result.isDone() && fallbackStarted.compareAndSet(false, true)) {
+                log.debug("Hedging Gemini {} with {}", primaryModel, fallbackModel);
+                Attempt fallback = send(fallbackModel, body, deadline);
+                attempts.add(fallback);
+                fallback.response().whenComplete((response, error) -> settle(result, response, error, failures));
+            }
+        };
+
+        Attempt primary = send(primaryModel, body, deadline);
+        attempts.add(primary);
+        primary.response().whenComplete((response, error) -> {
+            settle(result, response, error, failures);
+            if (error != null) {
+                startFallback.run(); // Primary failed before the hedge delay: fall back right away
+            }
+        });
+        ScheduledFuture<?> hedge = hedgeScheduler.schedule(startFallback, hedgeDelayMillis(primaryModel), TimeUnit.MILLISECONDS);
+
+        try {
+            return awaitResult(result, deadline);
+        } finally {
+            hedge.cancel(false);
+            for (Attempt attempt : attempts) {
+                attempt.abort(); // The losing (or timed out) request is aborted
+            }
+        }
+    }
+
+    /**
+     * Waits for the attempt until the deadline; the exchange is aborted if the wait ends without an answer
+     */
+    private Response await(Attempt attempt, long deadline) {
+        try {
+            return awaitResult(attempt.response(), deadline);
+        } finally {
+            attempt.abort();
+        }
+    }
+
+    private Response awaitResult(CompletableFuture<Response> result, long deadline) {
+        try {
+            return result.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw asGeminiException(e);
+        } catch (TimeoutException e) {
+            throw new DeadlineException("Gemini call exceeded its deadline");
+        } catch (InterruptedException e) {
+            // e.g. AiExecutor cancelled the call at its deadline
+            Thread.currentThread().interrupt();
+            throw new DeadlineException("Gemini call interrupted");
+        }
+    }
+
+    private void settle(CompletableFuture<Response> result, Response response, Throwable error, AtomicInteger failures) {
+        if (error == null) {
+            result.complete(response);
+        } else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Recent p95 latency of the model, but never less than the configured minimum
+     */
+    long hedgeDelayMillis(String model) {
+        return Math.max(hedgeMinDelayMillis, latencies.computeIfAbsent(model, m -> new LatencyWindow()).p95());
+    }
+
+    /**
+     * Starts one request. Its timeout is the read timeout, cut short by the call deadline.
+     */
+    private Attempt send(String model, String body, long deadline) {
+        Duration timeout = Duration.ofNanos(Math.min(readTimeout.toNanos(), Math.max(1L, deadline - System.nanoTime())));
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/models/" + model + ":generateContent?key=" + apiKey))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        CircuitBreaker breaker = breaker(model);
+        long start = System.nanoTime();
+
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<Response> response = exchange
+                .handle((httpResponse, error) -> {
+                    if (isCancellation(error)) {
+                        breaker.recordAbort(); // We aborted it; says nothing about the model
+                        throw new GeminiException(model + " request aborted", error);
+                    }
+                    if (error != null) {
+                        breaker.recordFailure();
+                        throw new GeminiException(model + " request failed: " + error.getMessage(), error);
+                    }
+                    int status = httpResponse.statusCode();
+                    if (status == 429 || status >= 500) {
+                        breaker.recordFailure();
+                        throw new GeminiException(model + " returned HTTP " + status);
+                    }
+                    breaker.recordSuccess();
+                    latencies.computeIfAbsent(model, m -> new LatencyWindow())
+                            .add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (status != 200) {
+                        throw new GeminiException(model + " returned HTTP " + status + ": " + httpResponse.body());
+                    }
+                    return parse(model, httpResponse.body());
+                });
+        return new Attempt(exchange, response);
+    }
+
+    /**
+     * Parses a generateContent response body into a {@link Response}
+     *
+     * @throws GeminiException if the body has no usable text (including replies cut off at MAX_TOKENS)
+     */
+    Response parse(String model, String responseBody) {
+        GenerateContentResponse parsed;
+        try {
+            parsed = objectMapper.readValue(responseBody, GenerateContentResponse.class);
+        } catch (Exception e) {
+            throw new GeminiException(model + " returned an unreadable body", e);
+        }
+        if (parsed.getCandidates() == null || parsed.getCandidates().isEmpty()) {
+            throw new GeminiException(model + " returned no candidates");
+        }
+        Candidate candidate = parsed.getCandidates().get(0);
+        if ("MAX_TOKENS".equals(candidate.getFinishReason())) {
+            throw new GeminiException(model + " hit MAX_TOKENS");
+        }
+        if (candidate.getContent() == null || candidate.getContent().getParts() == null
+                || candidate.getContent().getParts().isEmpty()
+                || candidate.getContent().getParts().get(0).getText() == null) {
+            throw new GeminiException(model + " returned no text");
+        }
+        return new Response(model, candidate.getContent().getParts().get(0).getText().trim(), candidate.getFinishReason());
+    }
+
+    private String requestBody(String prompt, Map<String, Object> generationConfig) {
+        Map<String, Object> part = new HashMap<>();
+        part.put("text", prompt);
+
+        Map<String, Object> content = new HashMap<>();
+        content.put("parts", Collections.singletonList(part));
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("contents", Collections.singletonList(content));
+        if (generationConfig != null) {
+            requestBody.put("generationConfig", generationConfig);
+        }
+        try {
+            return objectMapper.writeValueAsString(requestBody);
+        } catch (Exception e) {
+            throw new GeminiException("Could not serialize Gemini request", e);
+        }
+    }
+
+    private CircuitBreaker breaker(String model) {
+        return breakers.computeIfAbsent(model, m -> new CircuitBreaker());
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        return error instanceof CancellationException
+                || (error instanceof CompletionException && error.getCause() instanceof CancellationException);
+    }
+
+    private static GeminiException asGeminiException(Throwable error) {
+        Throwable cause = (error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null
+                ? error.getCause() : error;
+        return cause instanceof GeminiException ? (GeminiException) cause : new GeminiException(cause.getMessage(), cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeScheduler.shutdownNow();
+    }
+
+    /**
+     * Text answer of one model
+     */
+    @Getter
+    public static class Response {
+        private final String model;
+        private final String text;
+        private final String finishReason;
+
+        Response(String model, String text, String finishReason) {
+            this.model = model;
+            this.text = text;
+            this.finishReason = finishReason;
+        }
+    }
+
+    public static class GeminiException extends RuntimeException {
+        public GeminiException(String message) {
+            super(message);
+        }
+
+        public GeminiException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * The call ran out of time (or its thread was interrupted); the fallback model is not tried
+     */
+    public static class DeadlineException extends GeminiException {
+        public DeadlineException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One in-flight request. Cancelling a future derived with handle() does not reach the HTTP
+     * exchange, so the exchange future is kept to abort it.
+     */
+    private record Attempt(CompletableFuture<HttpResponse<String>> exchange, CompletableFuture<Response> response) {
+        void abort() {
+            if (!exchange.isDone()) {
+                exchange.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Closed until failureThreshold consecutive failures, then open for openMillis;
+     * after that a single trial request is let through (half-open)
+     */
+    private class CircuitBreaker {
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        synchronized boolean isClosed() {
+            return consecutiveFailures < failureThreshold;
+        }
+
+        synchronized boolean allowRequest() {
+            if (consecutiveFailures < failureThreshold) {
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (now < openUntil || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void recordAbort() {
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + openMillis;
+            }
+        }
+    }
+
+    /**
+     * Latencies of the last 100 successful calls of a model
+     */
+    private static class LatencyWindow {
+        private final long[] samples = new long[100];
+        private int count;
+        private int next;
+
+        synchronized void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized long p95() {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(count * 0.95) - 1)];
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class GenerateContentResponse {
+        private List<Candidate> candidates;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Candidate {
+        private Content content;
+        private String finishReason;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Content {
+        private List<Part> parts;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Part {
+        private String text;
+    }
+}
@@ -0,0 +1,84 @@
+package com.teamhyungie.WildWatch.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache in front of the Gemini-backed services. Entries are keyed by a
+ * SHA-256 of the normalized prompt inputs, so re-analyzing the same draft (or one that
+ * only differs in case or whitespace) does not call the model again.
+ *
+ * The caches themselves (TTL, size, optional disk tier) are created in GeminiCacheConfig.
+ * Cached values must be Serializable so they can overflow to disk.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeminiResponseCache {
+
+    public static final String TAGS = "geminiTags";
+    public static final String OFFICE = "geminiOffice";
+    public static final String CLASSIFICATION = "geminiClassification";
+    public static final String MODERATION = "geminiModeration";
+    public static final String ANALYSIS = "geminiAnalysis";
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Returns the cached answer or computes it; null results are never cached
+     */
+    public <T> T get(String cacheName, String key, Supplier<T> loader) {
+        return get(cacheName, key, loader, value -> true);
+    }
+
+    /**
+     * Returns the cached answer or computes it, caching it only if it is non-null and
+     * accepted by cacheable (so fallback answers given on errors are not kept)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Supplier<T> loader, Predicate<T> cacheable) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null && cached.get() != null) {
+                meterRegistry.counter("gemini.cache.requests", "cache", cacheName, "result", "hit").increment();
+                return (T) cached.get();
+            }
+        }
+        meterRegistry.counter("gemini.cache.requests", "cache", cacheName, "result", "miss").increment();
+
+        T value = loader.get();
+        if (cache != null && value != null && cacheable.test(value)) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * SHA-256 (hex) of the inputs after trimming, lower-casing and collapsing whitespace
+     */
+    public static String key(String... inputs) {
+        StringBuilder normalized = new StringBuilder();
+        for (String input : inputs) {
+            normalized.append(Objects.toString(input, "").trim().toLowerCase().replaceAll("\\s+", " "))
+                    .append('\u0000');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
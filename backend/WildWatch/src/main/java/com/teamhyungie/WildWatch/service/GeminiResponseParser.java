@@ -0,0 +1,114 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamhyungie.WildWatch.model.Office;
+
+import java.util.*;
+
+/**
+ * Parsing shared by the Gemini-backed services: reads the JSON answers
+ * (moderation and the unified incident analysis) out of the model text
+ * returned by GeminiClient.
+ */
+public final class GeminiResponseParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private GeminiResponseParser() {
+    }
+
+    /**
+     * Parses a JSON object from model text, tolerating markdown fences and text around the object
+     *
+     * @throws IllegalArgumentException if no JSON object can be read
+     */
+    public static Map<?, ?> parseJsonObject(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("No text to parse");
+        }
+        String json = text
+                .replaceAll("^```(json)?\\s*", "")
+                .replaceAll("```$", "")
+                .trim();
+        int start = json.indexOf('{');
+        int end = json.lastIndexOf('}');
+        if (start >= 0 && end > start) {
+            json = json.substring(start, end + 1);
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, Map.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JSON from model: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads decision, confidence (clamped to 0-1) and reasons; unknown decisions count as ALLOW
+     */
+    public static ModerationService.Result parseModeration(Map<?, ?> json) {
+        Object d = json.get("decision");
+        ModerationService.Decision decision = (d != null && d.toString().equalsIgnoreCase("BLOCK"))
+                ? ModerationService.Decision.BLOCK
+                : ModerationService.Decision.ALLOW;
+        double confidence = 0.5;
+        Object c = json.get("confidence");
+        if (c instanceof Number) {
+            confidence = ((Number) c).doubleValue();
+        } else if (c != null) {
+            try {
+                confidence = Double.parseDouble(c.toString());
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        confidence = Math.min(1.0, Math.max(0.0, confidence));
+        List<String> reasons = toStringList(json.get("reasons"));
+        return new ModerationService.Result(decision, confidence,
+                reasons.isEmpty() ? List.of("moderation-complete") : reasons);
+    }
+
+    /**
+     * Office code from the model, or null if it is not one of the known codes
+     */
+    public static Office parseOffice(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Office.valueOf(value.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Boolean from the model (JSON boolean or "true"/"false" text), or null if unclear
+     */
+    public static Boolean parseBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim().toLowerCase();
+        if (text.contains("true")) {
+            return true;
+        }
+        if (text.contains("false")) {
+            return false;
+        }
+        return null;
+    }
+
+    public static List<String> toStringList(Object value) {
+        List<String> result = new ArrayList<>();
+        if (value instanceof Collection<?>) {
+            for (Object o : (Collection<?>) value) {
+                if (o != null) {
+                    result.add(o.toString());
+                }
+            }
+        }
+        return result;
+    }
+}
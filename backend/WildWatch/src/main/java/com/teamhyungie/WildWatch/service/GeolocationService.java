@@ -1,5 +1,6 @@
 package com.teamhyungie.WildWatch.service;
 
+import com.teamhyungie.WildWatch.dto.CoordinateBatch;
 import com.teamhyungie.WildWatch.dto.GeolocationResponse;
 import com.teamhyungie.WildWatch.model.Building;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,8 @@ public class GeolocationService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ReverseGeocodeCache reverseGeocodeCache;
+    private final CampusGeometry campusGeometry;
 
     public GeolocationResponse reverseGeocode(Double latitude, Double longitude) {
         try {
@@ -72,6 +75,14 @@ public class GeolocationService {
     }
 
     private String getFormattedAddress(Double latitude, Double longitude) {
+        String address = reverseGeocodeCache.get(latitude, longitude, () -> fetchFormattedAddress(latitude, longitude));
+        return address != null ? address : String.format("%.6f, %.6f", latitude, longitude);
+    }
+
+    /**
+     * Address from the Google Maps Geocoding API, or null if it has none or the call failed
+     */
+    private String fetchFormattedAddress(Double latitude, Double longitude) {
         try {
             // Use Google Maps Geocoding REST API instead of the Java library
             String url = String.format(
@@ -89,10 +100,10 @@ public class GeolocationService {
                 }
             }
             
-            return String.format("%.6f, %.6f", latitude, longitude);
+            return null;
         } catch (Exception e) {
             log.error("Error getting formatted address: ", e);
-            return String.format("%.6f, %.6f", latitude, longitude);
+            return null;
         }
     }
 
@@ -106,45 +117,19 @@ public class GeolocationService {
     }
 
     /**
-     * Check if coordinates are within the actual campus polygon boundary
+     * Batch form of {@link #validateLocation}, for streams of GPS fixes
+     *
+     * @return whether each point is within campus, in input order
      */
-    private Boolean isWithinCampusBounds(Double latitude, Double longitude) {
-        // Define the actual campus boundary polygon coordinates
-        double[][] campusPolygon = {
-            {10.297153610508257, 123.87918444217755},
-            {10.296456911339208, 123.87927563728236},
-            {10.294170119974705, 123.87994394768552},
-            {10.294352090572659, 123.88092281728376},
-            {10.294005902515728, 123.88106265579779},
-            {10.294409788545215, 123.88163103169356},
-            {10.29469827824969, 123.88147766042012},
-            {10.295665826408769, 123.8817528265405},
-            {10.296078586876392, 123.88089575177703},
-            {10.296504661645105, 123.88083259889503},
-            {10.296642248161724, 123.88048525806984},
-            {10.297476642525188, 123.88037699599445},
-            {10.29752546340363, 123.88003416608909},
-            {10.29725472934614, 123.87993943677313}
-        };
-
-        return isPointInPolygon(latitude, longitude, campusPolygon);
+    public boolean[] validateLocations(CoordinateBatch points) {
+        return campusGeometry.contains(points.latitudes(), points.longitudes());
     }
 
     /**
-     * Ray casting algorithm to determine if a point is inside a polygon
+     * Check if coordinates are within the actual campus polygon boundary
      */
-    private Boolean isPointInPolygon(Double lat, Double lng, double[][] polygon) {
-        int i, j;
-        boolean inside = false;
-        
-        for (i = 0, j = polygon.length - 1; i < polygon.length; j = i++) {
-            if (((polygon[i][0] > lat) != (polygon[j][0] > lat)) &&
-                (lng < (polygon[j][1] - polygon[i][1]) * (lat - polygon[i][0]) / (polygon[j][0] - polygon[i][0]) + polygon[i][1])) {
-                inside = !inside;
-            }
-        }
-        
-        return inside;
+    private Boolean isWithinCampusBounds(Double latitude, Double longitude) {
+        return campusGeometry.contains(latitude, longitude);
     }
 
     /**
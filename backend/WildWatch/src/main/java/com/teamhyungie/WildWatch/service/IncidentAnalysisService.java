@@ -0,0 +1,147 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.Office;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Unified "incident analysis": asks Gemini once for tags, office, incident/concern
+ * classification and moderation instead of one round-trip per task.
+ *
+ * Each field of the answer is optional; whatever is missing or invalid is left null so
+ * callers can fall back to TagGenerationService, OfficeAssignmentService,
+ * IncidentClassificationService or ModerationService for that part only.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IncidentAnalysisService {
+
+    // "unified" = one combined call, "separate" = one call per task (the original behaviour)
+    @Value("${gemini.analysis.mode:unified}")
+    private String mode;
+
+    private final GeminiClient geminiClient;
+    private final TagGenerationService tagGenerationService;
+    private final GeminiResponseCache responseCache;
+
+    @Getter
+    public static class Analysis implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private List<String> tags; // null when the model gave no usable tags
+        private Office office; // null when the model gave no valid office code
+        private Boolean isIncident; // null when the model's answer was unclear
+        private ModerationService.Result moderation; // null when no decision was given
+
+        private Analysis withTags(List<String> newTags) {
+            Analysis copy = new Analysis();
+            copy.tags = new ArrayList<>(newTags);
+            copy.office = office;
+            copy.isIncident = isIncident;
+            copy.moderation = moderation;
+            return copy;
+        }
+    }
+
+    public boolean isEnabled() {
+        return "unified".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * @param tags tags already chosen in step 1; when null or empty the model also generates tags
+     * @return the combined analysis, or null when the call failed or returned no JSON
+     */
+    public Analysis analyze(String incidentType, String description, String location,
+                            List<String> tags, List<String> officeNames) {
+        Analysis analysis = responseCache.get(GeminiResponseCache.ANALYSIS,
+                GeminiResponseCache.key(incidentType, description, TagGenerationService.removePlusCodes(location)),
+                () -> analyzeWithModel(incidentType, description, location, tags, officeNames));
+        if (analysis != null && tags != null && !tags.isEmpty()) {
+            // Tags chosen in step 1 always win over tags cached from an earlier analysis
+            analysis = analysis.withTags(tags);
+        }
+        return analysis;
+    }
+
+    private Analysis analyzeWithModel(String incidentType, String description, String location,
+                                      List<String> tags, List<String> officeNames) {
+        boolean generateTags = tags == null || tags.isEmpty();
+        String sanitizedLocation = TagGenerationService.removePlusCodes(location);
+
+        // Use String concatenation instead of String.format to avoid format specifier issues
+        // This allows users to include special characters like %, -, etc. in their descriptions
+        String prompt = "You analyze reports for a university incident reporting system. " +
+                "Answer the tasks below in a single JSON object.\n\n" +
+                "Inputs:\n" +
+                "- Incident Type: '" + safe(incidentType) + "'\n" +
+                "- Description: '" + safe(description) + "'\n" +
+                "- Location: '" + safe(sanitizedLocation) + "'\n" +
+                (generateTags ? "" : "- Tags: " + tags + "\n") +
+                "\n" +
+                (generateTags
+                        ? "TASK \"tags\": array of tag strings following these rules:\n" + TagGenerationService.TAG_RULES + "\n"
+                        : "") +
+                "TASK \"office\": the code of the office that should handle the report.\n" +
+                OfficeAssignmentService.officeRules() +
+                "TASK \"isIncident\": true if the report is a REAL INCIDENT, false if it is just a CONCERN.\n" +
+                IncidentClassificationService.INCIDENT_DEFINITIONS +
+                "TASK \"decision\", \"confidence\", \"reasons\": moderate the report using ONLY the Incident Type " +
+                "and Description (location and tags are context only).\n" +
+                ModerationService.moderationRules(officeNames) +
+                "Return ONLY this JSON, no extra text:\n" +
+                "{" + (generateTags ? "\"tags\": [\"Tag1\", ...], " : "") +
+                "\"office\": \"TSG|OPC|SSO|SSD|SSG\", \"isIncident\": true|false, " +
+                "\"decision\": \"ALLOW|BLOCK\", \"confidence\": 0-1, " +
+                "\"reasons\": [short phrases such as 'profanity', 'vague-description', 'insufficient-details', " +
+                "'harassment', 'hate-speech', 'office-disparagement']}";
+
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.2);
+        generationConfig.put("candidateCount", 1);
+        generationConfig.put("responseMimeType", "application/json");
+
+        String text;
+        try {
+            text = geminiClient.generate(GeminiClient.FLASH, GeminiClient.PRO, prompt, generationConfig).getText();
+        } catch (GeminiClient.GeminiException e) {
+            log.warn("Unified analysis model call failed ({}); falling back", e.getMessage());
+            return null;
+        }
+
+        Map<?, ?> json;
+        try {
+            json = GeminiResponseParser.parseJsonObject(text);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unified analysis JSON parse failed; falling back. Raw: {}", text);
+            return null;
+        }
+
+        Analysis analysis = new Analysis();
+        if (generateTags) {
+            List<String> rawTags = GeminiResponseParser.toStringList(json.get("tags"));
+            if (!rawTags.isEmpty()) {
+                analysis.tags = tagGenerationService.postProcessTags(
+                        String.join(", ", rawTags), description, location, incidentType);
+            }
+        } else {
+            analysis.tags = new ArrayList<>(tags);
+        }
+        analysis.office = GeminiResponseParser.parseOffice(json.get("office"));
+        analysis.isIncident = GeminiResponseParser.parseBoolean(json.get("isIncident"));
+        if (json.get("decision") != null) {
+            analysis.moderation = GeminiResponseParser.parseModeration(json);
+        }
+        return analysis;
+    }
+
+    private String safe(String s) {
+        return s == null ? "" : s;
+    }
+}
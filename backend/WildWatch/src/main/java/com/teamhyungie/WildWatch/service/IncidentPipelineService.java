@@ -0,0 +1,625 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamhyungie.WildWatch.dto.GeolocationResponse;
+import com.teamhyungie.WildWatch.dto.IncidentJobPayload;
+import com.teamhyungie.WildWatch.dto.IncidentRequest;
+import com.teamhyungie.WildWatch.model.Building;
+import com.teamhyungie.WildWatch.model.Evidence;
+import com.teamhyungie.WildWatch.model.Incident;
+import com.teamhyungie.WildWatch.model.IncidentJob;
+import com.teamhyungie.WildWatch.model.Office;
+import com.teamhyungie.WildWatch.model.StoredObject;
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.EvidenceRepository;
+import com.teamhyungie.WildWatch.repository.IncidentJobRepository;
+import com.teamhyungie.WildWatch.repository.IncidentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Staged incident submission. The HTTP request only persists a "Received" incident and an
+ * {@link IncidentJob} (evidence bytes go to spooled_evidence, so any instance can run the job);
+ * the slow work runs later on IncidentPipelineWorker threads:
+ *
+ * GEOCODE -> ANALYZE (tags, office, incident/concern) -> UPLOAD_EVIDENCE -> COMPLETE
+ *
+ * Each stage does its network calls outside any transaction and then commits its result
+ * together with the job's next stage, so a failed or interrupted job resumes where it stopped.
+ * Every commit first renews the worker's lease on the job; a worker whose lease ran out (and
+ * whose job may have been claimed again) stops without committing anything.
+ * A stage that keeps failing is retried with exponential backoff and, after the last attempt,
+ * skipped so the report still reaches its office. UPLOAD_EVIDENCE retries and gives up per file. COMPLETE moves the incident to "Pending",
+ * notifies the office and tells the reporter over /topic/notifications/{userId}.
+ */
+@Service
+@Slf4j
+public class IncidentPipelineService {
+
+    public static final String RECEIVED_STATUS = "Received";
+
+    private final IncidentJobRepository jobRepository;
+    private final IncidentRepository incidentRepository;
+    private final EvidenceRepository evidenceRepository;
+    private final EvidenceSpool evidenceSpool;
+    private final GeolocationService geolocationService;
+    private final IncidentAnalysisService incidentAnalysisService;
+    private final TagGenerationService tagGenerationService;
+    private final OfficeAssignmentService officeAssignmentService;
+    private final IncidentClassificationService incidentClassificationService;
+    private final OfficeAdminService officeAdminService;
+    private final TagService tagService;
+    private final SimilarityService similarityService;
+    private final ContentAddressedStorage contentStorage;
+    private final ActivityLogService activityLogService;
+    private final BadgeService badgeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long leaseMillis;
+
+    public IncidentPipelineService(IncidentJobRepository jobRepository,
+                                   IncidentRepository incidentRepository,
+                                   EvidenceRepository evidenceRepository,
+                                   EvidenceSpool evidenceSpool,
+                                   GeolocationService geolocationService,
+                                   IncidentAnalysisService incidentAnalysisService,
+                                   TagGenerationService tagGenerationService,
+                                   OfficeAssignmentService officeAssignmentService,
+                                   IncidentClassificationService incidentClassificationService,
+                                   OfficeAdminService officeAdminService,
+                                   TagService tagService,
+                                   SimilarityService similarityService,
+                                   ContentAddressedStorage contentStorage,
+                                   ActivityLogService activityLogService,
+                                   BadgeService badgeService,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${incident.pipeline.max-attempts:5}") int maxAttempts,
+                                   @Value("${incident.pipeline.retry-base-ms:5000}") long retryBaseMillis,
+                                   @Value("${incident.pipeline.lease-ms:300000}") long leaseMillis) {
+        this.jobRepository = jobRepository;
+        this.incidentRepository = incidentRepository;
+        this.evidenceRepository = evidenceRepository;
+        this.evidenceSpool = evidenceSpool;
+        this.geolocationService = geolocationService;
+        this.incidentAnalysisService = incidentAnalysisService;
+        this.tagGenerationService = tagGenerationService;
+        this.officeAssignmentService = officeAssignmentService;
+        this.incidentClassificationService = incidentClassificationService;
+        this.officeAdminService = officeAdminService;
+        this.tagService = tagService;
+        this.similarityService = similarityService;
+        this.contentStorage = contentStorage;
+        this.activityLogService = activityLogService;
+        this.badgeService = badgeService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Incident already created for this submission key, if the client is resubmitting
+     */
+    public Optional<Incident> findSubmitted(String idempotencyKey) {
+        return jobRepository.findByIdempotencyKey(idempotencyKey)
+                .flatMap(job -> incidentRepository.findById(job.getIncidentId()));
+    }
+
+    /**
+     * Sets what is known without network calls: coordinates, building (from the request or
+     * detected from the coordinates), the client's formatted address and a provisional location.
+     * GEOCODE fills in the address later when the client did not send one.
+     */
+    public void applySubmittedLocation(Incident incident, IncidentRequest request) {
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            incident.setLatitude(request.getLatitude());
+            incident.setLongitude(request.getLongitude());
+
+            // If building is provided in request, use it, otherwise detect from coordinates
+            if (request.getBuilding() != null) {
+                incident.setBuilding(request.getBuilding());
+            } else {
+                incident.setBuilding(Building.findBuildingByCoordinates(request.getLatitude(), request.getLongitude()));
+            }
+            if (request.getFormattedAddress() != null && !request.getFormattedAddress().trim().isEmpty()) {
+                incident.setFormattedAddress(request.getFormattedAddress());
+            }
+        } else {
+            log.debug("No coordinates provided for incident: {}", incident.getTrackingNumber());
+        }
+
+        String formattedLocation = formatLocationString(incident.getBuilding(), request.getRoom(), incident.getFormattedAddress());
+        incident.setLocation(formattedLocation.isEmpty() ? request.getLocation() : formattedLocation);
+    }
+
+    /**
+     * Creates the job of a new submission, spooling its evidence files to spooled_evidence.
+     * Must run in the transaction that saves the incident, so the spooled bytes commit or roll back with it.
+     */
+    public IncidentJob submit(Incident incident, IncidentRequest request, List<MultipartFile> files, String idempotencyKey) {
+        IncidentJobPayload payload = new IncidentJobPayload();
+        payload.setEnhancedLocationInfo(enhancedLocationInfo(request));
+        payload.setAllTags(request.getAllTags());
+        payload.setRequestedOffice(request.getAssignedOffice());
+
+        IncidentJob job = new IncidentJob();
+        job.setIncidentId(incident.getId());
+        job.setIdempotencyKey(idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString());
+        job.setPayload(writePayload(payload));
+        // Flushed now so a concurrent submission with the same key fails here, on the unique constraint
+        job = jobRepository.saveAndFlush(job);
+
+        if (files != null && !files.isEmpty()) {
+            for (MultipartFile file : files) {
+                payload.getFiles().add(evidenceSpool.write(job.getId(), file));
+            }
+            job.setPayload(writePayload(payload));
+            job = jobRepository.save(job);
+        }
+        return job;
+    }
+
+    /**
+     * Runs a claimed job through its remaining stages
+     *
+     * @param leaseOwner id of the claim, which must still hold the job's lease at every commit
+     */
+    public void process(String jobId, String leaseOwner) {
+        IncidentJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !leaseOwner.equals(job.getLeaseOwner())) {
+            return;
+        }
+        IncidentJobPayload payload = readPayload(job);
+        try {
+            while (job.getStage() != IncidentJob.Stage.DONE) {
+                runStage(job, payload);
+                job = advance(job, payload, null);
+            }
+            log.info("Incident {} processed", job.getIncidentId());
+        } catch (LeaseLostException e) {
+            log.warn("Incident job {} lost its lease in stage {}, leaving it to the next claim", job.getId(), job.getStage());
+        } catch (Exception e) {
+            handleFailure(job, payload, e);
+        }
+    }
+
+    private void runStage(IncidentJob job, IncidentJobPayload payload) {
+        switch (job.getStage()) {
+            case GEOCODE -> geocode(job);
+            case ANALYZE -> analyze(job, payload);
+            case UPLOAD_EVIDENCE -> uploadEvidence(job, payload);
+            case COMPLETE -> complete(job, payload);
+            default -> {
+            }
+        }
+    }
+
+    private void geocode(IncidentJob job) {
+        String incidentId = job.getIncidentId();
+        Incident incident = incidentRepository.findById(incidentId).orElseThrow();
+        if (incident.getLatitude() == null || incident.getLongitude() == null || incident.getFormattedAddress() != null) {
+            return;
+        }
+
+        String formattedAddress;
+        Building building = null;
+        try {
+            GeolocationResponse geoResponse = geolocationService.reverseGeocode(incident.getLatitude(), incident.getLongitude());
+            if (!"SUCCESS".equals(geoResponse.getStatus())) {
+                return;
+            }
+            formattedAddress = geoResponse.getFormattedAddress();
+            building = geoResponse.getBuilding();
+        } catch (Exception e) {
+            log.error("Error getting formatted address for coordinates: {}, {}",
+                    incident.getLatitude(), incident.getLongitude(), e);
+            // Fallback to coordinates as formatted address
+            formattedAddress = String.format("%.6f, %.6f", incident.getLatitude(), incident.getLongitude());
+        }
+
+        final String address = formattedAddress;
+        final Building detectedBuilding = building;
+        transactionTemplate.executeWithoutResult(status -> {
+            holdLease(job);
+            Incident current = incidentRepository.findById(incidentId).orElseThrow();
+            current.setFormattedAddress(address);
+            // Update building if not set and detected by geolocation service
+            if (current.getBuilding() == null && detectedBuilding != null) {
+                current.setBuilding(detectedBuilding);
+            }
+            String formattedLocation = formatLocationString(current.getBuilding(), current.getRoom(), address);
+            if (!formattedLocation.isEmpty()) {
+                current.setLocation(formattedLocation);
+            }
+            incidentRepository.save(current);
+        });
+    }
+
+    private void analyze(IncidentJob job, IncidentJobPayload payload) {
+        String incidentId = job.getIncidentId();
+        Incident incident = incidentRepository.findById(incidentId).orElseThrow();
+        String location = payload.getEnhancedLocationInfo();
+
+        // UNIFIED ANALYSIS: one Gemini call for the tags, office and classification this report still needs.
+        // Anything it fails to provide is computed by the dedicated services below.
+        IncidentAnalysisService.Analysis analysis = incidentAnalysisService.isEnabled()
+                ? incidentAnalysisService.analyze(
+                        incident.getIncidentType(),
+                        incident.getDescription(),
+                        location,
+                        payload.getAllTags(),
+                        officeAdminService.getOfficeNames())
+                : null;
+
+        // Use all 20 tags from the request (from step 1), or generate if not provided (fallback)
+        List<String> allTags;
+        if (payload.getAllTags() != null && !payload.getAllTags().isEmpty()) {
+            allTags = payload.getAllTags();
+        } else if (analysis != null && analysis.getTags() != null) {
+            allTags = analysis.getTags();
+        } else {
+            allTags = tagGenerationService.generateTags(incident.getDescription(), location, incident.getIncidentType());
+        }
+
+        // Use ALL tags for office assignment (more context = better assignment)
+        Office office = payload.getRequestedOffice();
+        if (office == null && analysis != null) {
+            office = analysis.getOffice();
+        }
+        if (office == null) {
+            office = officeAssignmentService.assignOffice(incident.getDescription(), location, allTags);
+        }
+
+        // Determine if this is a real incident or just a concern (using only incident type and description)
+        boolean isIncident = analysis != null && analysis.getIsIncident() != null
+                ? analysis.getIsIncident()
+                : incidentClassificationService.isRealIncident(incident.getIncidentType(), incident.getDescription());
+
+        payload.setAssignedOffice(office);
+        transactionTemplate.executeWithoutResult(status -> {
+            holdLease(job);
+            Incident current = incidentRepository.findById(incidentId).orElseThrow();
+            current.setIsIncident(isIncident);
+            if (allTags != null && !allTags.isEmpty()) {
+                current.setGeneralTags(tagService.checkAndSaveTags(allTags));
+                current.setTagMinhash(similarityService.computeTagSignature(allTags));
+            }
+            incidentRepository.save(current);
+        });
+    }
+
+    /**
+     * Stores each pending file on its own: files that were stored are recorded even when others
+     * fail, and only the failing ones are retried. A file that fails maxAttempts times is given up
+     * (named in the job's last_error, its spool kept) without holding back the rest of the evidence.
+     */
+    private void uploadEvidence(IncidentJob job, IncidentJobPayload payload) {
+        List<IncidentJobPayload.SpooledFile> pending = new ArrayList<>();
+        List<IncidentJobPayload.SpooledFile> failed = new ArrayList<>();
+        List<SupabaseStorageService.Upload> uploads = new ArrayList<>();
+        List<String> contentHashes = new ArrayList<>();
+        for (IncidentJobPayload.SpooledFile file : payload.getFiles()) {
+            if (file.isUploaded() || file.isFailed()) {
+                continue;
+            }
+            Resource content;
+            try {
+                content = spooledContent(file);
+            } catch (RuntimeException e) {
+                recordFailure(job, file, e);
+                failed.add(file);
+                continue;
+            }
+            pending.add(file);
+            uploads.add(new SupabaseStorageService.Upload(file.getFileName(), file.getContentType(), content));
+            contentHashes.add(file.getContentHash());
+        }
+        if (pending.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+
+        // New content goes up concurrently, outside any transaction; content already stored is reused
+        List<ContentAddressedStorage.Outcome> outcomes = pending.isEmpty()
+                ? List.of()
+                : contentStorage.storeEach(uploads, contentHashes);
+        List<IncidentJobPayload.SpooledFile> stored = new ArrayList<>();
+        List<StoredObject> objects = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            ContentAddressedStorage.Outcome outcome = outcomes.get(i);
+            if (outcome.succeeded()) {
+                stored.add(pending.get(i));
+                objects.add(outcome.object());
+            } else {
+                recordFailure(job, pending.get(i), outcome.failure());
+                failed.add(pending.get(i));
+            }
+        }
+
+        List<IncidentJobPayload.SpooledFile> retrying = failed.stream().filter(file -> !file.isFailed()).toList();
+        // The stage's attempts follow the most-failed file still retried, so the stage is never
+        // skipped (losing the evidence) while a file has attempts left
+        int stageAttempts = retrying.stream()
+                .mapToInt(IncidentJobPayload.SpooledFile::getAttempts)
+                .max()
+                .orElse(job.getAttempts());
+        String givenUp = retrying.isEmpty() && !failed.isEmpty()
+                ? truncate(IncidentJob.Stage.UPLOAD_EVIDENCE + ": gave up on " + describeFailures(failed))
+                : null;
+
+        // Record the stored files in one transaction so a retry never uploads them twice
+        stored.forEach(file -> file.setUploaded(true));
+        String updatedPayload = writePayload(payload);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                holdLease(job);
+                for (int i = 0; i < stored.size(); i++) {
+                    IncidentJobPayload.SpooledFile file = stored.get(i);
+                    Evidence evidence = new Evidence();
+                    evidence.setIncident(incidentRepository.getReferenceById(job.getIncidentId()));
+                    evidence.setFileName(file.getFileName());
+                    evidence.setFileType(file.getContentType());
+                    evidence.setFileSize(file.getSize());
+                    evidence.setFileUrl(objects.get(i).getFileUrl());
+                    evidence.setContentHash(objects.get(i).getContentHash());
+                    evidenceRepository.save(evidence);
+                }
+
+                evidenceSpool.delete(stored.stream().map(IncidentJobPayload.SpooledFile::getSpoolId).toList());
+
+                IncidentJob current = jobRepository.findById(job.getId()).orElseThrow();
+                current.setPayload(updatedPayload);
+                current.setAttempts(stageAttempts);
+                if (givenUp != null) {
+                    current.setLastError(givenUp);
+                }
+                jobRepository.save(current);
+            });
+        } catch (RuntimeException e) {
+            // Stored objects left unreferenced are removed by the storage sweep
+            stored.forEach(file -> file.setUploaded(false));
+            throw e;
+        }
+        job.setAttempts(stageAttempts);
+
+        if (!retrying.isEmpty()) {
+            throw new IllegalStateException("Could not store " + describeFailures(retrying));
+        }
+    }
+
+    private void recordFailure(IncidentJob job, IncidentJobPayload.SpooledFile file, RuntimeException e) {
+        file.setAttempts(file.getAttempts() + 1);
+        file.setLastError(e.getMessage());
+        if (file.getAttempts() >= maxAttempts) {
+            file.setFailed(true);
+            log.error("Evidence {} of incident {} failed {} times, giving up on it",
+                    file.getFileName(), job.getIncidentId(), file.getAttempts(), e);
+        } else {
+            log.warn("Evidence {} of incident {} failed (attempt {}): {}",
+                    file.getFileName(), job.getIncidentId(), file.getAttempts(), e.getMessage());
+        }
+    }
+
+    private static String describeFailures(List<IncidentJobPayload.SpooledFile> files) {
+        return files.stream()
+                .map(file -> file.getFileName() + " (" + file.getLastError() + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Content of a spooled file. A missing spool fails that file's upload (it is retried, and
+     * reported in the job's last_error); the file is never marked uploaded without having been stored.
+     */
+    private Resource spooledContent(IncidentJobPayload.SpooledFile file) {
+        Objects.requireNonNull(file.getSpoolId(), "spoolId");
+        Objects.requireNonNull(file.getContentHash(), "contentHash");
+        return evidenceSpool.read(file);
+    }
+
+    private void complete(IncidentJob job, IncidentJobPayload payload) {
+        String incidentId = job.getIncidentId();
+        User reporter = transactionTemplate.execute(status -> {
+            holdLease(job);
+            Incident incident = incidentRepository.findById(incidentId).orElseThrow();
+            if (!RECEIVED_STATUS.equals(incident.getStatus())) {
+                return null; // Already completed by an earlier attempt
+            }
+            Office office = payload.getAssignedOffice() != null
+                    ? payload.getAssignedOffice()
+                    : officeAssignmentService.fallbackOfficeAssignment(incident.getDescription(),
+                            payload.getAllTags() != null ? payload.getAllTags() : List.of());
+            incident.setAssignedOffice(office);
+            incident.setStatus("Pending");
+            incidentRepository.save(incident);
+
+            // Notify the office admin of the assigned office
+            officeAdminService.findByOfficeCode(office.name())
+                    .ifPresent(admin -> activityLogService.logActivity(
+                            "NEW_REPORT_RECEIVED",
+                            "New incident report #" + incident.getTrackingNumber() + " has been assigned to your office (" + office.name() + ")",
+                            incident,
+                            admin.getUser()
+                    ));
+            // Tell the reporter that processing finished
+            activityLogService.logActivity(
+                    "REPORT_PROCESSED",
+                    "Your report #" + incident.getTrackingNumber() + " has been processed and sent to " + office.name(),
+                    incident,
+                    incident.getSubmittedBy()
+            );
+            return incident.getSubmittedBy();
+        });
+
+        if (reporter != null) {
+            // Check and update First Responder badge
+            try {
+                badgeService.checkFirstResponderBadge(reporter);
+            } catch (Exception e) {
+                log.error("Error checking First Responder badge: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Commits the finished stage: moves the job to the next stage (or DONE) and stores the payload
+     */
+    private IncidentJob advance(IncidentJob job, IncidentJobPayload payload, String error) {
+        return transactionTemplate.execute(status -> {
+            holdLease(job);
+            IncidentJob current = jobRepository.findById(job.getId()).orElseThrow();
+            IncidentJob.Stage next = IncidentJob.Stage.values()[current.getStage().ordinal() + 1];
+            current.setStage(next);
+            // Continuing in this run counts as the next stage's first attempt; after a skip the next claim counts it
+            current.setAttempts(next == IncidentJob.Stage.DONE ? current.getAttempts() : (error == null ? 1 : 0));
+            current.setPayload(writePayload(payload));
+            current.setLastError(error != null ? error : current.getLastError());
+            if (next == IncidentJob.Stage.DONE) {
+                current.setStatus(IncidentJob.Status.DONE);
+                current.setLockedUntil(null);
+                current.setLeaseOwner(null);
+            }
+            return jobRepository.save(current);
+        });
+    }
+
+    /**
+     * Reschedules the failed stage with exponential backoff, or skips it after the last attempt
+     */
+    private void handleFailure(IncidentJob job, IncidentJobPayload payload, Exception e) {
+        String truncated = truncate(job.getStage() + ": " + e.getMessage());
+        try {
+            if (job.getAttempts() >= maxAttempts) {
+                log.error("Incident {} stage {} failed {} times, skipping it", job.getIncidentId(), job.getStage(), job.getAttempts(), e);
+                IncidentJob skipped = advance(job, payload, truncated);
+                requeue(skipped, LocalDateTime.now(APP_TIMEZONE), truncated);
+                return;
+            }
+            long delay = retryBaseMillis * (1L << Math.min(job.getAttempts() - 1, 10));
+            log.warn("Incident {} stage {} failed (attempt {}), retrying in {} ms: {}",
+                    job.getIncidentId(), job.getStage(), job.getAttempts(), delay, e.getMessage());
+            requeue(job, LocalDateTime.now(APP_TIMEZONE).plusNanos(delay * 1_000_000), truncated);
+        } catch (LeaseLostException inner) {
+            log.warn("Incident job {} lost its lease in stage {}, leaving it to the next claim", job.getId(), job.getStage());
+        } catch (Exception inner) {
+            // The lease runs out and the job is picked up again
+            log.error("Could not reschedule incident job {}", job.getId(), inner);
+        }
+    }
+
+    /**
+     * Renews the worker's lease on the job, in the caller's transaction; the job row then stays
+     * locked until that transaction commits, so the lease cannot run out under the commit
+     *
+     * @throws LeaseLostException if the lease ran out and the job was released
+     */
+    private void holdLease(IncidentJob job) {
+        LocalDateTime lockedUntil = LocalDateTime.now(APP_TIMEZONE).plusNanos(leaseMillis * 1_000_000);
+        if (jobRepository.renewLease(job.getId(), job.getLeaseOwner(), lockedUntil) == 0) {
+            throw new LeaseLostException(job.getId());
+        }
+    }
+
+    /**
+     * The job's lease ran out while this worker ran it, so another worker may be running it now
+     */
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException(String jobId) {
+            super("Lease on incident job " + jobId + " was lost");
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    private void requeue(IncidentJob job, LocalDateTime nextRunAt, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            IncidentJob current = jobRepository.findById(job.getId()).orElseThrow();
+            if (current.getStatus() == IncidentJob.Status.DONE) {
+                return;
+            }
+            holdLease(job);
+            current.setStatus(IncidentJob.Status.PENDING);
+            current.setLockedUntil(null);
+            current.setLeaseOwner(null);
+            current.setNextRunAt(nextRunAt);
+            current.setLastError(error);
+            jobRepository.save(current);
+        });
+    }
+
+    private String enhancedLocationInfo(IncidentRequest request) {
+        // Enhanced location info for AI services
+        if (request.getBuilding() != null) {
+            return request.getBuilding().getFullName() + " - " + request.getLocation();
+        } else if (request.getFormattedAddress() != null) {
+            return request.getFormattedAddress() + " - " + request.getLocation();
+        }
+        return request.getLocation();
+    }
+
+    /**
+     * Formats the location string according to the specified format:
+     * IF building exists AND room exists: "BuildingCode - Room - FullAddress"
+     * ELSE IF building exists: "BuildingCode - FullAddress"
+     * ELSE IF room exists: "Room - FullAddress"
+     * ELSE: "FullAddress", or "" when there is no address yet
+     */
+    private String formatLocationString(Building building, String room, String formattedAddress) {
+        String buildingCode = (building != null) ? building.name() : null;
+        String roomValue = (room != null && !room.trim().isEmpty()) ? room.trim() : null;
+        String address = (formattedAddress != null && !formattedAddress.trim().isEmpty())
+                ? formattedAddress.trim()
+                : null;
+
+        if (address == null) {
+            return "";
+        }
+
+        // Build location string based on available fields
+        if (buildingCode != null && roomValue != null) {
+            return String.format("%s - %s - %s", buildingCode, roomValue, address);
+        } else if (buildingCode != null) {
+            return String.format("%s - %s", buildingCode, address);
+        } else if (roomValue != null) {
+            // Room + Address (edge case - building detection failed but still on campus)
+            return String.format("%s - %s", roomValue, address);
+        } else {
+            return address;
+        }
+    }
+
+    private String writePayload(IncidentJobPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize incident job payload", e);
+        }
+    }
+
+    private IncidentJobPayload readPayload(IncidentJob job) {
+        try {
+            return job.getPayload() != null
+                    ? objectMapper.readValue(job.getPayload(), IncidentJobPayload.class)
+                    : new IncidentJobPayload();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable payload of incident job " + job.getId(), e);
+        }
+    }
+}
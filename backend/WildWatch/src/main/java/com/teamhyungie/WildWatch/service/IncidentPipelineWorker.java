@@ -0,0 +1,101 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.repository.IncidentJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Worker threads of the incident submission pipeline. Polls the incident_jobs table, claims
+ * due jobs with a conditional UPDATE (safe with several instances) and runs them on a fixed
+ * pool. A claimed job holds a lease, renewed each time a stage commits; jobs whose lease
+ * expired are put back in the queue.
+ */
+@Component
+@Slf4j
+public class IncidentPipelineWorker {
+
+    private final IncidentJobRepository jobRepository;
+    private final IncidentPipelineService pipelineService;
+    private final long leaseMillis;
+    private final Semaphore freeWorkers;
+    private final ExecutorService workers;
+
+    public IncidentPipelineWorker(IncidentJobRepository jobRepository,
+                                  IncidentPipelineService pipelineService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${incident.pipeline.workers:4}") int workerCount,
+                                  @Value("${incident.pipeline.lease-ms:300000}") long leaseMillis) {
+        this.jobRepository = jobRepository;
+        this.pipelineService = pipelineService;
+        this.leaseMillis = leaseMillis;
+        this.freeWorkers = new Semaphore(workerCount);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "incident-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("incident.pipeline.busy.workers", () -> workerCount - freeWorkers.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${incident.pipeline.poll-ms:1000}")
+    public void poll() {
+        try {
+            LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+            int released = jobRepository.releaseExpired(now);
+            if (released > 0) {
+                log.warn("Released {} incident jobs with an expired lease", released);
+            }
+            int capacity = freeWorkers.availablePermits();
+            if (capacity == 0) {
+                return;
+            }
+            List<String> due = jobRepository.findDueJobIds(now, PageRequest.of(0, capacity));
+            for (String jobId : due) {
+                if (!freeWorkers.tryAcquire()) {
+                    return;
+                }
+                String leaseOwner = UUID.randomUUID().toString();
+                if (jobRepository.claim(jobId, leaseOwner, now.plusNanos(leaseMillis * 1_000_000)) == 0) {
+                    freeWorkers.release(); // Claimed by another worker or instance
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        pipelineService.process(jobId, leaseOwner);
+                    } catch (Exception e) {
+                        log.error("Incident job {} failed unexpectedly", jobId, e);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.error("Incident pipeline poll failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        // Unfinished jobs are picked up again once their lease expires
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -5,14 +5,12 @@ import com.teamhyungie.WildWatch.dto.IncidentResponse;
 import com.teamhyungie.WildWatch.dto.IncidentUpdateRequest;
 import com.teamhyungie.WildWatch.dto.IncidentUpdateResponse;
 import com.teamhyungie.WildWatch.dto.IncidentTransferRequest;
-import com.teamhyungie.WildWatch.dto.GeolocationResponse;
 import com.teamhyungie.WildWatch.dto.BulkIncidentUpdateRequest;
 import com.teamhyungie.WildWatch.model.Evidence;
 import com.teamhyungie.WildWatch.model.Incident;
 import com.teamhyungie.WildWatch.model.User;
 import com.teamhyungie.WildWatch.model.Witness;
 import com.teamhyungie.WildWatch.model.Office;
-import com.teamhyungie.WildWatch.model.Building;
 import com.teamhyungie.WildWatch.model.OfficeAdmin;
 import com.teamhyungie.WildWatch.model.IncidentUpdate;
 import com.teamhyungie.WildWatch.model.IncidentUpvote;
@@ -24,10 +22,13 @@ import com.teamhyungie.WildWatch.repository.IncidentUpdateRepository;
 import com.teamhyungie.WildWatch.repository.IncidentUpvoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +36,8 @@ import java.util.stream.Collectors;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
 
 @Service
@@ -47,68 +50,81 @@ public class IncidentService {
     private final EvidenceRepository evidenceRepository;
     private final UserRepository userRepository;
     private final UserService userService;
-    private final SupabaseStorageService storageService;
     private final OfficeAdminService officeAdminService;
     private final ActivityLogService activityLogService;
     private final RankService rankService;
     private final BadgeService badgeService;
     private final IncidentUpdateRepository incidentUpdateRepository;
     private final IncidentUpvoteRepository incidentUpvoteRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final TagGenerationService tagGenerationService;
-    private final OfficeAssignmentService officeAssignmentService;
-    private final GeolocationService geolocationService;
-    private final TagService tagService;
-    private final IncidentClassificationService incidentClassificationService;
+    private final UpvoteAggregator upvoteAggregator;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final SimilarityService similarityService;
+    private final IncidentPipelineService incidentPipelineService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
-    public IncidentResponse createIncident(IncidentRequest request, String userEmail, List<MultipartFile> files) {
+    private static final int MAX_PUBLIC_FEED_PAGE_SIZE = 100;
+    private static final int PUBLIC_FEED_DETAILS_CHUNK = 500;
+
+    /**
+     * Accepts a report: saves it as "Received" with its tracking number, witnesses and an
+     * enrichment job, and returns right away. Geocoding, AI tags/office/classification and the
+     * evidence upload run in the background (see IncidentPipelineService).
+     *
+     * @param idempotencyKey client key of this submission (Idempotency-Key header), may be null;
+     *                       a retried submission with the same key returns the incident created first,
+     *                       also when both requests arrive at the same time
+     */
+    public IncidentResponse createIncident(IncidentRequest request, String userEmail, List<MultipartFile> files,
+                                           String idempotencyKey) {
         User user = userService.getUserByEmail(userEmail);
 
-        // Prepare enhanced location info for AI services
-        String enhancedLocationInfo = request.getLocation();
-        if (request.getBuilding() != null) {
-            enhancedLocationInfo = request.getBuilding().getFullName() + " - " + request.getLocation();
-        } else if (request.getFormattedAddress() != null) {
-            enhancedLocationInfo = request.getFormattedAddress() + " - " + request.getLocation();
+        String submissionKey = (idempotencyKey != null && !idempotencyKey.isBlank())
+                ? user.getId() + ":" + idempotencyKey.trim()
+                : null;
+        if (submissionKey != null) {
+            IncidentResponse existing = findSubmittedResponse(submissionKey);
+            if (existing != null) {
+                return existing;
+            }
         }
 
-        // Use all 20 tags from request (from step 1), or generate if not provided (fallback)
-        List<String> allGeneratedTags = (request.getAllTags() != null && !request.getAllTags().isEmpty())
-                ? request.getAllTags()
-                : tagGenerationService.generateTags(
-                        request.getDescription(),
-                        enhancedLocationInfo,
-                        request.getIncidentType()
-                );
-
-        // Get top 5 selected tags from request (these are the weighted top 5 tags)
-        // If not provided, use first 5 from allTags or generate by scoring
-        List<String> top5Tags = (request.getTags() != null && !request.getTags().isEmpty())
-                ? request.getTags()
-                : (allGeneratedTags.size() >= 5 
-                        ? new java.util.ArrayList<>(allGeneratedTags.subList(0, 5))
-                        : tagGenerationService.generateScoredTags(request.getDescription(), enhancedLocationInfo, request.getIncidentType())
-                                .stream()
-                                .map(ts -> ts.getTag())
-                                .collect(java.util.stream.Collectors.toList()));
-
-        // Use ALL 20 tags for office assignment (more context = better assignment)
-        // The AI can analyze all tags to make a more informed decision
-        List<String> tagsForAssignment = allGeneratedTags;
-
-        // If no office is assigned in the request, use AI to assign one
-        Office assignedOffice = request.getAssignedOffice();
-        if (assignedOffice == null) {
-            // Use the same enhanced location info for office assignment
-            assignedOffice = officeAssignmentService.assignOffice(request.getDescription(), enhancedLocationInfo, tagsForAssignment);
+        try {
+            return transactionTemplate.execute(status -> saveSubmission(request, user, files, submissionKey));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first (unique idempotency_key); return its incident
+            IncidentResponse existing = submissionKey != null ? findSubmittedResponse(submissionKey) : null;
+            if (existing == null) {
+                throw e;
+            }
+            return existing;
         }
+    }
+
+    private IncidentResponse findSubmittedResponse(String submissionKey) {
+        return transactionTemplate.execute(status -> {
+            Optional<Incident> existing = incidentPipelineService.findSubmitted(submissionKey);
+            existing.ifPresent(incident ->
+                    log.info("Duplicate submission {} of incident {}", submissionKey, incident.getTrackingNumber()));
+            return existing.map(IncidentResponse::fromIncident).orElse(null);
+        });
+    }
 
-        // Create and save the incident first with all 20 generated tags
-        // Store top5Tags in transient field for response display
-        final Incident savedIncident = createAndSaveIncident(request, user, allGeneratedTags, top5Tags);
-        savedIncident.setAssignedOffice(assignedOffice);
-        incidentRepository.save(savedIncident);
+    private IncidentResponse saveSubmission(IncidentRequest request, User user, List<MultipartFile> files,
+                                            String submissionKey) {
+        Incident incident = new Incident();
+        incident.setIncidentType(request.getIncidentType());
+        incident.setDateOfIncident(request.getDateOfIncident());
+        incident.setTimeOfIncident(request.getTimeOfIncident());
+        incident.setDescription(request.getDescription());
+        incident.setSubmittedBy(user);
+        incident.setPreferAnonymous(request.getPreferAnonymous());
+        incident.setIsPrivate(request.getIsPrivate());
+        incident.setRoom(request.getRoom()); // Set room field
+        // The office is assigned when the pipeline completes, so offices never see a half-processed report
+        incident.setStatus(IncidentPipelineService.RECEIVED_STATUS);
+        incidentPipelineService.applySubmittedLocation(incident, request);
+
+        final Incident savedIncident = incidentRepository.save(incident);
 
         // Handle witnesses if provided
         if (request.getWitnesses() != null && !request.getWitnesses().isEmpty()) {
@@ -118,13 +134,7 @@ public class IncidentService {
             witnessRepository.saveAll(witnesses);
         }
 
-        // Handle file uploads if provided
-        if (files != null && !files.isEmpty()) {
-            List<Evidence> evidenceList = files.stream()
-                    .map(file -> createEvidence(file, savedIncident))
-                    .collect(Collectors.toList());
-            evidenceRepository.saveAll(evidenceList);
-        }
+        incidentPipelineService.submit(savedIncident, request, files, submissionKey);
 
         // Log activity
         activityLogService.logActivity(
@@ -134,160 +144,21 @@ public class IncidentService {
                 user
         );
 
-        // Fix for 'effectively final' error
-        final Office finalAssignedOffice = assignedOffice;
-        // Notify the office admin of the assigned office
-        officeAdminService.findByOfficeCode(finalAssignedOffice.name())
-                .ifPresent(admin -> {
-                    User adminUser = admin.getUser();
-                    activityLogService.logActivity(
-                            "NEW_REPORT_RECEIVED",
-                            "New incident report #" + savedIncident.getTrackingNumber() + " has been assigned to your office (" + finalAssignedOffice.name() + ")",
-                            savedIncident,
-                            adminUser
-                    );
-                });
-
-        return IncidentResponse.fromIncident(savedIncident);
-    }
-
-    private Incident createAndSaveIncident(IncidentRequest request, User user, List<String> allTags, List<String> top5Tags) {
-        Incident incident = new Incident();
-        incident.setIncidentType(request.getIncidentType());
-        incident.setDateOfIncident(request.getDateOfIncident());
-        incident.setTimeOfIncident(request.getTimeOfIncident());
-        incident.setDescription(request.getDescription());
-        incident.setAssignedOffice(request.getAssignedOffice());
-        incident.setSubmittedBy(user);
-        incident.setPreferAnonymous(request.getPreferAnonymous());
-        incident.setIsPrivate(request.getIsPrivate());
-        incident.setRoom(request.getRoom()); // Set room field
-        
-        // Determine if this is a real incident or just a concern (using only incident type and description)
-        boolean isIncident = incidentClassificationService.isRealIncident(
-                request.getIncidentType(),
-                request.getDescription()
-        );
-        incident.setIsIncident(isIncident);
-
-        // Handle geolocation data (this sets building, formattedAddress, latitude, longitude)
-        handleGeolocationData(incident, request);
-        
-        // Format location string according to: BuildingCode - Room - FullAddress
-        String formattedLocation = formatLocationString(incident.getBuilding(), request.getRoom(), incident.getFormattedAddress());
-        incident.setLocation(formattedLocation);
-
-        // Save incident first to get the ID
-        Incident savedIncident = incidentRepository.save(incident);
-
-        // Use tagChecker to check/insert all 20 tags in incident_general_tags
-        // and associate them with this incident
-        if (allTags != null && !allTags.isEmpty()) {
-            var generalTags = tagService.checkAndSaveTags(allTags);
-            savedIncident.setGeneralTags(generalTags);
-            savedIncident = incidentRepository.save(savedIncident);
-            log.info("Saved {} tags (all generated) for incident {}", generalTags.size(), savedIncident.getId());
-        }
-
-        // Set transient tags field with top 5 selected tags for response display
-        // This ensures IncidentResponse.fromIncident() returns only top 5 tags
-        savedIncident.setTags(top5Tags != null ? top5Tags : allTags);
-
-        // Check and update First Responder badge
-        try {
-            badgeService.checkFirstResponderBadge(user);
-        } catch (Exception e) {
-            log.error("Error checking First Responder badge: {}", e.getMessage());
-        }
-
-        return savedIncident;
-    }
-
-    /**
-     * Formats the location string according to the specified format:
-     * IF building exists AND room exists: "BuildingCode - Room - FullAddress"
-     * ELSE IF building exists: "BuildingCode - FullAddress"
-     * ELSE IF room exists: "Room - FullAddress"
-     * ELSE: "FullAddress" (or coordinates as fallback)
-     */
-    private String formatLocationString(Building building, String room, String formattedAddress) {
-        String buildingCode = (building != null) ? building.name() : null;
-        String roomValue = (room != null && !room.trim().isEmpty()) ? room.trim() : null;
-        String address = (formattedAddress != null && !formattedAddress.trim().isEmpty()) 
-                ? formattedAddress.trim() 
-                : null;
-        
-        // If no address available, use coordinates as fallback (shouldn't happen in normal flow)
-        if (address == null) {
-            // This should rarely happen, but if it does, we'll return empty string
-            // The location field is required, so this would cause validation error
-            log.warn("No formatted address available for location formatting");
-            return "";
-        }
-        
-        // Build location string based on available fields
-        if (buildingCode != null && roomValue != null) {
-            // Building + Room + Address
-            return String.format("%s - %s - %s", buildingCode, roomValue, address);
-        } else if (buildingCode != null) {
-            // Building + Address
-            return String.format("%s - %s", buildingCode, address);
-        } else if (roomValue != null) {
-            // Room + Address (edge case - building detection failed but still on campus)
-            return String.format("%s - %s", roomValue, address);
+        // Top 5 tags from step 1 for response display, else the first 5 of all tags; all tags are saved by the pipeline.
+        // No Gemini fallback (generateScoredTags) here: tags the client did not send are generated by the pipeline.
+        List<String> displayTags;
+        if (request.getTags() != null && !request.getTags().isEmpty()) {
+            displayTags = request.getTags();
+        } else if (request.getAllTags() != null) {
+            displayTags = new ArrayList<>(request.getAllTags().subList(0, Math.min(5, request.getAllTags().size())));
         } else {
-            // Just Address (fallback - should rarely happen if building detection works)
-            return address;
-        }
-    }
-
-    private void handleGeolocationData(Incident incident, IncidentRequest request) {
-        // If latitude and longitude are provided in the request, use them
-        if (request.getLatitude() != null && request.getLongitude() != null) {
-            incident.setLatitude(request.getLatitude());
-            incident.setLongitude(request.getLongitude());
-
-            // If building is provided in request, use it, otherwise detect from coordinates
-            if (request.getBuilding() != null) {
-                incident.setBuilding(request.getBuilding());
-            } else {
-                // Auto-detect building from coordinates using the old system for now
-                // TODO: Update building detection to use accurate building polygons
-                Building detectedBuilding = Building.findBuildingByCoordinates(
-                        request.getLatitude(),
-                        request.getLongitude()
-                );
-                incident.setBuilding(detectedBuilding);
-            }
-
-            // If formatted address is provided, use it, otherwise get from Google Maps
-            if (request.getFormattedAddress() != null && !request.getFormattedAddress().trim().isEmpty()) {
-                incident.setFormattedAddress(request.getFormattedAddress());
-            } else {
-                try {
-                    // Use GeolocationService to get formatted address
-                    GeolocationResponse geoResponse = geolocationService.reverseGeocode(
-                            request.getLatitude(),
-                            request.getLongitude()
-                    );
-                    if ("SUCCESS".equals(geoResponse.getStatus())) {
-                        incident.setFormattedAddress(geoResponse.getFormattedAddress());
-                        // Update building if not set and detected by geolocation service
-                        if (incident.getBuilding() == null && geoResponse.getBuilding() != null) {
-                            incident.setBuilding(geoResponse.getBuilding());
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Error getting formatted address for coordinates: {}, {}",
-                            request.getLatitude(), request.getLongitude(), e);
-                    // Fallback to coordinates as formatted address
-                    incident.setFormattedAddress(String.format("%.6f, %.6f",
-                            request.getLatitude(), request.getLongitude()));
-                }
-            }
-        } else {
-            log.debug("No coordinates provided for incident: {}", incident.getTrackingNumber());
+            displayTags = new ArrayList<>();
         }
+        savedIncident.setTags(displayTags);
+        IncidentResponse response = IncidentResponse.fromIncident(savedIncident);
+        // Office picked in the submission flow, shown on the confirmation screen until the pipeline assigns it
+        response.setAssignedOffice(request.getAssignedOffice());
+        return response;
     }
 
     /**
@@ -335,19 +206,6 @@ public class IncidentService {
         return witness;
     }
 
-    private Evidence createEvidence(MultipartFile file, Incident incident) {
-        String fileUrl = storageService.storeFile(file);
-
-        Evidence evidence = new Evidence();
-        evidence.setIncident(incident);
-        evidence.setFileName(file.getOriginalFilename());
-        evidence.setFileType(file.getContentType());
-        evidence.setFileSize(file.getSize());
-        evidence.setFileUrl(fileUrl);
-
-        return evidence;
-    }
-
     private IncidentResponse mapToIncidentResponseWithExtras(Incident incident) {
         IncidentResponse response = IncidentResponse.fromIncident(incident);
         // Set office admin name
@@ -359,25 +217,7 @@ public class IncidentService {
                         response.setOfficeAdminName(adminUser.getFirstName() + " " + adminUser.getLastName());
                     });
         }
-        // Set finished date (latest update with status Resolved or Closed)
-        IncidentUpdate finishedUpdate = incidentUpdateRepository.findFirstByIncidentAndStatusInOrderByUpdatedAtDesc(
-                incident, Arrays.asList("Resolved", "resolved", "Closed", "closed")
-        );
-        if (finishedUpdate != null) {
-            response.setFinishedDate(finishedUpdate.getUpdatedAt());
-        }
-
-        // Set transfer information
-        List<IncidentUpdate> updates = incidentUpdateRepository.findByIncidentOrderByUpdatedAtDesc(incident);
-        for (IncidentUpdate update : updates) {
-            if (update.getMessage().startsWith("Case transferred from")) {
-                String[] parts = update.getMessage().split(" from ")[1].split(" to ");
-                if (parts.length >= 1) {
-                    response.setTransferredFrom(parts[0]);
-                }
-                break;
-            }
-        }
+        // Transfer information comes from the denormalized transferredFrom column (set in fromIncident)
 
         return response;
     }
@@ -411,7 +251,7 @@ public class IncidentService {
     }
 
     /**
-     * Get active cases (pending/in progress) for case tracking page - optimized
+     * Get active cases (received/pending/in progress) for case tracking page - optimized
      * version
      */
     public List<IncidentResponse> getActiveCases(String userEmail) {
@@ -420,13 +260,57 @@ public class IncidentService {
         return incidentRepository.findActiveCasesByUser(user);
     }
 
-    public List<IncidentResponse> getPublicIncidents() {
-        // Optimized query: Only fetch In Progress and Resolved incidents that are not private
-        // Sorted by upvote count (descending) and submission date (descending)
-        return incidentRepository.findPublicIncidents()
-                .stream()
-                .map(this::mapToPublicIncidentResponse)
-                .collect(Collectors.toList());
+    /**
+     * Public Community Reports feed, served by a single projection query that already
+     * includes the office admin name, finishedAt, transferredFrom and resolutionExtended*
+     * (no per-row lookups). Evidence, witnesses and tags of the returned rows are then loaded
+     * with one query each. Only In Progress and Resolved incidents that are not private,
+     * sorted by upvote count, submission date and id (descending).
+     *
+     * @param limit Page size, or null for the whole feed
+     * @param afterUpvotes Keyset cursor: upvoteCount of the last row of the previous page
+     * @param afterSubmittedAt Keyset cursor: submittedAt of the last row of the previous page
+     * @param afterId Keyset cursor: id of the last row of the previous page
+     */
+    public List<IncidentResponse> getPublicIncidents(Integer limit, Integer afterUpvotes,
+                                                     LocalDateTime afterSubmittedAt, String afterId) {
+        Pageable page = (limit != null && limit > 0)
+                ? PageRequest.of(0, Math.min(limit, MAX_PUBLIC_FEED_PAGE_SIZE))
+                : Pageable.unpaged();
+        List<IncidentResponse> feed = (afterUpvotes != null && afterSubmittedAt != null && afterId != null)
+                ? incidentRepository.findPublicFeedAfter(afterUpvotes, afterSubmittedAt, afterId, page)
+                : incidentRepository.findPublicFeed(page);
+        addPublicFeedDetails(feed);
+        return feed;
+    }
+
+    /**
+     * Fills in evidence, witnesses and tags of feed rows, a chunk of incidents per query
+     */
+    private void addPublicFeedDetails(List<IncidentResponse> feed) {
+        Map<String, IncidentResponse> byId = new HashMap<>();
+        for (IncidentResponse response : feed) {
+            response.setEvidence(new ArrayList<>());
+            response.setWitnesses(new ArrayList<>());
+            byId.put(response.getId(), response);
+        }
+        List<String> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += PUBLIC_FEED_DETAILS_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(from + PUBLIC_FEED_DETAILS_CHUNK, ids.size()));
+            for (Evidence evidence : evidenceRepository.findByIncidentIds(chunk)) {
+                byId.get(evidence.getIncident().getId()).getEvidence().add(IncidentResponse.EvidenceDTO.from(evidence));
+            }
+            for (Witness witness : witnessRepository.findByIncidentIds(chunk)) {
+                byId.get(witness.getIncident().getId()).getWitnesses().add(IncidentResponse.WitnessDTO.from(witness));
+            }
+            for (Object[] row : incidentRepository.findTagNamesByIncidentIds(chunk)) {
+                IncidentResponse response = byId.get((String) row[0]);
+                if (response.getTags() == null) {
+                    response.setTags(new ArrayList<>());
+                }
+                response.getTags().add((String) row[1]);
+            }
+        }
     }
 
     public IncidentResponse getIncidentByTrackingNumber(String trackingNumber) {
@@ -437,37 +321,14 @@ public class IncidentService {
 
     /**
      * Get office incidents for dashboard view - optimized version Uses a
-     * specialized query that fetches only necessary data in a single query
+     * specialized query that fetches only necessary data (including the
+     * finished date of resolved/dismissed cases) in a single query
      */
     public List<IncidentResponse> getOfficeIncidents(String userEmail) {
-        User user = userService.getUserByEmail(userEmail);
         OfficeAdmin officeAdmin = officeAdminService.findByUserEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User is not an office admin"));
         Office office = Office.valueOf(officeAdmin.getOfficeCode());
-        List<IncidentResponse> incidents = incidentRepository.findOfficeAdminIncidents(office);
-        
-        // Populate finishedDate for resolved/dismissed incidents from IncidentUpdate records
-        for (IncidentResponse incident : incidents) {
-            if (incident.getStatus() != null && 
-                (incident.getStatus().equalsIgnoreCase("resolved") || incident.getStatus().equalsIgnoreCase("dismissed"))) {
-                // Get the full incident to query updates
-                Optional<Incident> fullIncident = incidentRepository.findById(incident.getId());
-                if (fullIncident.isPresent()) {
-                    List<IncidentUpdate> updates = incidentUpdateRepository.findByIncidentOrderByUpdatedAtDesc(fullIncident.get());
-                    if (updates != null && !updates.isEmpty()) {
-                        // Find the most recent status change to Resolved or Dismissed
-                        for (IncidentUpdate update : updates) {
-                            if (update.getStatus().equalsIgnoreCase("resolved") || update.getStatus().equalsIgnoreCase("dismissed")) {
-                                incident.setFinishedDate(update.getUpdatedAt());
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        return incidents;
+        return incidentRepository.findOfficeAdminIncidents(office);
     }
 
     /**
@@ -608,8 +469,9 @@ public class IncidentService {
                 && ("resolved".equalsIgnoreCase(request.getStatus()) || "closed".equalsIgnoreCase(request.getStatus()))
                 && !("resolved".equalsIgnoreCase(oldStatus) || "closed".equalsIgnoreCase(oldStatus))) {
 
-            // Set the resolvedBy field for badge tracking
+            // Set the resolvedBy field for badge tracking and record when the case was finished
             updatedIncident.setResolvedBy(user);
+            updatedIncident.setFinishedAt(LocalDateTime.now(APP_TIMEZONE));
             incidentRepository.save(updatedIncident);
 
             // Check and update First Response badge for office admin
@@ -779,6 +641,9 @@ public class IncidentService {
             }
         }
 
+        // Keep the similarity tag index in sync with the new status
+        similarityService.refreshIncident(updatedIncident);
+
         return IncidentResponse.fromIncident(updatedIncident);
     }
 
@@ -843,7 +708,7 @@ public class IncidentService {
         OfficeAdmin officeAdmin = officeAdminService.findByUserEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User is not an office admin"));
 
-        if (!incident.getAssignedOffice().equals(Office.valueOf(officeAdmin.getOfficeCode()))) {
+        if (!Office.valueOf(officeAdmin.getOfficeCode()).equals(incident.getAssignedOffice())) {
             throw new RuntimeException("User does not have permission to update this incident");
         }
 
@@ -855,9 +720,17 @@ public class IncidentService {
 
         incidentUpdateRepository.save(update);
 
-        // Update incident status
+        // Update incident status (recording when it was finished)
+        if (isFinishedStatus(status) && !isFinishedStatus(incident.getStatus())) {
+            incident.setFinishedAt(LocalDateTime.now(APP_TIMEZONE));
+        }
         incident.setStatus(status);
         incidentRepository.save(incident);
+        similarityService.refreshIncident(incident);
+    }
+
+    private static boolean isFinishedStatus(String status) {
+        return "resolved".equalsIgnoreCase(status) || "closed".equalsIgnoreCase(status);
     }
 
     @Transactional
@@ -945,18 +818,11 @@ public class IncidentService {
         Incident incident = incidentRepository.findById(incidentId)
                 .orElseThrow(() -> new RuntimeException("Incident not found"));
 
-        // Defensive: always default upvoteCount to 0 if null
-        if (incident.getUpvoteCount() == null) {
-            incident.setUpvoteCount(0);
-        }
-
         Optional<IncidentUpvote> existingUpvote = incidentUpvoteRepository.findByIncidentAndUser(incident, user);
 
         if (existingUpvote.isPresent()) {
-            // Remove upvote
-            incidentUpvoteRepository.delete(existingUpvote.get());
-            incident.setUpvoteCount(incident.getUpvoteCount() - 1);
-            incidentRepository.save(incident);
+            // Remove upvote; the count is written behind by UpvoteAggregator
+            upvoteAggregator.record(incident.getId(), -1, () -> incidentUpvoteRepository.delete(existingUpvote.get()));
 
             // Remove 1 point from the incident reporter (if not self-upvote)
             if (!user.getId().equals(incident.getSubmittedBy().getId())) {
@@ -983,9 +849,9 @@ public class IncidentService {
             }
 
             // Broadcast new count
-            messagingTemplate.convertAndSend(
+            broadcastCoalescer.send(
                     "/topic/upvotes/" + incident.getId(),
-                    incident.getUpvoteCount()
+                    upvoteAggregator.currentCount(incident)
             );
             return false;
         } else {
@@ -993,13 +859,12 @@ public class IncidentService {
             IncidentUpvote upvote = new IncidentUpvote();
             upvote.setIncident(incident);
             upvote.setUser(user);
-            incidentUpvoteRepository.save(upvote);
-            incident.setUpvoteCount(incident.getUpvoteCount() + 1);
-            incidentRepository.save(incident);
+            // Count is written behind by UpvoteAggregator
+            upvoteAggregator.record(incident.getId(), 1, () -> incidentUpvoteRepository.save(upvote));
             // Broadcast new count
-            messagingTemplate.convertAndSend(
+            broadcastCoalescer.send(
                     "/topic/upvotes/" + incident.getId(),
-                    incident.getUpvoteCount()
+                    upvoteAggregator.currentCount(incident)
             );
 
             // Create notification for the incident creator and award points
@@ -1190,12 +1055,14 @@ public class IncidentService {
                     }
                 }
 
-                // Set resolvedBy for badge tracking if resolving
+                // Set resolvedBy for badge tracking and finishedAt if resolving
                 if ("Resolved".equals(targetStatus)) {
                     incident.setResolvedBy(userService.getUserByEmail(userEmail));
+                    incident.setFinishedAt(LocalDateTime.now(APP_TIMEZONE));
                 }
 
                 incidentRepository.save(incident);
+                similarityService.refreshIncident(incident);
 
                 // Create update entry
                 IncidentUpdate update = new IncidentUpdate();
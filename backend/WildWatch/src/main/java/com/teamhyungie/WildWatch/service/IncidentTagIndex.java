@@ -0,0 +1,291 @@
+package com.teamhyungie.WildWatch.service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from tag id (see TagDictionary) to the incidents carrying it.
+ * Used by SimilarityService so Jaccard scoring only touches incidents that share
+ * enough tags with the submitted report, instead of scanning every candidate.
+ *
+ * Each incident occupies a dense slot and keeps its tags as a sorted int[], so posting
+ * lists are plain int arrays and intersections are computed with a merge, without
+ * allocating anything per candidate.
+ *
+ * Entries are immutable snapshots of the fields needed to build a similarity
+ * result, so no managed entities are kept outside of a persistence context.
+ */
+class IncidentTagIndex {
+
+    /**
+     * Snapshot of an indexed incident
+     */
+    static final class Entry {
+        final String id;
+        final String trackingNumber;
+        final String incidentType;
+        final String location;
+        final String assignedOffice;
+        final LocalDateTime submittedAt;
+        final LocalDateTime finishedAt;
+        final String resolutionNotes;
+        final String description;
+        final int[] tagIds; // sorted, distinct TagDictionary ids
+        final int[] signature; // MinHash signature, null when the incident has no tags
+
+        Entry(String id, String trackingNumber, String incidentType, String location, String assignedOffice,
+              LocalDateTime submittedAt, LocalDateTime finishedAt, String resolutionNotes, String description,
+              int[] tagIds, int[] signature) {
+            this.id = id;
+            this.trackingNumber = trackingNumber;
+            this.incidentType = incidentType;
+            this.location = location;
+            this.assignedOffice = assignedOffice;
+            this.submittedAt = submittedAt;
+            this.finishedAt = finishedAt;
+            this.resolutionNotes = resolutionNotes;
+            this.description = description;
+            this.tagIds = tagIds;
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * A scored match returned by {@link #topK}
+     */
+    static final class Match {
+        final Entry entry;
+        final double score;
+
+        Match(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<LocalDateTime> SUBMITTED_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    // Lower score first; on equal score the older incident is evicted first
+    static final Comparator<Match> HEAP_ORDER = Comparator
+            .comparingDouble((Match m) -> m.score)
+            .thenComparing(m -> m.entry.submittedAt, SUBMITTED_ORDER);
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Entry[] slots = new Entry[1024];
+    private int slotCount = 0; // high-water mark of used slots
+
+    private int[][] postings = new int[256][]; // tag id -> slots carrying the tag
+    private int[] postingSizes = new int[256];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the whole index content (used for the initial build)
+     */
+    void replaceAll(Collection<Entry> newEntries) {
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            freeSlots.clear();
+            slots = new Entry[Math.max(1024, newEntries.size())];
+            slotCount = 0;
+            postings = new int[256][];
+            postingSizes = new int[256];
+            for (Entry entry : newEntries) {
+                addUnlocked(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces a single incident
+     */
+    void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id);
+            addUnlocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String incidentId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(incidentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the k best matches by Jaccard similarity, ordered by score descending
+     * (newer incident first on ties).
+     *
+     * Only incidents sharing at least minShared tags with the query can match, so by the
+     * pigeonhole principle every match shares one of the query's (n - minShared + 1) rarest
+     * tags; only those posting lists are walked, and each candidate is verified with a merge.
+     *
+     * @param queryTagIds sorted ids of the query tags known to the dictionary
+     * @param querySize number of distinct query tags, including ones unknown to the dictionary
+     */
+    List<Match> topK(int[] queryTagIds, int querySize, int minShared, double threshold, int k) {
+        if (queryTagIds.length == 0 || queryTagIds.length < minShared || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<Match> heap = new PriorityQueue<>(k + 1, HEAP_ORDER);
+
+        lock.readLock().lock();
+        try {
+            // Rarest tags first: (posting size << 32 | tag id) sorts by size
+            long[] bySize = new long[queryTagIds.length];
+            for (int i = 0; i < queryTagIds.length; i++) {
+                bySize[i] = ((long) postingSize(queryTagIds[i]) << 32) | queryTagIds[i];
+            }
+            Arrays.sort(bySize);
+
+            int prefixLength = queryTagIds.length - minShared + 1;
+            BitSet seen = new BitSet(slotCount);
+
+            for (int p = 0; p < prefixLength; p++) {
+                int tagId = (int) bySize[p];
+                int postingSize = postingSize(tagId);
+                if (postingSize == 0) {
+                    continue;
+                }
+                int[] posting = postings[tagId];
+                for (int i = 0; i < postingSize; i++) {
+                    int slot = posting[i];
+                    if (seen.get(slot)) {
+                        continue;
+                    }
+                    seen.set(slot);
+
+                    Entry entry = slots[slot];
+                    int shared = intersectionSize(queryTagIds, entry.tagIds);
+                    if (shared < minShared) {
+                        continue;
+                    }
+                    int union = querySize + entry.tagIds.length - shared;
+                    double similarity = (double) shared / union;
+                    if (similarity < threshold) {
+                        continue;
+                    }
+                    if (heap.size() == k) {
+                        Match worst = heap.peek();
+                        if (similarity < worst.score || (similarity == worst.score
+                                && SUBMITTED_ORDER.compare(entry.submittedAt, worst.entry.submittedAt) <= 0)) {
+                            continue;
+                        }
+                        heap.poll();
+                    }
+                    heap.offer(new Match(entry, similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> result = new ArrayList<>(heap);
+        result.sort(HEAP_ORDER.reversed());
+        return result;
+    }
+
+    /**
+     * Size of the intersection of two sorted, distinct int arrays (merge)
+     */
+    static int intersectionSize(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private int postingSize(int tagId) {
+        return tagId < postingSizes.length ? postingSizes[tagId] : 0;
+    }
+
+    private void addUnlocked(Entry entry) {
+        if (entry.tagIds.length == 0) {
+            return; // Incidents without tags can never be similar
+        }
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+        } else {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slot = slotCount++;
+        }
+        slots[slot] = entry;
+        slotById.put(entry.id, slot);
+
+        for (int tagId : entry.tagIds) {
+            if (tagId >= postings.length) {
+                int capacity = Math.max(postings.length * 2, tagId + 1);
+                postings = Arrays.copyOf(postings, capacity);
+                postingSizes = Arrays.copyOf(postingSizes, capacity);
+            }
+            int[] posting = postings[tagId];
+            int size = postingSizes[tagId];
+            if (posting == null) {
+                posting = new int[4];
+            } else if (size == posting.length) {
+                posting = Arrays.copyOf(posting, size * 2);
+            }
+            posting[size] = slot;
+            postings[tagId] = posting;
+            postingSizes[tagId] = size + 1;
+        }
+    }
+
+    private void removeUnlocked(String incidentId) {
+        Integer slot = slotById.remove(incidentId);
+        if (slot == null) {
+            return;
+        }
+        Entry previous = slots[slot];
+        for (int tagId : previous.tagIds) {
+            int[] posting = postings[tagId];
+            int size = postingSizes[tagId];
+            for (int i = 0; i < size; i++) {
+                if (posting[i] == slot) {
+                    // Order within a posting list does not matter: swap with the last element
+                    posting[i] = posting[size - 1];
+                    postingSizes[tagId] = size - 1;
+                    break;
+                }
+            }
+        }
+        slots[slot] = null;
+        freeSlots.push(slot);
+    }
+}
@@ -0,0 +1,111 @@
+package com.teamhyungie.WildWatch.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures over normalized tag sets.
+ * The fraction of equal signature positions estimates the Jaccard similarity of two sets.
+ *
+ * Signatures are persisted (incidents.tag_minhash), so the hash seeds are fixed and
+ * must never change, otherwise stored signatures become incomparable.
+ */
+final class MinHash {
+
+    static final int NUM_HASHES = 128;
+    // 32 bands of 4 rows: two sets become LSH candidates with probability 1 - (1 - s^4)^32,
+    // which crosses 50% around s = 0.42, slightly below our 0.50 threshold to favor recall
+    static final int BANDS = 32;
+    static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Computes the signature of an already normalized tag set, or null if it is empty
+     */
+    static int[] signature(Collection<String> normalizedTags) {
+        if (normalizedTags == null || normalizedTags.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String tag : normalizedTags) {
+            // String.hashCode is specified by the JLS, so it is stable across JVMs and restarts
+            long base = tag.hashCode();
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) (mix(base ^ SEEDS[i]) >>> 32);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity: share of positions where both signatures agree
+     */
+    static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * Bucket key of one band; the band number is mixed in so bands never share buckets
+     */
+    static long bandKey(int[] signature, int band) {
+        long key = band;
+        int offset = band * ROWS;
+        for (int r = 0; r < ROWS; r++) {
+            key = mix(key * 31 + signature[offset + r]);
+        }
+        return key;
+    }
+
+    static byte[] toBytes(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(NUM_HASHES * Integer.BYTES);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a persisted signature, or returns null if it is missing or has a different width
+     */
+    static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != NUM_HASHES * Integer.BYTES) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,293 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamhyungie.WildWatch.model.OutboxNotification;
+import com.teamhyungie.WildWatch.repository.DispatcherLeaseRepository;
+import com.teamhyungie.WildWatch.repository.OutboxNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Transactional outbox for WebSocket notifications.
+ *
+ * {@link #enqueue} writes the message as a row in the caller's transaction, so nothing is sent
+ * for work that rolls back. After commit a single dispatcher thread drains the rows in the order
+ * they were written (createdAt, then id) and marks them sent in batches: messages reach each user
+ * in that order, and at least once (a crash between send and mark re-sends the batch). A periodic
+ * poll picks up anything a wake-up missed.
+ *
+ * A failed send is retried with exponential backoff, and the user's later messages wait for it.
+ * After the last attempt the row is given up on and kept (failed_at, last_error) until the
+ * retention period has passed, so a message that can never be sent holds up neither its user nor
+ * the rest of the outbox.
+ *
+ * With several instances only the one holding the outbox lease drains, so no row is sent by two
+ * instances. Ids are not used for ordering across instances: each instance allocates them in its
+ * own block of the sequence, so a row written later on one instance can have a lower id than a row
+ * written earlier on another. The lease is renewed before every batch
+ * and released once the outbox is empty; if the holder dies, another instance takes over when
+ * the lease expires and re-sends whatever was sent but not yet marked.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private static final String LEASE_NAME = "notification-outbox";
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final DispatcherLeaseRepository leaseRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long retentionHours;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean leaseRowCreated;
+
+    private final ExecutorService dispatcher;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer dispatchLag;
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter givenUp;
+
+    public NotificationOutboxService(OutboxNotificationRepository outboxRepository,
+                                     DispatcherLeaseRepository leaseRepository,
+                                     SimpMessagingTemplate messagingTemplate,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.outbox.batch-size:200}") int batchSize,
+                                     @Value("${notification.outbox.retention-hours:24}") long retentionHours,
+                                     @Value("${notification.outbox.lease-ms:30000}") long leaseMs,
+                                     @Value("${notification.outbox.max-attempts:5}") int maxAttempts,
+                                     @Value("${notification.outbox.retry-base-ms:1000}") long retryBaseMillis) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatchLag = Timer.builder("notification.outbox.dispatch.lag")
+                .description("Time from writing a notification to sending it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("notification.outbox.dispatched").register(meterRegistry);
+        this.failures = Counter.builder("notification.outbox.failures").register(meterRegistry);
+        this.givenUp = Counter.builder("notification.outbox.given.up")
+                .description("Notifications not sent after the last attempt")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.backlog", backlog, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Writes a notification for the destination; it is sent once the current transaction commits
+     * (right away when there is none)
+     *
+     * @param userId recipient, used for per-user ordering; may be null for broadcast topics
+     */
+    public void enqueue(Long userId, String destination, Object payload) {
+        OutboxNotification notification = new OutboxNotification();
+        notification.setUserId(userId);
+        notification.setDestination(destination);
+        try {
+            notification.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize notification for " + destination, e);
+        }
+        outboxRepository.save(notification);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Safety net for wake-ups lost to a crash or a failed send
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Drops sent notifications, and ones given up on, after the retention period
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.cleanup-ms:3600000}")
+    public void cleanup() {
+        try {
+            int deleted = outboxRepository.deleteDispatchedBefore(LocalDateTime.now(APP_TIMEZONE).minusHours(retentionHours));
+            if (deleted > 0) {
+                log.debug("Deleted {} dispatched notifications", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Notification outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private void wakeUp() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Cleared before reading so rows committed during the drain trigger another pass
+        drainScheduled.set(false);
+        try {
+            List<OutboxNotification> batch;
+            do {
+                // Another instance is draining; its next pass (or this instance's poll) sends our rows
+                if (!acquireLease()) {
+                    return;
+                }
+                batch = outboxRepository.findUndispatched(LocalDateTime.now(APP_TIMEZONE), PageRequest.of(0, batchSize));
+                if (!dispatchBatch(batch)) {
+                    break; // Nothing could be sent; retry on the next poll
+                }
+            } while (batch.size() == batchSize);
+            if (batch.size() == batchSize) {
+                backlog.set(outboxRepository.countByDispatchedAtIsNullAndFailedAtIsNull());
+            } else {
+                backlog.set(0);
+                leaseRepository.release(LEASE_NAME, instanceId, LocalDateTime.now(APP_TIMEZONE));
+            }
+        } catch (Exception e) {
+            log.error("Notification outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Takes or renews the outbox lease for this instance
+     *
+     * @return false if another instance holds it
+     */
+    private boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+        if (!leaseRowCreated) {
+            leaseRepository.createIfMissing(LEASE_NAME, now);
+            leaseRowCreated = true;
+        }
+        return leaseRepository.acquire(LEASE_NAME, instanceId, now, now.plus(Duration.ofMillis(leaseMs))) == 1;
+    }
+
+    /**
+     * Sends the batch in order. After a failed send the user's later messages are held back
+     * so they are not delivered out of order.
+     *
+     * @return false if sends failed and none succeeded
+     */
+    private boolean dispatchBatch(List<OutboxNotification> batch) {
+        List<Long> sentIds = new ArrayList<>();
+        Set<Long> blockedUsers = new HashSet<>();
+        boolean blockedBroadcast = false;
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+
+        for (OutboxNotification notification : batch) {
+            Long userId = notification.getUserId();
+            if (userId != null ? blockedUsers.contains(userId) : blockedBroadcast) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(notification.getDestination(), objectMapper.readTree(notification.getPayload()));
+                sentIds.add(notification.getId());
+                dispatched.increment();
+                dispatchLag.record(Duration.between(notification.getCreatedAt(), now).abs());
+            } catch (Exception e) {
+                failures.increment();
+                recordFailure(notification, e, now);
+                if (userId != null) {
+                    blockedUsers.add(userId);
+                } else {
+                    blockedBroadcast = true;
+                }
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markDispatched(sentIds, now);
+        }
+        return !sentIds.isEmpty() || (blockedUsers.isEmpty() && !blockedBroadcast);
+    }
+
+    /**
+     * Schedules a retry of the failed notification with exponential backoff, or gives up on it
+     * after the last attempt
+     */
+    private void recordFailure(OutboxNotification notification, Exception e, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on notification {} to {} after {} attempts: {}",
+                    notification.getId(), notification.getDestination(), attempts, e.getMessage());
+            givenUp.increment();
+            outboxRepository.markFailed(notification.getId(), now, error);
+            return;
+        }
+        long delay = retryBaseMillis * (1L << Math.min(attempts - 1, 10));
+        log.warn("Failed to send notification {} to {} (attempt {}), retrying in {} ms: {}",
+                notification.getId(), notification.getDestination(), attempts, delay, e.getMessage());
+        outboxRepository.scheduleRetry(notification.getId(), now.plusNanos(delay * 1_000_000), error);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        try {
+            leaseRepository.release(LEASE_NAME, instanceId, LocalDateTime.now(APP_TIMEZONE));
+        } catch (Exception e) {
+            log.debug("Could not release the notification outbox lease: {}", e.getMessage());
+        }
+    }
+}
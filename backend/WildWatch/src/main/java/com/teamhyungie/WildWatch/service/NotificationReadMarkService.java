@@ -0,0 +1,84 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.NotificationReadMark;
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.ActivityLogRepository;
+import com.teamhyungie.WildWatch.repository.NotificationReadMarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Reads and moves the per-user read watermarks (see {@link NotificationReadMark})
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationReadMarkService {
+
+    // Lower bound used when a user never marked everything as read
+    public static final LocalDateTime NEVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final NotificationReadMarkRepository readMarkRepository;
+    private final ActivityLogRepository activityLogRepository;
+
+    public LocalDateTime activityLogsReadAt(User user) {
+        return activityLogsReadAt(user.getId());
+    }
+
+    public LocalDateTime activityLogsReadAt(Long userId) {
+        return readMarkRepository.findById(userId)
+                .map(NotificationReadMark::getActivityLogsReadAt)
+                .orElse(NEVER);
+    }
+
+    public LocalDateTime bulletinNotificationsReadAt(User user) {
+        return readMarkRepository.findById(user.getId())
+                .map(NotificationReadMark::getBulletinNotificationsReadAt)
+                .orElse(NEVER);
+    }
+
+    /**
+     * Moves the activity log watermark to the user's newest committed log. Not to now: a log that
+     * ActivityLogBatcher has written but whose transaction has not committed yet can carry a time
+     * before now, and must not count as read before the user could see it.
+     * @return the new watermark
+     */
+    public LocalDateTime markActivityLogsRead(User user) {
+        LocalDateTime current = activityLogsReadAt(user);
+        LocalDateTime newest = activityLogRepository.findLatestCreatedAt(user.getId());
+        if (newest == null || !newest.isAfter(current)) {
+            return current;
+        }
+        return moveTo(user, NotificationReadMark::setActivityLogsReadAt, newest);
+    }
+
+    /**
+     * Moves the bulletin notification watermark to now
+     * @return the new watermark
+     */
+    public LocalDateTime markBulletinNotificationsRead(User user) {
+        return moveTo(user, NotificationReadMark::setBulletinNotificationsReadAt, LocalDateTime.now(APP_TIMEZONE));
+    }
+
+    /**
+     * Whether an entry is read: flagged individually, or at/before the watermark
+     */
+    public static boolean isRead(Boolean flag, LocalDateTime timestamp, LocalDateTime readAt) {
+        return Boolean.TRUE.equals(flag)
+                || (timestamp != null && readAt != null && !timestamp.isAfter(readAt));
+    }
+
+    private LocalDateTime moveTo(User user, BiConsumer<NotificationReadMark, LocalDateTime> setter, LocalDateTime readAt) {
+        NotificationReadMark mark = readMarkRepository.findById(user.getId()).orElseGet(() -> {
+            NotificationReadMark created = new NotificationReadMark();
+            created.setUserId(user.getId());
+            return created;
+        });
+        setter.accept(mark, readAt);
+        readMarkRepository.save(mark);
+        return readAt;
+    }
+}
@@ -8,13 +8,14 @@ import com.teamhyungie.WildWatch.model.Incident;
 import com.teamhyungie.WildWatch.model.Office;
 import com.teamhyungie.WildWatch.model.OfficeBulletin;
 import com.teamhyungie.WildWatch.model.Role;
+import com.teamhyungie.WildWatch.model.StoredObject;
 import com.teamhyungie.WildWatch.model.User;
 import com.teamhyungie.WildWatch.repository.BulletinMediaRepository;
 import com.teamhyungie.WildWatch.repository.IncidentRepository;
 import com.teamhyungie.WildWatch.repository.OfficeBulletinRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -31,9 +32,13 @@ public class OfficeBulletinService {
     private final BulletinMediaRepository bulletinMediaRepository;
     private final IncidentRepository incidentRepository;
     private final UserService userService;
-    private final SupabaseStorageService supabaseStorageService;
+    private final ContentAddressedStorage contentStorage;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Media files are stored before the bulletin is saved, outside the transaction; content
+     * that is already stored is reused instead of uploaded again.
+     */
     public OfficeBulletinResponse createBulletin(CreateBulletinRequest request, String userEmail, List<MultipartFile> mediaFiles) {
         // Validate user is office admin
         User user = userService.getUserByEmail(userEmail);
@@ -41,6 +46,30 @@ public class OfficeBulletinService {
             throw new RuntimeException("Only office admins can create bulletins");
         }
 
+        // Upload media to Supabase Storage
+        List<MultipartFile> files = new ArrayList<>();
+        if (mediaFiles != null) {
+            for (MultipartFile file : mediaFiles) {
+                if (!file.isEmpty()) {
+                    files.add(file);
+                }
+            }
+        }
+        List<StoredObject> stored;
+        try {
+            stored = contentStorage.store(files.stream()
+                    .map(SupabaseStorageService.Upload::of)
+                    .collect(Collectors.toList()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload media files", e);
+        }
+
+        // If saving fails, stored objects left unreferenced are removed by the storage sweep
+        return transactionTemplate.execute(status -> saveBulletin(request, user, files, stored));
+    }
+
+    private OfficeBulletinResponse saveBulletin(CreateBulletinRequest request, User user,
+                                                List<MultipartFile> files, List<StoredObject> stored) {
         // Create bulletin entity
         OfficeBulletin bulletin = new OfficeBulletin();
         bulletin.setTitle(request.getTitle());
@@ -68,29 +97,20 @@ public class OfficeBulletinService {
         // Save bulletin first to get ID
         bulletin = officeBulletinRepository.save(bulletin);
 
-        // Handle media uploads
+        // Record the uploaded media
         List<BulletinMedia> mediaAttachments = new ArrayList<>();
-        if (mediaFiles != null && !mediaFiles.isEmpty()) {
-            for (MultipartFile file : mediaFiles) {
-                if (!file.isEmpty()) {
-                    try {
-                        // Upload file to Supabase Storage
-                        String fileUrl = supabaseStorageService.storeFile(file);
-                        
-                        BulletinMedia media = new BulletinMedia();
-                        media.setBulletin(bulletin);
-                        media.setFileName(file.getOriginalFilename());
-                        media.setFileUrl(fileUrl);
-                        media.setFileType(file.getContentType());
-                        media.setFileSize(file.getSize());
-                        media.setUploadedAt(LocalDateTime.now(APP_TIMEZONE));
-                        
-                        mediaAttachments.add(bulletinMediaRepository.save(media));
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to upload file: " + file.getOriginalFilename(), e);
-                    }
-                }
-            }
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            BulletinMedia media = new BulletinMedia();
+            media.setBulletin(bulletin);
+            media.setFileName(file.getOriginalFilename());
+            media.setFileUrl(stored.get(i).getFileUrl());
+            media.setContentHash(stored.get(i).getContentHash());
+            media.setFileType(file.getContentType());
+            media.setFileSize(file.getSize());
+            media.setUploadedAt(LocalDateTime.now(APP_TIMEZONE));
+
+            mediaAttachments.add(bulletinMediaRepository.save(media));
         }
         bulletin.setMediaAttachments(mediaAttachments);
 
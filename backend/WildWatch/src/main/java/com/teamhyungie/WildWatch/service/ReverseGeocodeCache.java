@@ -0,0 +1,299 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.GeocodeCacheEntry;
+import com.teamhyungie.WildWatch.repository.GeocodeCacheRepository;
+import com.teamhyungie.WildWatch.repository.IncidentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+
+/**
+ * Cache of reverse-geocoded addresses keyed by a 9-character geohash, a cell of about 5 m,
+ * so repeated reports from the same spot on campus reuse one Geocoding API answer.
+ *
+ * Lookups go through an LRU map on the heap, then the geocode_cache table, which survives
+ * restarts. Concurrent misses for the same cell wait for the first caller's API call instead
+ * of making their own. On startup the heap tier is filled from the table and from the
+ * addresses already stored on recent incidents.
+ */
+@Component
+@Slf4j
+public class ReverseGeocodeCache {
+
+    static final int GEOHASH_PRECISION = 9;
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    // Addresses of this shape are the coordinates fallback, not a geocoding result
+    private static final Pattern COORDINATES = Pattern.compile("^-?\\d+(\\.\\d+)?, -?\\d+(\\.\\d+)?$");
+
+    private record Entry(String address, LocalDateTime fetchedAt) {
+    }
+
+    private final GeocodeCacheRepository cacheRepository;
+    private final IncidentRepository incidentRepository;
+    private final TransactionTemplate newTransaction;
+    private final int maxEntries;
+    private final long ttlDays;
+    private final int warmupLimit;
+
+    private final Map<String, Entry> heap;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter heapHits;
+    private final Counter persistentHits;
+    private final Counter coalesced;
+    private final Counter apiCalls;
+
+    public ReverseGeocodeCache(GeocodeCacheRepository cacheRepository,
+                               IncidentRepository incidentRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${geolocation.cache.max-entries:10000}") int maxEntries,
+                               @Value("${geolocation.cache.ttl-days:30}") long ttlDays,
+                               @Value("${geolocation.cache.warmup-limit:5000}") int warmupLimit) {
+        this.cacheRepository = cacheRepository;
+        this.incidentRepository = incidentRepository;
+        // Cache writes must not join (or roll back) the caller's transaction
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxEntries = maxEntries;
+        this.ttlDays = ttlDays;
+        this.warmupLimit = warmupLimit;
+        this.heap = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ReverseGeocodeCache.this.maxEntries;
+            }
+        };
+
+        this.heapHits = meterRegistry.counter("geocode.cache.requests", "result", "hit", "tier", "heap");
+        this.persistentHits = meterRegistry.counter("geocode.cache.requests", "result", "hit", "tier", "persistent");
+        FunctionCounter.builder("geocode.cache.misses", misses, AtomicLong::get)
+                .description("Lookups that had to call the Geocoding API or wait for a call in progress")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("geocode.cache.coalesced")
+                .description("Misses served by another caller's Geocoding API call for the same cell")
+                .register(meterRegistry);
+        this.apiCalls = Counter.builder("geocode.api.calls").register(meterRegistry);
+        FunctionCounter.builder("geocode.cache.saved.calls", this, cache -> cache.hits.get() + cache.coalesced.count())
+                .description("Geocoding API calls avoided by the cache")
+                .register(meterRegistry);
+        Gauge.builder("geocode.cache.hit.ratio", this, ReverseGeocodeCache::hitRatio).register(meterRegistry);
+        Gauge.builder("geocode.cache.size", this, ReverseGeocodeCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Address of the point's cell, loading it with loader on a miss. Null answers from the
+     * loader (a failed call) are not cached.
+     *
+     * @return the address, or null when the loader failed
+     */
+    public String get(double latitude, double longitude, Supplier<String> loader) {
+        String key = geohash(latitude, longitude);
+        Entry entry = fromHeap(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            heapHits.increment();
+            return entry.address();
+        }
+
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            misses.incrementAndGet();
+            coalesced.increment();
+            return running.join();
+        }
+        try {
+            String address = load(key, loader);
+            load.complete(address);
+            return address;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private String load(String key, Supplier<String> loader) {
+        Entry stored = fromTable(key);
+        if (stored != null) {
+            hits.incrementAndGet();
+            persistentHits.increment();
+            putHeap(key, stored);
+            return stored.address();
+        }
+
+        misses.incrementAndGet();
+        apiCalls.increment();
+        String address = loader.get();
+        if (address == null || address.isBlank() || address.length() > 500) {
+            return address;
+        }
+        Entry entry = new Entry(address, LocalDateTime.now(APP_TIMEZONE));
+        putHeap(key, entry);
+        save(List.of(new GeocodeCacheEntry(key, entry.address(), entry.fetchedAt())));
+        return address;
+    }
+
+    /**
+     * Fills the heap tier from the table, then from addresses on recent incidents for the
+     * cells the table does not have yet (those are also written to the table)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmupLimit <= 0) {
+            return;
+        }
+        try {
+            LocalDateTime since = LocalDateTime.now(APP_TIMEZONE).minusDays(ttlDays);
+            int loaded = 0;
+            for (GeocodeCacheEntry stored : cacheRepository.findByFetchedAtAfterOrderByFetchedAtDesc(
+                    since, PageRequest.of(0, Math.min(warmupLimit, maxEntries)))) {
+                putHeapIfAbsent(stored.getGeohash(), new Entry(stored.getFormattedAddress(), stored.getFetchedAt()));
+                loaded++;
+            }
+
+            List<GeocodeCacheEntry> fromIncidents = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+            for (Object[] row : incidentRepository.findGeocodedLocationsSince(since, PageRequest.of(0, warmupLimit))) {
+                String address = ((String) row[2]).trim();
+                if (address.isEmpty() || address.length() > 500 || COORDINATES.matcher(address).matches()) {
+                    continue;
+                }
+                String key = geohash((Double) row[0], (Double) row[1]);
+                if (putHeapIfAbsent(key, new Entry(address, now))) {
+                    fromIncidents.add(new GeocodeCacheEntry(key, address, now));
+                }
+            }
+            save(fromIncidents);
+            log.info("Warmed reverse-geocode cache with {} stored and {} incident addresses", loaded, fromIncidents.size());
+        } catch (Exception e) {
+            log.error("Reverse-geocode cache warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private Entry fromHeap(String key) {
+        synchronized (heap) {
+            Entry entry = heap.get(key);
+            if (entry != null && isExpired(entry.fetchedAt())) {
+                heap.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private Entry fromTable(String key) {
+        try {
+            return cacheRepository.findById(key)
+                    .filter(stored -> !isExpired(stored.getFetchedAt()))
+                    .map(stored -> new Entry(stored.getFormattedAddress(), stored.getFetchedAt()))
+                    .orElse(null);
+        } catch (Exception e) {
+            log.warn("Reverse-geocode cache read failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putHeap(String key, Entry entry) {
+        synchronized (heap) {
+            heap.put(key, entry);
+        }
+    }
+
+    private boolean putHeapIfAbsent(String key, Entry entry) {
+        synchronized (heap) {
+            return heap.putIfAbsent(key, entry) == null;
+        }
+    }
+
+    private void save(List<GeocodeCacheEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> cacheRepository.saveAll(entries));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the cell first; its address is as good as ours
+            log.debug("Reverse-geocode cache entry already stored: {}", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Reverse-geocode cache write failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isExpired(LocalDateTime fetchedAt) {
+        return fetchedAt.isBefore(LocalDateTime.now(APP_TIMEZONE).minusDays(ttlDays));
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private int size() {
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    /**
+     * Standard base-32 geohash of the point; 9 characters is a cell of about 4.8 m x 4.8 m
+     */
+    static String geohash(double latitude, double longitude) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        char[] hash = new char[GEOHASH_PRECISION];
+        boolean evenBit = true;
+        for (int i = 0; i < GEOHASH_PRECISION; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                index <<= 1;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (longitude >= mid) {
+                        index |= 1;
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (latitude >= mid) {
+                        index |= 1;
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+            hash[i] = BASE32[index];
+        }
+        return new String(hash);
+    }
+}
@@ -3,38 +3,48 @@ package com.teamhyungie.WildWatch.service;
 import com.teamhyungie.WildWatch.model.Incident;
 import com.teamhyungie.WildWatch.repository.IncidentRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
-import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class SimilarityService {
 
     private final IncidentRepository incidentRepository;
-    private final com.teamhyungie.WildWatch.repository.IncidentUpdateRepository incidentUpdateRepository;
 
-    // Simple in-memory cache for recent resolved incidents
-    @Value("${similarity.cache.enabled:true}")
-    private boolean cacheEnabled;
-    @Value("${similarity.cache.ttlMinutes:10}")
-    private long cacheTtlMinutes;
-    @Value("${similarity.cache.maxCandidates:30}")
-    private int cacheMaxCandidates;
+    // In-memory inverted index over in-progress and resolved incidents, built once
+    // and kept up to date through refreshIncident() as incidents change status
+    private final IncidentTagIndex tagIndex = new IncidentTagIndex();
+    // Process-wide mapping of normalized tag names to dense int ids used by tagIndex
+    private final TagDictionary tagDictionary = new TagDictionary();
+    // Banded LSH over persisted MinHash signatures, used instead of tagIndex in "minhash" mode
+    private final TagLshIndex lshIndex = new TagLshIndex();
+    private volatile boolean indexBuilt = false;
 
-    private volatile List<Incident> cachedResolved = null;
-    private volatile long lastCacheRefreshMs = 0L;
+    // "exact" = Jaccard over the inverted tag index, "minhash" = approximate MinHash/LSH
+    @Value("${similarity.mode:exact}")
+    private String mode;
 
+    /**
+     * Forces a full rebuild of the tag index on the next lookup
+     */
     public void invalidateCache() {
-        lastCacheRefreshMs = 0L;
+        indexBuilt = false;
     }
 
     // Tunable parameters
     private static final double SIMILARITY_THRESHOLD = 0.50; // 50% tag overlap required for similarity
     private static final int MAX_RESULTS_DEFAULT = 3;
+    // Statuses whose incidents are candidates for similarity (matches the repository query)
+    private static final Set<String> INDEXED_STATUSES = Set.of("in progress", "resolved");
 
     public static class SimilarIncident {
         public String id;
@@ -55,6 +65,13 @@ public class SimilarityService {
      * (In Progress, Resolved only - excludes Pending, Verified, Closed, Dismissed).
      * Uses 50% threshold (0.50) for Jaccard similarity.
      * 
+     * Candidates come from the inverted tag index, so the whole history is searched.
+     * A Jaccard score of at least 0.50 implies shared >= 0.50 * |A|, so only incidents
+     * sharing ceil(0.50 * |tags|) tags are scored, and the top results are kept in a bounded heap.
+     * 
+     * In "minhash" mode (similarity.mode) candidates come from LSH buckets instead and
+     * the score is the MinHash-estimated Jaccard similarity.
+     * 
      * @param submittedTags All 20 generated tags from the new incident
      * @param maxResults Maximum number of similar incidents to return
      * @return List of similar incidents sorted by similarity score (descending)
@@ -65,111 +82,207 @@ public class SimilarityService {
         }
         
         // Normalize submitted tags (all 20 tags) - lowercase and trim
-        Set<String> submittedTagSet = submittedTags.stream()
-            .map(String::toLowerCase)
-            .map(String::trim)
-            .filter(tag -> !tag.isEmpty())
-            .collect(Collectors.toSet());
+        Set<String> submittedTagSet = normalizeTags(submittedTags);
         
         if (submittedTagSet.isEmpty()) {
             return new ArrayList<>();
         }
         
-        // Get all resolved incidents with their tags loaded
-        List<Incident> candidates = getResolvedIncidentsWithTags();
+        ensureIndexBuilt();
         
-        List<SimilarIncident> results = new ArrayList<>();
+        int limit = Math.max(1, maxResults > 0 ? maxResults : MAX_RESULTS_DEFAULT);
         
-        for (Incident candidate : candidates) {
-            // Get ALL 20 tags from candidate (from generalTags, not transient tags field)
-            Set<String> candidateTagSet = candidate.getGeneralTags().stream()
-                .map(com.teamhyungie.WildWatch.model.IncidentGeneralTag::getName)
-                .map(String::toLowerCase)
-                .map(String::trim)
-                .filter(tag -> !tag.isEmpty())
-                .collect(Collectors.toSet());
-            
-            if (candidateTagSet.isEmpty()) {
-                continue; // Skip incidents without tags
-            }
-            
-            // Calculate Jaccard similarity: intersection / union
-            Set<String> intersection = new HashSet<>(submittedTagSet);
-            intersection.retainAll(candidateTagSet);
-            
-            Set<String> union = new HashSet<>(submittedTagSet);
-            union.addAll(candidateTagSet);
-            
-            double similarity = union.isEmpty() ? 0.0 
-                : (double) intersection.size() / union.size();
-            
-            // 50% threshold (0.50)
-            if (similarity >= SIMILARITY_THRESHOLD) {
-                SimilarIncident si = buildSimilarIncidentFromIncident(candidate, similarity);
-                results.add(si);
-            }
+        if (isMinHashMode()) {
+            return lshIndex.topK(MinHash.signature(submittedTagSet), SIMILARITY_THRESHOLD, limit).stream()
+                .map(match -> buildSimilarIncident(match.entry, match.score))
+                .collect(Collectors.toList());
         }
         
-        // Sort by similarity descending and limit results
-        return results.stream()
-            .sorted(Comparator.comparingDouble((SimilarIncident s) -> s.similarityScore).reversed())
-            .limit(Math.max(1, maxResults > 0 ? maxResults : MAX_RESULTS_DEFAULT))
+        int minShared = (int) Math.ceil(SIMILARITY_THRESHOLD * submittedTagSet.size());
+        int[] submittedTagIds = tagDictionary.encodeKnown(submittedTagSet);
+        
+        return tagIndex.topK(submittedTagIds, submittedTagSet.size(), minShared, SIMILARITY_THRESHOLD, limit).stream()
+            .map(match -> buildSimilarIncident(match.entry, match.score))
             .collect(Collectors.toList());
     }
 
     /**
-     * Helper method to get in-progress and resolved incidents with tags loaded (with caching support)
-     * Includes: In Progress, Resolved (excludes Pending, Verified, Closed, Dismissed)
+     * Re-indexes an incident after it was created or changed status.
+     * Incidents that are no longer In Progress/Resolved are dropped from the index.
+     * When called inside a transaction the index is only touched after commit.
      */
-    private List<Incident> getResolvedIncidentsWithTags() {
-        if (!cacheEnabled) {
-            List<Incident> all = incidentRepository.findResolvedWithResolutionNotesAndTagsOrderBySubmittedAtDesc();
-            return all.size() > cacheMaxCandidates ? all.subList(0, cacheMaxCandidates) : all;
+    public void refreshIncident(Incident incident) {
+        if (incident == null || incident.getId() == null) {
+            return;
         }
-        
-        long now = System.currentTimeMillis();
-        long ttlMs = Math.max(1L, cacheTtlMinutes) * 60_000L;
-        if (cachedResolved == null || (now - lastCacheRefreshMs) > ttlMs) {
-            synchronized (this) {
-                if (cachedResolved == null || (now - lastCacheRefreshMs) > ttlMs) {
-                    List<Incident> all = incidentRepository.findResolvedWithResolutionNotesAndTagsOrderBySubmittedAtDesc();
-                    cachedResolved = all.size() > cacheMaxCandidates 
-                        ? new ArrayList<>(all.subList(0, cacheMaxCandidates)) 
-                        : new ArrayList<>(all);
-                    lastCacheRefreshMs = now;
+        final String incidentId = incident.getId();
+        final IncidentTagIndex.Entry entry;
+        try {
+            entry = isIndexedStatus(incident.getStatus()) ? toIndexEntry(incident) : null;
+        } catch (Exception e) {
+            // Tags could not be read (e.g. detached entity) - rebuild on next lookup instead
+            log.warn("Could not snapshot incident {} for similarity index: {}", incidentId, e.getMessage());
+            invalidateCache();
+            return;
+        }
+
+        Runnable apply = () -> {
+            if (!indexBuilt) {
+                return; // The next lookup builds the index from the database anyway
+            }
+            if (isMinHashMode()) {
+                if (entry != null) {
+                    lshIndex.put(entry);
+                } else {
+                    lshIndex.remove(incidentId);
+                }
+            } else if (entry != null) {
+                tagIndex.put(entry);
+            } else {
+                tagIndex.remove(incidentId);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
                 }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Computes the persisted MinHash signature for a list of tag names
+     */
+    public byte[] computeTagSignature(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        return MinHash.toBytes(MinHash.signature(normalizeTags(tags)));
+    }
+
+    /**
+     * Builds the index for the configured mode from all in-progress and resolved incidents (once)
+     */
+    private void ensureIndexBuilt() {
+        if (indexBuilt) {
+            return;
+        }
+        synchronized (this) {
+            if (indexBuilt) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            if (isMinHashMode()) {
+                lshIndex.replaceAll(loadSignatureEntries());
+                log.info("Built similarity LSH index with {} incidents in {} ms",
+                    lshIndex.size(), System.currentTimeMillis() - start);
+            } else {
+                List<IncidentTagIndex.Entry> entries = incidentRepository.findResolvedWithResolutionNotesAndTagsOrderBySubmittedAtDesc()
+                    .stream()
+                    .map(this::toIndexEntry)
+                    .collect(Collectors.toList());
+                tagIndex.replaceAll(entries);
+                log.info("Built similarity tag index with {} incidents in {} ms",
+                    tagIndex.size(), System.currentTimeMillis() - start);
             }
+            indexBuilt = true;
         }
-        return new ArrayList<>(cachedResolved);
     }
 
     /**
-     * Helper method to build SimilarIncident from Incident entity
+     * Loads index entries from persisted signatures, without fetching tags.
+     * Incidents that predate the tag_minhash column are backfilled once here.
      */
-    private SimilarIncident buildSimilarIncidentFromIncident(Incident inc, double similarity) {
+    private List<IncidentTagIndex.Entry> loadSignatureEntries() {
+        List<IncidentTagIndex.Entry> entries = new ArrayList<>();
+        for (Incident inc : incidentRepository.findSimilarityCandidatesWithSignature()) {
+            int[] signature = MinHash.fromBytes(inc.getTagMinhash());
+            if (signature != null) {
+                entries.add(toIndexEntry(inc, new int[0], signature));
+            }
+        }
+
+        List<Incident> missing = incidentRepository.findSimilarityCandidatesWithoutSignature();
+        for (Incident inc : missing) {
+            IncidentTagIndex.Entry entry = toIndexEntry(inc);
+            if (entry.signature != null) {
+                incidentRepository.updateTagMinhash(inc.getId(), MinHash.toBytes(entry.signature));
+            }
+            entries.add(entry);
+        }
+        if (!missing.isEmpty()) {
+            log.info("Backfilled MinHash signatures for {} incidents", missing.size());
+        }
+        return entries;
+    }
+
+    private IncidentTagIndex.Entry toIndexEntry(Incident inc) {
+        Set<String> tags = normalizeTags(inc.getGeneralTags().stream()
+            .map(com.teamhyungie.WildWatch.model.IncidentGeneralTag::getName)
+            .collect(Collectors.toList()));
+        int[] signature = null;
+        if (isMinHashMode()) {
+            signature = MinHash.fromBytes(inc.getTagMinhash());
+            if (signature == null) {
+                signature = MinHash.signature(tags);
+            }
+        }
+        return toIndexEntry(inc, tagDictionary.encode(tags), signature);
+    }
+
+    private IncidentTagIndex.Entry toIndexEntry(Incident inc, int[] tagIds, int[] signature) {
+        return new IncidentTagIndex.Entry(
+            inc.getId(),
+            inc.getTrackingNumber(),
+            inc.getIncidentType(),
+            inc.getLocation(),
+            inc.getAssignedOffice() != null ? inc.getAssignedOffice().name() : null,
+            inc.getSubmittedAt(),
+            inc.getFinishedAt(),
+            inc.getResolutionNotes(),
+            inc.getDescription(),
+            tagIds,
+            signature
+        );
+    }
+
+    private static Set<String> normalizeTags(Collection<String> tags) {
+        return tags.stream()
+            .filter(Objects::nonNull)
+            .map(String::toLowerCase)
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    private boolean isMinHashMode() {
+        return "minhash".equalsIgnoreCase(mode);
+    }
+
+    private static boolean isIndexedStatus(String status) {
+        return status != null && INDEXED_STATUSES.contains(status.toLowerCase());
+    }
+
+    /**
+     * Helper method to build SimilarIncident from an index entry
+     */
+    private SimilarIncident buildSimilarIncident(IncidentTagIndex.Entry entry, double similarity) {
         SimilarIncident si = new SimilarIncident();
-        si.id = inc.getId();
-        si.trackingNumber = inc.getTrackingNumber();
+        si.id = entry.id;
+        si.trackingNumber = entry.trackingNumber;
         si.similarityScore = similarity;
-        si.incidentType = inc.getIncidentType();
-        si.location = inc.getLocation();
-        si.assignedOffice = inc.getAssignedOffice() != null ? inc.getAssignedOffice().name() : null;
-        si.submittedAt = inc.getSubmittedAt() == null ? null : java.sql.Timestamp.valueOf(inc.getSubmittedAt());
-        
-        // Determine finished date (latest Resolved/Closed update)
-        try {
-            var finishedUpdate = incidentUpdateRepository.findFirstByIncidentAndStatusInOrderByUpdatedAtDesc(
-                inc, java.util.Arrays.asList("Resolved", "resolved", "Closed", "closed")
-            );
-            if (finishedUpdate != null) {
-                si.finishedDate = finishedUpdate.getUpdatedAt();
-            }
-        } catch (Exception ignored) {}
-        
-        si.resolutionNotes = inc.getResolutionNotes();
-        si.description = inc.getDescription();
+        si.incidentType = entry.incidentType;
+        si.location = entry.location;
+        si.assignedOffice = entry.assignedOffice;
+        si.submittedAt = entry.submittedAt == null ? null : java.sql.Timestamp.valueOf(entry.submittedAt);
+        si.finishedDate = entry.finishedAt;
+        si.resolutionNotes = entry.resolutionNotes;
+        si.description = entry.description;
         return si;
     }
 }
-
-
@@ -1,8 +1,10 @@
 package com.teamhyungie.WildWatch.service;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -11,75 +13,190 @@ import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
 
+/**
+ * Uploads to the Supabase storage bucket.
+ *
+ * File content is streamed from its source (the multipart temp file or a spooled file) into
+ * the request body, so an upload never holds the whole file on the heap. Batches of files go
+ * up concurrently on a bounded pool, each file under a new unique name.
+ */
 @Service
 public class SupabaseStorageService {
     private final Logger logger = LoggerFactory.getLogger(SupabaseStorageService.class);
     private final RestTemplate restTemplate;
     private final String supabaseUrl;
     private final String supabaseKey;
+    private final ThreadPoolExecutor uploadExecutor;
     private static final String BUCKET_NAME = "wildwatch-uploads";
 
+    /**
+     * A file to upload; content is read when the upload runs
+     */
+    public record Upload(String originalFilename, String contentType, Resource content) {
+
+        public static Upload of(MultipartFile file) {
+            return new Upload(file.getOriginalFilename(), file.getContentType(), file.getResource());
+        }
+    }
+
+    /**
+     * Outcome of one upload of a batch: the public URL, or why it failed
+     */
+    public record Result(String url, RuntimeException failure) {
+
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+
     public SupabaseStorageService(
             @Value("${supabase.url}") String supabaseUrl,
-            @Value("${supabase.key}") String supabaseKey) {
-        this.restTemplate = new RestTemplate();
+            @Value("${supabase.key}") String supabaseKey,
+            @Value("${supabase.upload.threads:4}") int uploadThreads,
+            @Value("${supabase.upload.queue-capacity:32}") int queueCapacity,
+            @Value("${supabase.upload.connect-timeout-ms:5000}") int connectTimeoutMillis,
+            @Value("${supabase.upload.read-timeout-ms:60000}") int readTimeoutMillis) {
+        // Not buffering: bodies without a known length are sent chunked as they are read
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
         this.supabaseUrl = supabaseUrl;
         this.supabaseKey = supabaseKey;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the submitting request thread uploads the file itself
+        this.uploadExecutor = new ThreadPoolExecutor(uploadThreads, uploadThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "storage-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.uploadExecutor.allowCoreThreadTimeOut(true);
         logger.info("Initializing Supabase Storage Service with URL: {}", supabaseUrl);
     }
 
     public String storeFile(MultipartFile file) {
-        try {
-            // Generate a unique filename
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            logger.info("Storing file: {} with generated name: {}", file.getOriginalFilename(), fileName);
+        return storeFile(Upload.of(file));
+    }
 
-            // Create headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-            headers.set("apikey", supabaseKey);
-            headers.set("Authorization", "Bearer " + supabaseKey);
-            headers.set("x-client-info", "wildwatch-backend");
+    /**
+     * Uploads the files concurrently; a failed upload does not affect the others and nothing is
+     * deleted, so the caller decides what to keep
+     *
+     * @return the result of each upload, in the order of the uploads
+     */
+    public List<Result> storeEach(List<Upload> uploads) {
+        return storeEach(uploads, (url, index) -> {
+        });
+    }
 
-            // Create the request body
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file", new ByteArrayResource(file.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return fileName;
-                }
-            });
+    /**
+     * Like {@link #storeEach(List)}, calling onStored on the upload thread as soon as each file
+     * is stored (with its URL and position), e.g. to record it before the rest of the batch ends.
+     * If onStored throws, that upload's result is the failure.
+     */
+    public List<Result> storeEach(List<Upload> uploads, ObjIntConsumer<String> onStored) {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            Upload upload = uploads.get(i);
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                String url = storeFile(upload);
+                onStored.accept(url, index);
+                return url;
+            }, uploadExecutor));
+        }
 
-            // Create the request entity
-            HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        List<Result> results = new ArrayList<>();
+        for (CompletableFuture<String> future : futures) {
+            try {
+                results.add(new Result(future.join(), null));
+            } catch (CompletionException ex) {
+                results.add(new Result(null, ex.getCause() instanceof RuntimeException cause ? cause : ex));
+            }
+        }
+        return results;
+    }
 
-            // Upload the file
-            String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, BUCKET_NAME, fileName);
-            logger.info("Uploading file to: {}", uploadUrl);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                    uploadUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
+    /**
+     * Uploads one file, streaming its content into the request
+     *
+     * @return the public URL of the stored file
+     */
+    public String storeFile(Upload upload) {
+        // Generate a unique filename
+        String fileName = UUID.randomUUID().toString() + "_" + upload.originalFilename();
+        logger.info("Storing file: {} with generated name: {}", upload.originalFilename(), fileName);
 
-            if (response.getStatusCode() != HttpStatus.OK) {
-                logger.error("Failed to upload file. Status: {}, Response: {}", response.getStatusCode(), response.getBody());
-                throw new RuntimeException("Failed to upload file: " + response.getBody());
-            }
+        // Create headers
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.set("apikey", supabaseKey);
+        headers.set("Authorization", "Bearer " + supabaseKey);
+        headers.set("x-client-info", "wildwatch-backend");
+
+        // The file part carries its own content type; its content is copied from the resource's stream
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentType(mediaType(upload.contentType()));
+        partHeaders.setContentDispositionFormData("file", fileName);
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new HttpEntity<>(upload.content(), partHeaders));
 
-            // Get the public URL
-            String publicUrl = String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, BUCKET_NAME, fileName);
-            logger.info("File uploaded successfully. Public URL: {}", publicUrl);
-            return publicUrl;
+        // Create the request entity
+        HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
-        } catch (IOException ex) {
-            logger.error("Failed to store file: {}", file.getOriginalFilename(), ex);
-            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
+        // Upload the file
+        String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, BUCKET_NAME, fileName);
+        logger.info("Uploading file to: {}", uploadUrl);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                uploadUrl,
+                HttpMethod.POST,
+                requestEntity,
+                String.class
+        );
+
+        if (response.getStatusCode() != HttpStatus.OK) {
+            logger.error("Failed to upload file. Status: {}, Response: {}", response.getStatusCode(), response.getBody());
+            throw new RuntimeException("Failed to upload file: " + response.getBody());
+        }
+
+        // Get the public URL
+        String publicUrl = publicUrl(fileName);
+        logger.info("File uploaded successfully. Public URL: {}", publicUrl);
+        return publicUrl;
+    }
+
+    /**
+     * Best-effort delete of stored files by public URL, used to undo uploads whose records
+     * could not be saved. Failures are logged, not thrown.
+     */
+    public void deleteFiles(List<String> publicUrls) {
+        String prefix = publicUrl("");
+        for (String url : publicUrls) {
+            if (url == null || !url.startsWith(prefix)) {
+                logger.warn("Not deleting {}: not a file in bucket {}", url, BUCKET_NAME);
+                continue;
+            }
+            try {
+                deleteFile(url.substring(prefix.length()));
+            } catch (RuntimeException ex) {
+                logger.error("Could not delete orphaned upload {}", url, ex);
+            }
         }
     }
 
@@ -99,7 +216,7 @@ public class SupabaseStorageService {
             // Delete the file
             String deleteUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, BUCKET_NAME, fileName);
             logger.info("Deleting file from: {}", deleteUrl);
-            
+
             ResponseEntity<String> response = restTemplate.exchange(
                     deleteUrl,
                     HttpMethod.DELETE,
@@ -118,4 +235,22 @@ public class SupabaseStorageService {
             throw new RuntimeException("Could not delete file " + fileName + ". Please try again!", ex);
         }
     }
-}
\ No newline at end of file
+
+    private static MediaType mediaType(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    private String publicUrl(String fileName) {
+        return String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, BUCKET_NAME, fileName);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        uploadExecutor.shutdown();
+        uploadExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,77 @@
+package com.teamhyungie.WildWatch.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps normalized IncidentGeneralTag names to dense int ids, so tag sets can be
+ * stored and compared as sorted int arrays instead of sets of strings.
+ * Ids are only meaningful within the running process and are never persisted.
+ */
+final class TagDictionary {
+
+    static final int UNKNOWN = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Returns the id of a normalized tag name, assigning a new one if needed
+     */
+    int idOf(String normalizedTag) {
+        return ids.computeIfAbsent(normalizedTag, key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the id of a normalized tag name, or UNKNOWN if no incident uses it yet
+     */
+    int lookup(String normalizedTag) {
+        Integer id = ids.get(normalizedTag);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Encodes normalized tag names as a sorted array of distinct ids, assigning ids as needed
+     */
+    int[] encode(Collection<String> normalizedTags) {
+        int[] result = new int[normalizedTags.size()];
+        int n = 0;
+        for (String tag : normalizedTags) {
+            result[n++] = idOf(tag);
+        }
+        return sortedDistinct(result, n);
+    }
+
+    /**
+     * Encodes query tags without growing the dictionary; unknown tags are dropped
+     * (they cannot match any indexed incident, but still count towards the union)
+     */
+    int[] encodeKnown(Collection<String> normalizedTags) {
+        int[] result = new int[normalizedTags.size()];
+        int n = 0;
+        for (String tag : normalizedTags) {
+            int id = lookup(tag);
+            if (id != UNKNOWN) {
+                result[n++] = id;
+            }
+        }
+        return sortedDistinct(result, n);
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    private static int[] sortedDistinct(int[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || values[distinct - 1] != values[i]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct == values.length ? values : Arrays.copyOf(values, distinct);
+    }
+}
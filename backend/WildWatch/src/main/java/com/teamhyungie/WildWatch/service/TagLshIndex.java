@@ -0,0 +1,130 @@
+package com.teamhyungie.WildWatch.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Banded LSH index over MinHash signatures (approximate similarity mode).
+ * Finding candidates for a report costs one bucket probe per band instead of
+ * one set intersection per indexed incident; candidates are then ranked by the
+ * signature-estimated Jaccard similarity.
+ */
+class TagLshIndex {
+
+    private final Map<String, IncidentTagIndex.Entry> entries = new HashMap<>();
+    private final Map<Long, Set<String>> buckets = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void replaceAll(Collection<IncidentTagIndex.Entry> newEntries) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            buckets.clear();
+            for (IncidentTagIndex.Entry entry : newEntries) {
+                addUnlocked(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(IncidentTagIndex.Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id);
+            addUnlocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String incidentId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(incidentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the k best matches by estimated Jaccard similarity among the
+     * incidents that share at least one LSH bucket with the query signature
+     */
+    List<IncidentTagIndex.Match> topK(int[] querySignature, double threshold, int k) {
+        if (querySignature == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<IncidentTagIndex.Match> heap = new PriorityQueue<>(k + 1, IncidentTagIndex.HEAP_ORDER);
+
+        lock.readLock().lock();
+        try {
+            Set<String> candidates = new HashSet<>();
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                Set<String> ids = buckets.get(MinHash.bandKey(querySignature, band));
+                if (ids != null) {
+                    candidates.addAll(ids);
+                }
+            }
+
+            for (String id : candidates) {
+                IncidentTagIndex.Entry entry = entries.get(id);
+                double similarity = MinHash.estimate(querySignature, entry.signature);
+                if (similarity < threshold) {
+                    continue;
+                }
+                IncidentTagIndex.Match match = new IncidentTagIndex.Match(entry, similarity);
+                if (heap.size() < k) {
+                    heap.offer(match);
+                } else if (IncidentTagIndex.HEAP_ORDER.compare(match, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.offer(match);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<IncidentTagIndex.Match> result = new ArrayList<>(heap);
+        result.sort(IncidentTagIndex.HEAP_ORDER.reversed());
+        return result;
+    }
+
+    private void addUnlocked(IncidentTagIndex.Entry entry) {
+        if (entry.signature == null) {
+            return; // Incidents without tags can never be similar
+        }
+        entries.put(entry.id, entry);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.computeIfAbsent(MinHash.bandKey(entry.signature, band), key -> new HashSet<>()).add(entry.id);
+        }
+    }
+
+    private void removeUnlocked(String incidentId) {
+        IncidentTagIndex.Entry previous = entries.remove(incidentId);
+        if (previous == null) {
+            return;
+        }
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            long key = MinHash.bandKey(previous.signature, band);
+            Set<String> ids = buckets.get(key);
+            if (ids != null) {
+                ids.remove(incidentId);
+                if (ids.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.ActivityLogRepository;
+import com.teamhyungie.WildWatch.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * In-memory unread notification (activity log) counters per user.
+ *
+ * A counter is loaded with one COUNT query the first time it is needed and then kept up to date
+ * as logs are written and read. Every change is pushed to /topic/notifications/{userId}/unread-count
+ * so clients do not have to poll. Counters are reloaded after notification.unread.ttl-ms, which
+ * also corrects any drift from concurrent loads or other instances.
+ */
+@Service
+@Slf4j
+public class UnreadCounterService {
+
+    private final ActivityLogRepository activityLogRepository;
+    private final UserRepository userRepository;
+    private final NotificationReadMarkService readMarkService;
+    private final BroadcastCoalescer broadcastCoalescer;
+    private final long ttlMillis;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIds = new ConcurrentHashMap<>();
+
+    private static class Counter {
+        final long loadedAt;
+        int unread;
+
+        Counter(int unread, long loadedAt) {
+            this.unread = unread;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public UnreadCounterService(ActivityLogRepository activityLogRepository,
+                                UserRepository userRepository,
+                                NotificationReadMarkService readMarkService,
+                                BroadcastCoalescer broadcastCoalescer,
+                                @Value("${notification.unread.ttl-ms:300000}") long ttlMillis) {
+        this.activityLogRepository = activityLogRepository;
+        this.userRepository = userRepository;
+        this.readMarkService = readMarkService;
+        this.broadcastCoalescer = broadcastCoalescer;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Unread count of the user with this email; only the first call per email looks the user up
+     */
+    public int getUnreadCount(String email) {
+        Long userId = userIds.computeIfAbsent(email, e -> userRepository.findByEmail(e)
+                .map(User::getId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + e)));
+        return getUnreadCount(userId);
+    }
+
+    public int getUnreadCount(Long userId) {
+        Counter counter = loaded(userId);
+        synchronized (counter) {
+            return counter.unread;
+        }
+    }
+
+    /**
+     * New unread logs for the user; applied once the current transaction commits
+     */
+    public void logsAdded(Long userId, int count) {
+        afterCommit(userId, unread -> unread + count);
+    }
+
+    /**
+     * One of the user's unread logs was marked as read
+     */
+    public void logRead(Long userId) {
+        afterCommit(userId, unread -> Math.max(0, unread - 1));
+    }
+
+    public void allRead(Long userId) {
+        afterCommit(userId, unread -> 0);
+    }
+
+    /**
+     * Drops counters that are due for a reload, so users who left do not stay in memory
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.ttl-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        counters.values().removeIf(counter -> now - counter.loadedAt >= ttlMillis);
+    }
+
+    private void afterCommit(Long userId, IntUnaryOperator change) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, change);
+                }
+            });
+        } else {
+            apply(userId, change);
+        }
+    }
+
+    private void apply(Long userId, IntUnaryOperator change) {
+        try {
+            Counter counter = counters.get(userId);
+            boolean fresh = counter == null || expired(counter);
+            if (fresh) {
+                // Loaded after the commit, so the change is already part of the count
+                counter = load(userId);
+            }
+            synchronized (counter) {
+                if (!fresh) {
+                    counter.unread = change.applyAsInt(counter.unread);
+                }
+                // Queued under the lock so the latest change is the one that is sent
+                broadcastCoalescer.send("/topic/notifications/" + userId + "/unread-count",
+                        Map.of("unread", counter.unread));
+            }
+        } catch (Exception e) {
+            log.warn("Could not update unread count for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private Counter loaded(Long userId) {
+        Counter counter = counters.get(userId);
+        return counter == null || expired(counter) ? load(userId) : counter;
+    }
+
+    private Counter load(Long userId) {
+        long now = System.currentTimeMillis();
+        int unread = activityLogRepository.countUnread(userId, readMarkService.activityLogsReadAt(userId));
+        Counter counter = new Counter(unread, now);
+        counters.put(userId, counter);
+        return counter;
+    }
+
+    private boolean expired(Counter counter) {
+        return System.currentTimeMillis() - counter.loadedAt >= ttlMillis;
+    }
+}
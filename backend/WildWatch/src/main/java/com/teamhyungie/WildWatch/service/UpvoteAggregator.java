@@ -0,0 +1,206 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.Incident;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind for incidents.upvote_count.
+ *
+ * Upvotes and removals only add to a per-incident LongAdder. A background thread periodically
+ * applies the sums with atomic "upvote_count = upvote_count + ?" updates and evicts just those
+ * incidents from the second-level cache, so concurrent clicks neither lose updates nor contend
+ * on the row. The incident_upvotes table stays the source of truth: a reconciliation job resets
+ * any count that has drifted from it (crash before a flush, races with idle-entry cleanup, ...).
+ *
+ * Each incident_upvotes write and its delta happen under the read side of a lock that the
+ * reconciliation takes exclusively. While it runs, every committed row therefore already has
+ * its delta recorded and no new row can commit, so the deltas it discards are exactly the ones
+ * its recount includes. Deltas still unflushed on other instances are not covered; they can
+ * leave a count too high by at most one flush interval's clicks until the next reconciliation.
+ */
+@Component
+@Slf4j
+public class UpvoteAggregator {
+
+    private static final String FLUSH_SQL =
+            "UPDATE incidents SET upvote_count = COALESCE(upvote_count, 0) + ? WHERE id = ?";
+    private static final String RECONCILE_SQL =
+            "UPDATE incidents i SET upvote_count = " +
+            "(SELECT COUNT(*) FROM incident_upvotes u WHERE u.incident_id = i.id) " +
+            "WHERE COALESCE(i.upvote_count, -1) <> (SELECT COUNT(*) FROM incident_upvotes u WHERE u.incident_id = i.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService flusher;
+    private final Counter flushed;
+    private final Counter reconciled;
+
+    public UpvoteAggregator(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            EntityManagerFactory entityManagerFactory,
+                            MeterRegistry meterRegistry,
+                            @Value("${incident.upvotes.flush-ms:1000}") long flushMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upvote-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        this.flushed = Counter.builder("incident.upvotes.flushed")
+                .description("Incident upvote counts updated by the write-behind")
+                .register(meterRegistry);
+        this.reconciled = Counter.builder("incident.upvotes.reconciled")
+                .description("Incident upvote counts corrected by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("incident.upvotes.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs the incident_upvotes write and adds the change to the incident's count once it has
+     * committed: once the current transaction commits, or right after the write when there is none.
+     * Reconciliation waits until both have happened.
+     *
+     * @param delta +1 for an upvote, -1 for a removal
+     * @param upvoteWrite the insert or delete of the incident_upvotes row
+     */
+    public void record(String incidentId, int delta, Runnable upvoteWrite) {
+        Lock lock = reconcileLock.readLock();
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                upvoteWrite.run();
+                adder(incidentId).add(delta);
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        try {
+            upvoteWrite.run();
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adder(incidentId).add(delta);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Stored count plus the changes not yet written to it
+     */
+    public int currentCount(Incident incident) {
+        int stored = incident.getUpvoteCount() != null ? incident.getUpvoteCount() : 0;
+        LongAdder delta = pending.get(incident.getId());
+        return Math.max(0, stored + (delta != null ? delta.intValue() : 0));
+    }
+
+    /**
+     * Runs on the flusher thread, so no flush interleaves with it. Upvote writes wait while it
+     * holds the lock; the pending deltas are dropped in the same step, because the recount that
+     * commits under the lock already includes every change they stand for.
+     */
+    @Scheduled(fixedDelayString = "${incident.upvotes.reconcile-ms:600000}",
+               initialDelayString = "${incident.upvotes.reconcile-ms:600000}")
+    public void reconcile() {
+        flusher.execute(() -> {
+            Lock lock = reconcileLock.writeLock();
+            lock.lock();
+            try {
+                Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(RECONCILE_SQL));
+                pending.values().forEach(LongAdder::reset);
+                if (updated != null && updated > 0) {
+                    reconciled.increment(updated);
+                    entityManagerFactory.getCache().evict(Incident.class);
+                    log.info("Reconciled upvote counts of {} incidents", updated);
+                }
+            } catch (Exception e) {
+                // Nothing was reset; the deltas are flushed as usual
+                log.error("Upvote reconciliation failed: {}", e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private LongAdder adder(String incidentId) {
+        return pending.computeIfAbsent(incidentId, id -> new LongAdder());
+    }
+
+    private void flush() {
+        List<String> ids = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        pending.forEach((incidentId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                ids.add(incidentId);
+                args.add(new Object[]{delta, incidentId});
+            } else {
+                // Idle for a whole interval; a click racing this removal is fixed by reconciliation
+                pending.remove(incidentId, adder);
+            }
+        });
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+            flushed.increment(args.size());
+        } catch (Exception e) {
+            log.error("Failed to flush upvote counts of {} incidents: {}", args.size(), e.getMessage());
+            for (Object[] arg : args) {
+                adder((String) arg[1]).add((Long) arg[0]); // Retried on the next flush
+            }
+            return;
+        }
+        for (String incidentId : ids) {
+            entityManagerFactory.getCache().evict(Incident.class, incidentId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.execute(this::flush);
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,10 @@
+-- Time an incident was resolved/closed, so responses no longer query incident_updates per row
+ALTER TABLE incidents ADD COLUMN IF NOT EXISTS finished_at TIMESTAMP;
+
+-- Backfill from the latest Resolved/Closed update
+UPDATE incidents i
+SET finished_at = (
+    SELECT MAX(u.updated_at) FROM incident_updates u
+    WHERE u.incident_id = i.id AND LOWER(u.status) IN ('resolved', 'closed')
+)
+WHERE i.finished_at IS NULL;
@@ -0,0 +1,20 @@
+-- Background enrichment jobs of submitted incidents (one row per submission)
+CREATE TABLE IF NOT EXISTS incident_jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    incident_id VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    stage VARCHAR(32) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_run_at TIMESTAMP NOT NULL,
+    locked_until TIMESTAMP,
+    lease_owner VARCHAR(64),
+    last_error VARCHAR(1000),
+    payload TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT uq_incident_jobs_idempotency_key UNIQUE (idempotency_key)
+);
+
+-- Workers poll for due pending jobs
+CREATE INDEX IF NOT EXISTS idx_incident_jobs_status_next_run ON incident_jobs(status, next_run_at);
@@ -0,0 +1,18 @@
+-- WebSocket notifications written with the change they announce and sent after commit
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    destination VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    dispatched_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    failed_at TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
+-- The dispatcher only reads rows that have not been sent yet, in write order (ids are allocated in
+-- blocks per instance, so they only break ties)
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_undispatched ON notification_outbox(created_at, id)
+    WHERE dispatched_at IS NULL AND failed_at IS NULL;
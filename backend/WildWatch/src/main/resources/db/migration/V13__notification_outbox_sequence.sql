@@ -0,0 +1,3 @@
+-- Outbox ids come from a sequence allocated in blocks of 50 (matches allocationSize), so inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('notification_outbox_seq', COALESCE((SELECT MAX(id) FROM notification_outbox), 0) + 51);
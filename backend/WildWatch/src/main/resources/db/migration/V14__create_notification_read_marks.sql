@@ -0,0 +1,10 @@
+-- Per-user "read all" watermarks for activity logs and bulletin notifications
+CREATE TABLE IF NOT EXISTS notification_read_marks (
+    user_id BIGINT PRIMARY KEY,
+    activity_logs_read_at TIMESTAMP,
+    bulletin_notifications_read_at TIMESTAMP,
+    CONSTRAINT fk_notification_read_marks_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Unread lookups filter on user and time
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_created ON activity_logs(user_id, created_at);
@@ -0,0 +1,2 @@
+-- Upvote reconciliation counts upvotes per incident
+CREATE INDEX IF NOT EXISTS idx_incident_upvotes_incident ON incident_upvotes(incident_id);
@@ -0,0 +1,9 @@
+-- Reverse-geocoded addresses keyed by ~5 m geohash cell, kept across restarts
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    geohash VARCHAR(12) PRIMARY KEY,
+    formatted_address VARCHAR(500) NOT NULL,
+    fetched_at TIMESTAMP NOT NULL
+);
+
+-- Warm-up loads the most recently fetched cells
+CREATE INDEX IF NOT EXISTS idx_geocode_cache_fetched_at ON geocode_cache(fetched_at);
@@ -0,0 +1,16 @@
+-- Content-addressed storage: one stored object per distinct file content (SHA-256)
+CREATE TABLE IF NOT EXISTS stored_objects (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    file_url VARCHAR(1000) NOT NULL,
+    file_size BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    last_used_at TIMESTAMP NOT NULL
+);
+
+ALTER TABLE evidence ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE bulletin_media ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- The orphan sweep looks up references by hash
+CREATE INDEX IF NOT EXISTS idx_evidence_content_hash ON evidence(content_hash);
+CREATE INDEX IF NOT EXISTS idx_bulletin_media_content_hash ON bulletin_media(content_hash);
+CREATE INDEX IF NOT EXISTS idx_stored_objects_last_used ON stored_objects(last_used_at);
@@ -0,0 +1,13 @@
+-- Evidence files of submitted incidents until the pipeline has uploaded them (readable by every instance),
+-- one row per chunk so a file is written and read as a stream
+CREATE TABLE IF NOT EXISTS spooled_evidence (
+    id BIGSERIAL PRIMARY KEY,
+    spool_id VARCHAR(255) NOT NULL,
+    seq INTEGER NOT NULL,
+    job_id VARCHAR(255) NOT NULL,
+    content BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_spooled_evidence_chunk UNIQUE (spool_id, seq)
+);
+
+CREATE INDEX IF NOT EXISTS idx_spooled_evidence_job_id ON spooled_evidence(job_id);
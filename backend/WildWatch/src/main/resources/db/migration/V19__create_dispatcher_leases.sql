@@ -0,0 +1,6 @@
+-- Leases that keep single-runner dispatchers (the notification outbox) on one instance at a time
+CREATE TABLE IF NOT EXISTS dispatcher_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(64),
+    lease_until TIMESTAMP NOT NULL
+);
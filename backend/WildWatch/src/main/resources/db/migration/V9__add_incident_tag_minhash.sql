@@ -0,0 +1,2 @@
+-- MinHash signature of the incident's general tags (128 x 32-bit values) for approximate similarity
+ALTER TABLE incidents ADD COLUMN IF NOT EXISTS tag_minhash BYTEA;
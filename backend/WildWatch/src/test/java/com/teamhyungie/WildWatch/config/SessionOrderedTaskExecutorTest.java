@@ -0,0 +1,119 @@
+package com.teamhyungie.WildWatch.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Outbound executor: each session's messages run one at a time in submission order, and a session
+ * stuck on a send does not hold up the others
+ */
+class SessionOrderedTaskExecutorTest {
+
+    private static final int MESSAGES = 2000;
+
+    private final SessionOrderedTaskExecutor executor = new SessionOrderedTaskExecutor(true);
+
+    @BeforeEach
+    void start() {
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdown();
+    }
+
+    @Test
+    void messagesOfASessionRunInSubmissionOrder() throws Exception {
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(MESSAGES * 2);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            int seq = i;
+            executor.execute(task("session-1", () -> {
+                first.add(seq);
+                done.countDown();
+            }));
+            executor.execute(task("session-2", () -> {
+                second.add(seq);
+                done.countDown();
+            }));
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        List<Integer> expected = IntStream.range(0, MESSAGES).boxed().toList();
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+    }
+
+    @Test
+    void stuckSessionDoesNotHoldUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch others = new CountDownLatch(MESSAGES);
+        CountDownLatch stuck = new CountDownLatch(MESSAGES);
+        try {
+            executor.execute(task("stuck", () -> awaitQuietly(release)));
+            for (int i = 0; i < MESSAGES; i++) {
+                executor.execute(task("stuck", stuck::countDown));
+                executor.execute(task("session-" + (i % 10), others::countDown));
+            }
+
+            assertTrue(others.await(10, TimeUnit.SECONDS));
+            assertEquals(MESSAGES, stuck.getCount());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(stuck.await(10, TimeUnit.SECONDS));
+    }
+
+    private static MessageHandlingRunnable task(String sessionId, Runnable body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> {
+                };
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.teamhyungie.WildWatch.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In relay mode /topic messages go through the external broker, so subscribers see both
+ * messages published on this instance and messages another instance sent to the broker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StompBrokerRelayTest {
+
+    private static final String TOPIC = "/topic/relay-test";
+    private static final StubStompBroker broker = StubStompBroker.start();
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("websocket.broker.mode", () -> "relay");
+        registry.add("websocket.broker.relay.host", () -> "127.0.0.1");
+        registry.add("websocket.broker.relay.port", broker::getPort);
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Test
+    void topicMessagesGoThroughTheExternalBroker() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new StringMessageConverter());
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+        try {
+            BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            session.subscribe(TOPIC, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return String.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.add((String) payload);
+                }
+            });
+            awaitSubscriber();
+
+            messagingTemplate.convertAndSend(TOPIC, "from this instance");
+            assertEquals("from this instance", received.poll(10, TimeUnit.SECONDS));
+
+            broker.publish(TOPIC, "from another instance");
+            assertEquals("from another instance", received.poll(10, TimeUnit.SECONDS));
+        } finally {
+            session.disconnect();
+            stompClient.stop();
+        }
+    }
+
+    private void awaitSubscriber() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!broker.hasSubscriber(TOPIC) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(broker.hasSubscriber(TOPIC), "subscription was not relayed to the broker");
+    }
+}
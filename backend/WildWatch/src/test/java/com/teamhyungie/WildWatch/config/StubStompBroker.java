@@ -0,0 +1,216 @@
+package com.teamhyungie.WildWatch.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process STOMP 1.2 broker standing in for ActiveMQ/Artemis in tests:
+ * CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND (fanned out as MESSAGE) and DISCONNECT, no heartbeats.
+ */
+class StubStompBroker implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-stomp-broker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    private StubStompBroker() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    static StubStompBroker start() {
+        try {
+            return new StubStompBroker();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    boolean hasSubscriber(String destination) {
+        return connections.stream().anyMatch(connection -> connection.subscriptions.containsValue(destination));
+    }
+
+    /**
+     * Sends a message as if another backend instance had published it
+     */
+    void publish(String destination, String body) {
+        deliver(destination, "text/plain;charset=UTF-8", body);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                executor.execute(connection::run);
+            } catch (IOException e) {
+                return; // Closed
+            }
+        }
+    }
+
+    private void deliver(String destination, String contentType, String body) {
+        for (Connection connection : connections) {
+            connection.subscriptions.forEach((id, subscribed) -> {
+                if (subscribed.equals(destination)) {
+                    Map<String, String> headers = new LinkedHashMap<>();
+                    headers.put("subscription", id);
+                    headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                    headers.put("destination", destination);
+                    if (contentType != null) {
+                        headers.put("content-type", contentType);
+                    }
+                    connection.write("MESSAGE", headers, body);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        connections.forEach(Connection::close);
+        executor.shutdownNow();
+    }
+
+    private static final class Frame {
+        final String command;
+        final Map<String, String> headers;
+        final String body;
+
+        Frame(String command, Map<String, String> headers, String body) {
+            this.command = command;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final class Connection {
+        final Socket socket;
+        final Map<String, String> subscriptions = new ConcurrentHashMap<>(); // subscription id -> destination
+        private OutputStream out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void run() {
+            try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                out = socket.getOutputStream();
+                Frame frame;
+                while ((frame = read(in)) != null) {
+                    handle(frame);
+                }
+            } catch (IOException ignored) {
+            } finally {
+                connections.remove(this);
+                close();
+            }
+        }
+
+        private void handle(Frame frame) {
+            switch (frame.command) {
+                case "CONNECT", "STOMP" -> write("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), "");
+                case "SUBSCRIBE" -> subscriptions.put(frame.headers.get("id"), frame.headers.get("destination"));
+                case "UNSUBSCRIBE" -> subscriptions.remove(frame.headers.get("id"));
+                case "SEND" -> deliver(frame.headers.get("destination"), frame.headers.get("content-type"), frame.body);
+                default -> {
+                }
+            }
+            String receipt = frame.headers.get("receipt");
+            if (receipt != null) {
+                write("RECEIPT", Map.of("receipt-id", receipt), "");
+            }
+            if ("DISCONNECT".equals(frame.command)) {
+                close();
+            }
+        }
+
+        synchronized void write(String command, Map<String, String> headers, String body) {
+            if (out == null) {
+                return;
+            }
+            byte[] content = body.getBytes(StandardCharsets.UTF_8);
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            frame.append("content-length:").append(content.length).append("\n\n");
+            try {
+                out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+                out.write(content);
+                out.write(0);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        /**
+         * Next frame, skipping heartbeat EOLs; null at end of stream
+         */
+        private Frame read(InputStream in) throws IOException {
+            int b;
+            do {
+                b = in.read();
+            } while (b == '\n' || b == '\r');
+            if (b == -1) {
+                return null;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            while (b != 0) {
+                if (b == -1) {
+                    return null;
+                }
+                buffer.write(b);
+                b = in.read();
+            }
+            String text = buffer.toString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            int headerEnd = text.indexOf("\n\n");
+            String head = headerEnd >= 0 ? text.substring(0, headerEnd) : text;
+            String body = headerEnd >= 0 ? text.substring(headerEnd + 2) : "";
+            String[] lines = head.split("\n");
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+                }
+            }
+            return new Frame(lines[0], headers, body);
+        }
+    }
+}
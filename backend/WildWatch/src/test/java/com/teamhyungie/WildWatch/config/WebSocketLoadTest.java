@@ -0,0 +1,228 @@
+package com.teamhyungie.WildWatch.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fans a burst of broadcasts out to hundreds of SockJS clients and checks that every client gets
+ * every message in publish order and no healthy client is disconnected as a slow consumer; then
+ * stalls one client and checks that it is disconnected once its backlog passes the queue limit,
+ * while the others keep receiving everything in order.
+ *
+ * Opt-in: mvn test -Dtest=WebSocketLoadTest -DloadTests=true [-Dwebsocket.load.clients=300]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadTests", matches = "true")
+class WebSocketLoadTest {
+
+    private static final String TOPIC = "/topic/load-test";
+    private static final String STALL_TOPIC = "/topic/load-test-stall";
+    private static final int CLIENTS = Integer.getInteger("websocket.load.clients", 300);
+    private static final int MESSAGES = Integer.getInteger("websocket.load.messages", 50);
+    private static final int HEALTHY_CLIENTS = 5;
+    // Published in rounds the healthy clients keep up with, until the stalled client's socket
+    // buffers are full and its backlog passes the queue limit
+    private static final int STALL_ROUND = 200;
+    private static final int STALL_MAX_MESSAGES = 20_000;
+    // Below the WebSocket client's 8 KB text buffer once framed
+    private static final String PADDING = "x".repeat(4000);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${websocket.outbound.session-queue-limit}")
+    private int sessionQueueLimit;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    @Qualifier("simpleBrokerMessageHandler")
+    private AbstractBrokerMessageHandler brokerHandler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void burstReachesEveryClient() throws Exception {
+        double slowDisconnectsBefore = slowDisconnects();
+        WebSocketStompClient stompClient = stompClient();
+        CountDownLatch received = new CountDownLatch(CLIENTS * MESSAGES);
+        List<StompSession> sessions = new ArrayList<>();
+        List<List<String>> receivedByClient = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                List<String> frames = Collections.synchronizedList(new ArrayList<>());
+                receivedByClient.add(frames);
+                sessions.add(subscribe(stompClient, TOPIC, payload -> {
+                    frames.add(payload);
+                    received.countDown();
+                }));
+            }
+            awaitSubscriptions(TOPIC, CLIENTS);
+
+            List<String> published = new ArrayList<>();
+            for (int i = 0; i < MESSAGES; i++) {
+                published.add("update " + i);
+                messagingTemplate.convertAndSend(TOPIC, "update " + i);
+            }
+            assertTrue(received.await(60, TimeUnit.SECONDS),
+                    received.getCount() + " of " + CLIENTS * MESSAGES + " frames were not delivered");
+            for (List<String> frames : receivedByClient) {
+                assertEquals(published, frames);
+            }
+            assertEquals(slowDisconnectsBefore, slowDisconnects());
+        } finally {
+            sessions.forEach(StompSession::disconnect);
+            stompClient.stop();
+        }
+    }
+
+    @Test
+    void stalledClientIsDisconnectedWhileTheOthersKeepUp() throws Exception {
+        double slowDisconnectsBefore = slowDisconnects();
+        WebSocketStompClient stompClient = stompClient();
+        CountDownLatch release = new CountDownLatch(1);
+        List<StompSession> sessions = new ArrayList<>();
+        List<List<Integer>> receivedByClient = new ArrayList<>();
+        try {
+            // Blocks the client's reading thread, so the server's sends to it back up
+            sessions.add(subscribe(stompClient, STALL_TOPIC, payload -> awaitQuietly(release)));
+            for (int i = 0; i < HEALTHY_CLIENTS; i++) {
+                List<Integer> frames = Collections.synchronizedList(new ArrayList<>());
+                receivedByClient.add(frames);
+                sessions.add(subscribe(stompClient, STALL_TOPIC,
+                        payload -> frames.add(Integer.parseInt(payload.substring(0, payload.indexOf(' '))))));
+            }
+            awaitSubscriptions(STALL_TOPIC, HEALTHY_CLIENTS + 1);
+
+            int published = 0;
+            while (slowDisconnects() == slowDisconnectsBefore && published < STALL_MAX_MESSAGES) {
+                for (int i = 0; i < STALL_ROUND; i++, published++) {
+                    messagingTemplate.convertAndSend(STALL_TOPIC, published + " " + PADDING);
+                }
+                awaitDelivery(receivedByClient, published);
+            }
+            assertEquals(slowDisconnectsBefore + 1, slowDisconnects(),
+                    "stalled client still connected after " + published + " messages");
+            awaitSubscriptions(STALL_TOPIC, HEALTHY_CLIENTS);
+
+            for (int i = 0; i < STALL_ROUND; i++, published++) {
+                messagingTemplate.convertAndSend(STALL_TOPIC, published + " " + PADDING);
+            }
+            awaitDelivery(receivedByClient, published);
+            List<Integer> expected = IntStream.range(0, published).boxed().toList();
+            for (List<Integer> frames : receivedByClient) {
+                assertEquals(expected, frames);
+            }
+
+            // Waiting messages are counted before they queue, so no session ever held more
+            DistributionSummary queueDepth = meterRegistry.find("websocket.session.outbound.queue.depth").summary();
+            assertNotNull(queueDepth);
+            assertTrue(queueDepth.max() <= sessionQueueLimit, "outbound queue depth " + queueDepth.max());
+        } finally {
+            release.countDown();
+            sessions.forEach(session -> {
+                if (session.isConnected()) {
+                    session.disconnect();
+                }
+            });
+            stompClient.stop();
+        }
+    }
+
+    private WebSocketStompClient stompClient() {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new StringMessageConverter());
+        return stompClient;
+    }
+
+    private StompSession subscribe(WebSocketStompClient stompClient, String topic, Consumer<String> onFrame) throws Exception {
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+        session.subscribe(topic, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onFrame.accept((String) payload);
+            }
+        });
+        return session;
+    }
+
+    private double slowDisconnects() {
+        return meterRegistry.get("websocket.session.slow.disconnects").counter().count();
+    }
+
+    private static void awaitDelivery(List<List<Integer>> receivedByClient, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (receivedByClient.stream().anyMatch(frames -> frames.size() < count)) {
+            assertTrue(System.currentTimeMillis() < deadline, "healthy clients fell behind at " + count + " messages");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitSubscriptions(String topic, int expected) throws InterruptedException {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(topic);
+        Message<byte[]> probe = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        SubscriptionRegistry registry = ((SimpleBrokerMessageHandler) brokerHandler).getSubscriptionRegistry();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (registry.findSubscriptions(probe).size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, registry.findSubscriptions(probe).size());
+    }
+}
@@ -0,0 +1,201 @@
+package com.teamhyungie.WildWatch.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Slow consumers: a session with more messages waiting than the queue limit is closed and the
+ * extra message dropped, and since a session's messages are sent one at a time, a send stuck
+ * longer than the send-time limit must close the session by itself.
+ */
+class WebSocketSessionMonitorTest {
+
+    private static final int QUEUE_LIMIT = 5;
+    private static final long SEND_TIME_LIMIT_MS = 50;
+
+    private final WebSocketSessionMonitor monitor =
+            new WebSocketSessionMonitor(new SimpleMeterRegistry(), QUEUE_LIMIT, SEND_TIME_LIMIT_MS);
+    private final StubSession session = new StubSession("session-1");
+    private Message<byte[]> message;
+
+    @BeforeEach
+    void connect() throws Exception {
+        WebSocketHandler handler = monitor.decorate(new TextWebSocketHandler());
+        handler.afterConnectionEstablished(session);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(session.getId());
+        message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void messagesPastTheQueueLimitAreDroppedAndCloseTheSession() {
+        for (int i = 0; i < QUEUE_LIMIT; i++) {
+            assertSame(message, monitor.preSend(message, null));
+        }
+        assertNull(session.closeStatus);
+
+        assertNull(monitor.preSend(message, null));
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, session.closeStatus);
+    }
+
+    @Test
+    void handledMessagesLeaveTheQueue() {
+        for (int i = 0; i < QUEUE_LIMIT * 3; i++) {
+            monitor.preSend(message, null);
+            monitor.beforeHandle(message, null, null);
+            monitor.afterMessageHandled(message, null, null, null);
+        }
+
+        assertSame(message, monitor.preSend(message, null));
+        assertNull(session.closeStatus);
+    }
+
+    @Test
+    void sendStuckPastTheLimitClosesTheSession() throws Exception {
+        monitor.preSend(message, null);
+        monitor.beforeHandle(message, null, null);
+        Thread.sleep(SEND_TIME_LIMIT_MS * 3);
+
+        monitor.closeStalledSessions();
+
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, session.closeStatus);
+    }
+
+    @Test
+    void finishedSendsDoNotCountAsStalled() throws Exception {
+        monitor.preSend(message, null);
+        monitor.beforeHandle(message, null, null);
+        monitor.afterMessageHandled(message, null, null, null);
+        Thread.sleep(SEND_TIME_LIMIT_MS * 3);
+
+        monitor.closeStalledSessions();
+
+        assertNull(session.closeStatus);
+    }
+
+    @Test
+    void sendWithinTheLimitIsLeftAlone() {
+        monitor.preSend(message, null);
+        monitor.beforeHandle(message, null, null);
+
+        monitor.closeStalledSessions();
+
+        assertNull(session.closeStatus);
+    }
+
+    private static class StubSession implements WebSocketSession {
+        private final String id;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private volatile CloseStatus closeStatus;
+
+        StubSession(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("ws://localhost/ws");
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+        }
+
+        @Override
+        public boolean isOpen() {
+            return closeStatus == null;
+        }
+
+        @Override
+        public void close() {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+            closeStatus = status;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.teamhyungie.WildWatch.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Batch geolocation requests: points keep their order, and incomplete or oversized batches are
+ * rejected before any lookup runs
+ */
+class CoordinateBatchTest {
+
+    @Test
+    void pointsKeepTheirOrder() {
+        CoordinateBatch batch = CoordinateBatch.of(List.of(point(10.29, 123.88), point(10.30, 123.87)), 2);
+
+        assertArrayEquals(new double[]{10.29, 10.30}, batch.latitudes());
+        assertArrayEquals(new double[]{123.88, 123.87}, batch.longitudes());
+    }
+
+    @Test
+    void pointsMissingACoordinateAreRejected() {
+        GeolocationRequest missing = new GeolocationRequest();
+        missing.setLatitude(10.29);
+
+        assertThrows(IllegalArgumentException.class, () -> CoordinateBatch.of(List.of(point(10.29, 123.88), missing), 10));
+        assertThrows(IllegalArgumentException.class, () -> CoordinateBatch.of(Arrays.asList(point(10.29, 123.88), null), 10));
+    }
+
+    @Test
+    void batchesOverTheLimitAreRejected() {
+        List<GeolocationRequest> points = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            points.add(point(10.29, 123.88));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> CoordinateBatch.of(points, 10));
+        CoordinateBatch.of(points.subList(0, 10), 10);
+    }
+
+    private static GeolocationRequest point(double latitude, double longitude) {
+        GeolocationRequest point = new GeolocationRequest();
+        point.setLatitude(latitude);
+        point.setLongitude(longitude);
+        return point;
+    }
+}
@@ -0,0 +1,225 @@
+package com.teamhyungie.WildWatch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Grid lookups against a linear scan over the building boxes: smallest area wins, ties go to the
+ * building declared first, and points in no footprint fall back to CAMPUS_GROUNDS.
+ */
+class BuildingIndexTest {
+
+    private static final Building FALLBACK = Building.CAMPUS_GROUNDS;
+
+    @Test
+    void overlappingBoxesResolveToTheSmallest() {
+        // Inside both LIBRARY and the smaller G_PHYSLAB
+        double lat = 10.2953;
+        double lng = 123.8802;
+        assertTrue(Building.LIBRARY.getBounds().contains(lat, lng));
+        assertTrue(Building.G_PHYSLAB.getBounds().contains(lat, lng));
+
+        assertEquals(Building.G_PHYSLAB, Building.findBuildingByCoordinates(lat, lng));
+    }
+
+    @Test
+    void randomPointsMatchALinearScan() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            double lat = 10.2935 + random.nextDouble() * 0.0045;
+            double lng = 123.8785 + random.nextDouble() * 0.0040;
+            assertEquals(linearScan(lat, lng), Building.findBuildingByCoordinates(lat, lng), lat + "," + lng);
+        }
+    }
+
+    @Test
+    void equalAreasResolveByDeclarationOrder() {
+        double[][] square = box(Building.NGE_BUILDING.getBounds());
+        // Reversed input: the order of the array must not matter, only the declaration order
+        Building[] reversed = Building.values();
+        for (int i = 0, j = reversed.length - 1; i < j; i++, j--) {
+            Building swap = reversed[i];
+            reversed[i] = reversed[j];
+            reversed[j] = swap;
+        }
+        BuildingIndex index = new BuildingIndex(reversed,
+                building -> building == Building.NGE_BUILDING || building == Building.ALLIED_BUILDING ? square : null,
+                FALLBACK);
+
+        Building.LatLngBounds bounds = Building.NGE_BUILDING.getBounds();
+        assertEquals(Building.NGE_BUILDING, index.find(bounds.getCenterLat(), bounds.getCenterLng()));
+    }
+
+    @Test
+    void pointsOnCellBoundariesMatchALinearScan() {
+        double minLat = Double.MAX_VALUE, minLng = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+        for (Building building : buildings()) {
+            Building.LatLngBounds bounds = building.getBounds();
+            minLat = Math.min(minLat, bounds.getSouthWestLat());
+            minLng = Math.min(minLng, bounds.getSouthWestLng());
+            maxLat = Math.max(maxLat, bounds.getNorthEastLat());
+            maxLng = Math.max(maxLng, bounds.getNorthEastLng());
+        }
+        double cellLat = (maxLat - minLat) / BuildingIndex.GRID_SIZE;
+        double cellLng = (maxLng - minLng) / BuildingIndex.GRID_SIZE;
+        for (int row = 0; row <= BuildingIndex.GRID_SIZE; row++) {
+            for (int col = 0; col <= BuildingIndex.GRID_SIZE; col++) {
+                double lat = minLat + row * cellLat;
+                double lng = minLng + col * cellLng;
+                assertEquals(linearScan(lat, lng), Building.findBuildingByCoordinates(lat, lng), lat + "," + lng);
+            }
+        }
+    }
+
+    @Test
+    void pointsOnBuildingEdgesMatchALinearScan() {
+        for (Building building : buildings()) {
+            Building.LatLngBounds bounds = building.getBounds();
+            double[] lats = {bounds.getSouthWestLat(), bounds.getCenterLat(), bounds.getNorthEastLat()};
+            double[] lngs = {bounds.getSouthWestLng(), bounds.getCenterLng(), bounds.getNorthEastLng()};
+            for (double lat : lats) {
+                for (double lng : lngs) {
+                    Building found = Building.findBuildingByCoordinates(lat, lng);
+                    assertEquals(linearScan(lat, lng), found, building + " at " + lat + "," + lng);
+                    assertNotEquals(FALLBACK, found, building + " at " + lat + "," + lng);
+                }
+            }
+        }
+    }
+
+    @Test
+    void outerEdgeOfTheGridStillFindsTheBuilding() {
+        Building northernmost = buildings().get(0);
+        Building easternmost = buildings().get(0);
+        for (Building building : buildings()) {
+            if (building.getBounds().getNorthEastLat() > northernmost.getBounds().getNorthEastLat()) {
+                northernmost = building;
+            }
+            if (building.getBounds().getNorthEastLng() > easternmost.getBounds().getNorthEastLng()) {
+                easternmost = building;
+            }
+        }
+        Building.LatLngBounds north = northernmost.getBounds();
+        Building.LatLngBounds east = easternmost.getBounds();
+
+        assertEquals(northernmost, Building.findBuildingByCoordinates(north.getNorthEastLat(), north.getCenterLng()));
+        assertEquals(easternmost, Building.findBuildingByCoordinates(east.getCenterLat(), east.getNorthEastLng()));
+        // Just past the edge
+        assertEquals(FALLBACK, Building.findBuildingByCoordinates(north.getNorthEastLat() + 1e-7, north.getCenterLng()));
+        assertEquals(FALLBACK, Building.findBuildingByCoordinates(east.getCenterLat(), east.getNorthEastLng() + 1e-7));
+    }
+
+    @Test
+    void pointsOutsideEveryBuildingFallBackToCampusGrounds() {
+        Building.LatLngBounds grounds = FALLBACK.getBounds();
+        // On campus, but north-east of every building
+        assertEquals(FALLBACK, linearScan(grounds.getNorthEastLat(), grounds.getNorthEastLng()));
+        assertEquals(FALLBACK, Building.findBuildingByCoordinates(grounds.getNorthEastLat(), grounds.getNorthEastLng()));
+        // Off campus
+        assertEquals(FALLBACK, Building.findBuildingByCoordinates(0, 0));
+        assertEquals(FALLBACK, Building.findBuildingByCoordinates(Double.NaN, Double.NaN));
+    }
+
+    @Test
+    void polygonFootprintsExcludeTheRestOfTheirBoundingBox() {
+        Building.LatLngBounds bounds = Building.NGE_BUILDING.getBounds();
+        // Right triangle on the south-west half of the NGE box
+        double[][] triangle = {
+                {bounds.getSouthWestLat(), bounds.getSouthWestLng()},
+                {bounds.getSouthWestLat(), bounds.getNorthEastLng()},
+                {bounds.getNorthEastLat(), bounds.getSouthWestLng()}
+        };
+        Building.LatLngBounds around = Building.LatLngBounds.around(triangle);
+        assertEquals(bounds.getSouthWestLat(), around.getSouthWestLat());
+        assertEquals(bounds.getNorthEastLng(), around.getNorthEastLng());
+
+        BuildingIndex index = new BuildingIndex(Building.values(),
+                building -> building == Building.NGE_BUILDING ? triangle : null, FALLBACK);
+        double dLat = bounds.getNorthEastLat() - bounds.getSouthWestLat();
+        double dLng = bounds.getNorthEastLng() - bounds.getSouthWestLng();
+        double insideLat = bounds.getSouthWestLat() + dLat * 0.2;
+        double insideLng = bounds.getSouthWestLng() + dLng * 0.2;
+        double outsideLat = bounds.getSouthWestLat() + dLat * 0.9;
+        double outsideLng = bounds.getSouthWestLng() + dLng * 0.9;
+
+        assertEquals(Building.NGE_BUILDING, index.find(insideLat, insideLng));
+        assertEquals(FALLBACK, index.find(outsideLat, outsideLng));
+        assertTrue(index.contains(Building.NGE_BUILDING, insideLat, insideLng));
+        assertFalse(index.contains(Building.NGE_BUILDING, outsideLat, outsideLng));
+    }
+
+    @Test
+    void batchLookupMatchesSingleLookupsInInputOrder() {
+        Random random = new Random(7);
+        double[] lats = new double[500];
+        double[] lngs = new double[500];
+        for (int i = 0; i < lats.length; i++) {
+            lats[i] = 10.2935 + random.nextDouble() * 0.0045;
+            lngs[i] = 123.8785 + random.nextDouble() * 0.0040;
+        }
+        Building[] expected = new Building[lats.length];
+        for (int i = 0; i < lats.length; i++) {
+            expected[i] = Building.findBuildingByCoordinates(lats[i], lngs[i]);
+        }
+
+        assertArrayEquals(expected, Building.findBuildingsByCoordinates(lats, lngs));
+        assertEquals(0, Building.findBuildingsByCoordinates(new double[0], new double[0]).length);
+    }
+
+    @Test
+    void batchLookupRejectsMismatchedOrMissingInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Building.findBuildingsByCoordinates(new double[2], new double[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> Building.findBuildingsByCoordinates(null, new double[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> Building.findBuildingsByCoordinates(new double[1], null));
+    }
+
+    /**
+     * Reference: smallest box containing the point, the first declared on equal area
+     */
+    private static Building linearScan(double lat, double lng) {
+        Building best = FALLBACK;
+        double bestArea = Double.MAX_VALUE;
+        for (Building building : buildings()) {
+            Building.LatLngBounds bounds = building.getBounds();
+            double area = (bounds.getNorthEastLat() - bounds.getSouthWestLat())
+                    * (bounds.getNorthEastLng() - bounds.getSouthWestLng());
+            if (bounds.contains(lat, lng) && area < bestArea) {
+                best = building;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+
+    private static List<Building> buildings() {
+        List<Building> buildings = new ArrayList<>();
+        for (Building building : Building.values()) {
+            if (building != FALLBACK) {
+                buildings.add(building);
+            }
+        }
+        return buildings;
+    }
+
+    private static double[][] box(Building.LatLngBounds bounds) {
+        return new double[][]{
+                {bounds.getSouthWestLat(), bounds.getSouthWestLng()},
+                {bounds.getSouthWestLat(), bounds.getNorthEastLng()},
+                {bounds.getNorthEastLat(), bounds.getNorthEastLng()},
+                {bounds.getNorthEastLat(), bounds.getSouthWestLng()}
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.teamhyungie.WildWatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * JMH comparison of {@link CampusGeometry} with the per-call polygon and ray casting that
+ * GeolocationService used before. Points are GPS fixes around campus, about a fifth of them
+ * inside the boundary.
+ *
+ * Not picked up by a plain "mvn test"; run it with
+ * mvn test -Dtest=CampusGeometryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CampusGeometryBenchmark {
+
+    private static final int POINTS = 1024;
+
+    private CampusGeometry geometry;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        geometry = new CampusGeometry("");
+        Random random = new Random(42);
+        latitudes = new double[POINTS];
+        longitudes = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = 10.2930 + random.nextDouble() * 0.0055;
+            longitudes[i] = 123.8780 + random.nextDouble() * 0.0050;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void previous(Blackhole blackhole) {
+        for (int i = 0; i < POINTS; i++) {
+            blackhole.consume(previousIsWithinCampusBounds(latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void compiled(Blackhole blackhole) {
+        for (int i = 0; i < POINTS; i++) {
+            blackhole.consume(geometry.contains(latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public boolean[] batch() {
+        return geometry.contains(latitudes, longitudes);
+    }
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        setUp();
+        for (int i = 0; i < POINTS; i++) {
+            assertEquals(previousIsWithinCampusBounds(latitudes[i], longitudes[i]),
+                    geometry.contains(latitudes[i], longitudes[i]),
+                    "Point " + latitudes[i] + ", " + longitudes[i]);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(CampusGeometryBenchmark.class.getName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * GeolocationService.isWithinCampusBounds as it was: builds the polygon on every call and
+     * ray casts without a bounding-box reject
+     */
+    private static Boolean previousIsWithinCampusBounds(Double latitude, Double longitude) {
+        double[][] campusPolygon = {
+            {10.297153610508257, 123.87918444217755},
+            {10.296456911339208, 123.87927563728236},
+            {10.294170119974705, 123.87994394768552},
+            {10.294352090572659, 123.88092281728376},
+            {10.294005902515728, 123.88106265579779},
+            {10.294409788545215, 123.88163103169356},
+            {10.29469827824969, 123.88147766042012},
+            {10.295665826408769, 123.8817528265405},
+            {10.296078586876392, 123.88089575177703},
+            {10.296504661645105, 123.88083259889503},
+            {10.296642248161724, 123.88048525806984},
+            {10.297476642525188, 123.88037699599445},
+            {10.29752546340363, 123.88003416608909},
+            {10.29725472934614, 123.87993943677313}
+        };
+
+        int i, j;
+        boolean inside = false;
+        for (i = 0, j = campusPolygon.length - 1; i < campusPolygon.length; j = i++) {
+            if (((campusPolygon[i][0] > latitude) != (campusPolygon[j][0] > latitude)) &&
+                (longitude < (campusPolygon[j][1] - campusPolygon[i][1]) * (latitude - campusPolygon[i][0])
+                        / (campusPolygon[j][0] - campusPolygon[i][0]) + campusPolygon[i][1])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
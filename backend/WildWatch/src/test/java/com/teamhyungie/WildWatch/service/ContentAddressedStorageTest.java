@@ -0,0 +1,190 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.teamhyungie.WildWatch.model.StoredObject;
+import com.teamhyungie.WildWatch.repository.StoredObjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Content-addressed storage against the stored_objects table and a local stand-in for the
+ * Supabase storage object API: reuse, partial failures and the orphan sweep
+ */
+@SpringBootTest(properties = "storage.dedup.orphan-grace-hours=1000000")
+class ContentAddressedStorageTest {
+
+    private static final String OBJECT_PATH = "/storage/v1/object/wildwatch-uploads/";
+    // Rows aged past this are swept by the storage under test; the application's own sweep uses a far older cutoff
+    private static final long GRACE_HOURS = 24L * 365 * 10;
+
+    @Autowired
+    private StoredObjectRepository objectRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpServer server;
+    private SupabaseStorageService storageService;
+    private ContentAddressedStorage storage;
+    private final List<String> uploaded = new CopyOnWriteArrayList<>();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+    private final List<String> hashes = new ArrayList<>();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(OBJECT_PATH, this::handle);
+        server.start();
+        storageService = new SupabaseStorageService(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test-key", 4, 8, 2000, 5000);
+        storage = new ContentAddressedStorage(storageService, objectRepository, transactionManager,
+                new SimpleMeterRegistry(), GRACE_HOURS);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        objectRepository.deleteAllById(hashes);
+        storageService.shutdown();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String objectName = exchange.getRequestURI().getPath().substring(OBJECT_PATH.length());
+        exchange.getRequestBody().readAllBytes();
+        int status = 200;
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            deleted.add(objectName);
+        } else if (objectName.endsWith("_broken.txt")) {
+            status = 400;
+        } else {
+            uploaded.add(objectName);
+        }
+        byte[] bytes = (status == 200 ? "{\"Key\":\"" + objectName + "\"}" : "{\"error\":\"rejected\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void sameContentIsUploadedOnceAndReusedWithATouch() throws IOException {
+        String content = "photo " + UUID.randomUUID();
+        StoredObject first = storage.store(List.of(upload("first.jpg", content))).get(0);
+        hashes.add(first.getContentHash());
+        assertEquals(hash(content), first.getContentHash());
+        assertEquals(1, uploaded.size());
+        age(first.getContentHash(), LocalDateTime.now(APP_TIMEZONE).minusDays(3));
+
+        StoredObject second = storage.store(List.of(upload("copy.jpg", content))).get(0);
+
+        assertEquals(1, uploaded.size(), "the same content must not be uploaded twice");
+        assertEquals(first.getFileUrl(), second.getFileUrl());
+        StoredObject indexed = objectRepository.findById(first.getContentHash()).orElseThrow();
+        assertTrue(indexed.getLastUsedAt().isAfter(LocalDateTime.now(APP_TIMEZONE).minusHours(1)),
+                "reuse touches the object: " + indexed.getLastUsedAt());
+    }
+
+    @Test
+    void objectNamesDoNotRevealTheContentHash() throws IOException {
+        String content = "photo " + UUID.randomUUID();
+        StoredObject object = storage.store(List.of(upload("photo.jpg", content))).get(0);
+        hashes.add(object.getContentHash());
+
+        assertFalse(object.getFileUrl().contains(object.getContentHash()), object.getFileUrl());
+        assertFalse(uploaded.get(0).contains(object.getContentHash()), uploaded.get(0));
+    }
+
+    @Test
+    void filesStoredBeforeAFailureInTheBatchAreIndexed() throws IOException {
+        String good = "good " + UUID.randomUUID();
+        String bad = "bad " + UUID.randomUUID();
+        hashes.add(hash(good));
+        hashes.add(hash(bad));
+
+        List<ContentAddressedStorage.Outcome> outcomes = storage.storeEach(
+                List.of(upload("good.jpg", good), upload("broken.txt", bad)), null);
+
+        assertTrue(outcomes.get(0).succeeded());
+        assertFalse(outcomes.get(1).succeeded());
+        StoredObject indexed = objectRepository.findById(hash(good)).orElseThrow();
+        assertEquals(outcomes.get(0).object().getFileUrl(), indexed.getFileUrl());
+        assertTrue(objectRepository.findById(hash(bad)).isEmpty());
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void sweepDeletesObjectsUnusedPastTheGracePeriodOnly() throws IOException {
+        String stale = "stale " + UUID.randomUUID();
+        String recent = "recent " + UUID.randomUUID();
+        StoredObject staleObject = storage.store(List.of(upload("stale.jpg", stale))).get(0);
+        StoredObject recentObject = storage.store(List.of(upload("recent.jpg", recent))).get(0);
+        hashes.add(staleObject.getContentHash());
+        hashes.add(recentObject.getContentHash());
+        age(staleObject.getContentHash(), LocalDateTime.now(APP_TIMEZONE).minusHours(GRACE_HOURS + 24));
+
+        storage.sweepUnreferenced();
+
+        assertTrue(objectRepository.findById(staleObject.getContentHash()).isEmpty());
+        assertTrue(objectRepository.findById(recentObject.getContentHash()).isPresent());
+        assertEquals(List.of(objectName(staleObject.getFileUrl())), deleted);
+    }
+
+    @Test
+    void contentStoredAgainAfterASweepGetsANewObjectTheSweepLeavesAlone() throws IOException {
+        String content = "photo " + UUID.randomUUID();
+        StoredObject swept = storage.store(List.of(upload("photo.jpg", content))).get(0);
+        hashes.add(swept.getContentHash());
+        age(swept.getContentHash(), LocalDateTime.now(APP_TIMEZONE).minusHours(GRACE_HOURS + 24));
+        storage.sweepUnreferenced();
+
+        StoredObject fresh = storage.store(List.of(upload("photo.jpg", content))).get(0);
+        storage.sweepUnreferenced();
+
+        assertNotEquals(swept.getFileUrl(), fresh.getFileUrl());
+        assertEquals(List.of(objectName(swept.getFileUrl())), deleted);
+        assertEquals(fresh.getFileUrl(), objectRepository.findById(fresh.getContentHash()).orElseThrow().getFileUrl());
+    }
+
+    private void age(String hash, LocalDateTime lastUsedAt) {
+        StoredObject object = objectRepository.findById(hash).orElseThrow();
+        object.setLastUsedAt(lastUsedAt);
+        objectRepository.save(object);
+    }
+
+    private static SupabaseStorageService.Upload upload(String name, String content) {
+        ByteArrayResource resource = new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+        return new SupabaseStorageService.Upload(name, "text/plain", resource);
+    }
+
+    private static String hash(String content) throws IOException {
+        return ContentAddressedStorage.sha256(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String objectName(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.dto.IncidentJobPayload;
+import com.teamhyungie.WildWatch.model.IncidentJob;
+import com.teamhyungie.WildWatch.repository.IncidentJobRepository;
+import com.teamhyungie.WildWatch.repository.SpooledEvidenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Chunked evidence spool against the spooled_evidence table: files come back byte for byte,
+ * hashed while written, a spool with a missing chunk fails instead of uploading a short file, and
+ * files left by finished jobs are swept after the retention period
+ */
+@SpringBootTest
+@Transactional
+class EvidenceSpoolTest {
+
+    private static final int CHUNK_BYTES = 1000;
+    private static final long RETENTION_HOURS = 24;
+
+    @Autowired
+    private SpooledEvidenceRepository repository;
+    @Autowired
+    private IncidentJobRepository jobRepository;
+
+    private EvidenceSpool spool() {
+        return new EvidenceSpool(repository, CHUNK_BYTES, RETENTION_HOURS);
+    }
+
+    @Test
+    void filesAreSpooledInChunksAndReadBackWhole() throws IOException {
+        byte[] content = new byte[CHUNK_BYTES * 3 + 17];
+        new Random(3).nextBytes(content);
+        EvidenceSpool spool = spool();
+
+        IncidentJobPayload.SpooledFile file = spool.write("job-1", new MockMultipartFile("files", "photo.jpg", "image/jpeg", content));
+
+        assertEquals(content.length, file.getSize());
+        assertEquals(ContentAddressedStorage.sha256(new ByteArrayInputStream(content)), file.getContentHash());
+        assertNotNull(repository.findChunk(file.getSpoolId(), 3));
+        assertNull(repository.findChunk(file.getSpoolId(), 4));
+        try (InputStream in = spool.read(file).getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        // Every stream opened on the resource starts over
+        try (InputStream in = spool.read(file).getInputStream()) {
+            assertEquals(content[0] & 0xff, in.read());
+        }
+    }
+
+    @Test
+    void emptyFilesAreSpooledToo() throws IOException {
+        EvidenceSpool spool = spool();
+
+        IncidentJobPayload.SpooledFile file = spool.write("job-1", new MockMultipartFile("files", "empty.txt", "text/plain", new byte[0]));
+
+        try (InputStream in = spool.read(file).getInputStream()) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void missingSpoolsAndChunksFail() throws IOException {
+        EvidenceSpool spool = spool();
+        IncidentJobPayload.SpooledFile file = spool.write("job-1",
+                new MockMultipartFile("files", "photo.jpg", "image/jpeg", new byte[CHUNK_BYTES * 2]));
+        // A spool claiming more bytes than it holds ends early
+        file.setSize(CHUNK_BYTES * 3);
+        try (InputStream in = spool.read(file).getInputStream()) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+
+        spool.delete(List.of(file.getSpoolId()));
+
+        assertThrows(IllegalStateException.class, () -> spool.read(file));
+    }
+
+    @Test
+    void sweepDeletesFilesOfJobsFinishedBeforeTheRetentionPeriodOnly() {
+        EvidenceSpool spool = spool();
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+        IncidentJobPayload.SpooledFile expired = spooledFor(spool, job(IncidentJob.Status.DONE, now.minusHours(RETENTION_HOURS + 1)));
+        IncidentJobPayload.SpooledFile recent = spooledFor(spool, job(IncidentJob.Status.DONE, now.minusHours(1)));
+        IncidentJobPayload.SpooledFile running = spooledFor(spool, job(IncidentJob.Status.PENDING, now.minusHours(RETENTION_HOURS + 1)));
+
+        spool.sweepFinishedJobs();
+
+        assertFalse(repository.existsBySpoolId(expired.getSpoolId()));
+        assertTrue(repository.existsBySpoolId(recent.getSpoolId()));
+        assertTrue(repository.existsBySpoolId(running.getSpoolId()));
+    }
+
+    private IncidentJob job(IncidentJob.Status status, LocalDateTime updatedAt) {
+        IncidentJob job = new IncidentJob();
+        job.setIncidentId("spool-test-incident");
+        job.setIdempotencyKey(UUID.randomUUID().toString());
+        job.setStatus(status);
+        job.setUpdatedAt(updatedAt);
+        return jobRepository.saveAndFlush(job);
+    }
+
+    private static IncidentJobPayload.SpooledFile spooledFor(EvidenceSpool spool, IncidentJob job) {
+        return spool.write(job.getId(), new MockMultipartFile("files", "photo.jpg", "image/jpeg", new byte[10]));
+    }
+}
@@ -0,0 +1,193 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GeminiClient against a local stub of the generateContent endpoint
+ */
+class GeminiClientTest {
+
+    private HttpServer server;
+    private final Map<String, ModelStub> models = new ConcurrentHashMap<>();
+
+    /**
+     * How the stub answers for one model
+     */
+    private static class ModelStub {
+        volatile int status = 200;
+        volatile long delayMillis = 0;
+        volatile String text;
+        final AtomicInteger calls = new AtomicInteger();
+
+        ModelStub(String text) {
+            this.text = text;
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1beta/models/", this::handle);
+        server.start();
+        models.put(GeminiClient.FLASH, new ModelStub("flash answer"));
+        models.put(GeminiClient.PRO, new ModelStub("pro answer"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String model = path.substring(path.lastIndexOf('/') + 1, path.indexOf(":generateContent"));
+        ModelStub stub = models.get(model);
+        stub.calls.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(stub.delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String body = stub.status == 200
+                ? "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\" " + stub.text + " \"}],\"role\":\"model\"},"
+                + "\"finishReason\":\"STOP\"}],\"usageMetadata\":{\"totalTokenCount\":12}}"
+                : "{\"error\":{\"code\":" + stub.status + "}}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(stub.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private GeminiClient client(boolean hedge, long hedgeMinDelayMillis) {
+        return client(hedge, hedgeMinDelayMillis, 10_000);
+    }
+
+    private GeminiClient client(boolean hedge, long hedgeMinDelayMillis, long callTimeoutMillis) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta";
+        return new GeminiClient("test-key", baseUrl, 1000, 5000, callTimeoutMillis, 3, 60_000, hedge, hedgeMinDelayMillis);
+    }
+
+    @Test
+    void parsesTextFromPrimaryModel() {
+        GeminiClient.Response response = client(false, 0)
+                .generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", Map.of("temperature", 0.0));
+
+        assertEquals("flash answer", response.getText());
+        assertEquals(GeminiClient.FLASH, response.getModel());
+        assertEquals("STOP", response.getFinishReason());
+        assertEquals(0, models.get(GeminiClient.PRO).calls.get());
+    }
+
+    @Test
+    void fallsBackWhenPrimaryFails() {
+        models.get(GeminiClient.FLASH).status = 503;
+
+        GeminiClient.Response response = client(false, 0)
+                .generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null);
+
+        assertEquals("pro answer", response.getText());
+    }
+
+    @Test
+    void openCircuitSkipsFailingModel() {
+        models.get(GeminiClient.FLASH).status = 500;
+        GeminiClient client = client(false, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("pro answer", client.generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null).getText());
+        }
+
+        // Threshold is 3: the remaining calls go straight to the fallback
+        assertEquals(3, models.get(GeminiClient.FLASH).calls.get());
+        assertEquals(5, models.get(GeminiClient.PRO).calls.get());
+    }
+
+    @Test
+    void throwsWhenBothModelsFail() {
+        models.get(GeminiClient.FLASH).status = 500;
+        models.get(GeminiClient.PRO).status = 429;
+
+        assertThrows(GeminiClient.GeminiException.class,
+                () -> client(false, 0).generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null));
+    }
+
+    @Test
+    void hedgedRequestReturnsFasterFallback() {
+        models.get(GeminiClient.FLASH).delayMillis = 3000;
+
+        long start = System.nanoTime();
+        GeminiClient.Response response = client(true, 100)
+                .generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("pro answer", response.getText());
+        assertTrue(elapsedMillis < 2000, "hedged call took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void hedgedRequestPrefersPrimaryWhenItIsFast() {
+        GeminiClient.Response response = client(true, 1000)
+                .generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null);
+
+        assertEquals("flash answer", response.getText());
+        assertEquals(0, models.get(GeminiClient.PRO).calls.get());
+    }
+
+    @Test
+    void deadlineStopsTheCallWithoutTryingTheFallback() {
+        models.get(GeminiClient.FLASH).delayMillis = 3000;
+
+        long start = System.nanoTime();
+        assertThrows(GeminiClient.DeadlineException.class,
+                () -> client(false, 0, 300).generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 2000, "call took " + elapsedMillis + " ms");
+        assertEquals(0, models.get(GeminiClient.PRO).calls.get());
+    }
+
+    @Test
+    void interruptFreesTheCallingThread() throws InterruptedException {
+        models.get(GeminiClient.FLASH).delayMillis = 3000;
+        models.get(GeminiClient.PRO).delayMillis = 3000;
+        GeminiClient client = client(false, 0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // What AiExecutor's future.cancel(true) does to the worker thread at its deadline
+        Thread caller = new Thread(() -> {
+            try {
+                client.generate(GeminiClient.FLASH, GeminiClient.PRO, "prompt", null);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        Thread.sleep(200);
+        caller.interrupt();
+        caller.join(1000);
+
+        assertFalse(caller.isAlive(), "interrupted call kept its thread");
+        assertInstanceOf(GeminiClient.DeadlineException.class, failure.get());
+        assertEquals(0, models.get(GeminiClient.PRO).calls.get());
+    }
+}
@@ -0,0 +1,56 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.IncidentJob;
+import com.teamhyungie.WildWatch.repository.IncidentJobRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Incident job leases: once a lease runs out and the job is claimed again, the first worker can
+ * neither renew the lease nor run the job any further
+ */
+@SpringBootTest(properties = "incident.pipeline.poll-ms=3600000")
+@Transactional
+class IncidentJobLeaseTest {
+
+    @Autowired
+    private IncidentJobRepository jobRepository;
+    @Autowired
+    private IncidentPipelineService pipelineService;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void expiredClaimLosesTheJobToTheNextClaim() {
+        IncidentJob job = new IncidentJob();
+        job.setIncidentId("lease-test-incident");
+        job.setIdempotencyKey(UUID.randomUUID().toString());
+        job = jobRepository.saveAndFlush(job);
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE);
+
+        assertEquals(1, jobRepository.claim(job.getId(), "first", now.minusSeconds(1)));
+        assertEquals(1, jobRepository.releaseExpired(now));
+        assertEquals(1, jobRepository.claim(job.getId(), "second", now.plusMinutes(5)));
+
+        assertEquals(0, jobRepository.renewLease(job.getId(), "first", now.plusMinutes(5)));
+        assertEquals(1, jobRepository.renewLease(job.getId(), "second", now.plusMinutes(10)));
+
+        pipelineService.process(job.getId(), "first");
+
+        entityManager.clear();
+        IncidentJob current = jobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(IncidentJob.Stage.GEOCODE, current.getStage());
+        assertEquals(IncidentJob.Status.RUNNING, current.getStatus());
+        assertEquals("second", current.getLeaseOwner());
+        assertEquals(2, current.getAttempts());
+    }
+}
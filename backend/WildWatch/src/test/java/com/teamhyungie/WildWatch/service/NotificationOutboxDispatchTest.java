@@ -0,0 +1,183 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamhyungie.WildWatch.model.OutboxNotification;
+import com.teamhyungie.WildWatch.repository.DispatcherLeaseRepository;
+import com.teamhyungie.WildWatch.repository.OutboxNotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two outbox dispatchers (as on two instances) draining the same notification_outbox rows:
+ * each row is sent once, and each user still gets their messages in the order they were written,
+ * even where an instance with a higher id block wrote first. A message that cannot be sent is
+ * retried and then given up on, holding up neither its user's later messages for good nor anyone
+ * else's.
+ */
+@SpringBootTest(properties = "notification.outbox.poll-ms=3600000")
+class NotificationOutboxDispatchTest {
+
+    private static final String DESTINATION = "/topic/outbox-dispatch-test/";
+    private static final int USERS = 5;
+    private static final int MESSAGES = 400;
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+    @Autowired
+    private DispatcherLeaseRepository leaseRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Message<?>> sent = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> ids = new ArrayList<>();
+    private final List<NotificationOutboxService> dispatchers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        for (NotificationOutboxService dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+        outboxRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void twoDispatchersSendEachRowOnceInOrder() throws Exception {
+        // The rows saved last get the higher ids but were written first, as if by another instance
+        LocalDateTime writtenAt = LocalDateTime.now(APP_TIMEZONE).minusMinutes(1);
+        List<OutboxNotification> rows = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            int seq = (i + MESSAGES / 2) % MESSAGES;
+            OutboxNotification row = new OutboxNotification();
+            row.setUserId((long) (i % USERS));
+            row.setDestination(DESTINATION + (i % USERS));
+            row.setPayload("{\"seq\":" + seq + "}");
+            row.setCreatedAt(writtenAt.plusNanos(seq * 1000L));
+            rows.add(row);
+        }
+        outboxRepository.saveAll(rows).forEach(row -> ids.add(row.getId()));
+
+        NotificationOutboxService first = dispatcher();
+        NotificationOutboxService second = dispatcher();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!allDispatched() && System.currentTimeMillis() < deadline) {
+            first.poll();
+            second.poll();
+            Thread.sleep(10);
+        }
+        assertTrue(allDispatched(), "outbox was not drained");
+
+        Map<String, List<Integer>> seqByDestination = new HashMap<>();
+        Set<Integer> seen = new HashSet<>();
+        synchronized (sent) {
+            for (Message<?> message : sent) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (destination == null || !destination.startsWith(DESTINATION)) {
+                    continue;
+                }
+                int seq = objectMapper.readTree((byte[]) message.getPayload()).get("seq").asInt();
+                assertTrue(seen.add(seq), "message " + seq + " was sent twice");
+                seqByDestination.computeIfAbsent(destination, key -> new ArrayList<>()).add(seq);
+            }
+        }
+        assertEquals(MESSAGES, seen.size());
+        for (List<Integer> seqs : seqByDestination.values()) {
+            List<Integer> ordered = new ArrayList<>(seqs);
+            Collections.sort(ordered);
+            assertEquals(ordered, seqs);
+        }
+    }
+
+    @Test
+    void failingMessagesAreGivenUpWithoutBlockingTheOutbox() throws Exception {
+        List<OutboxNotification> rows = new ArrayList<>();
+        // A full batch of messages that always fail, each ahead of a message to the same user
+        LocalDateTime writtenAt = LocalDateTime.now(APP_TIMEZONE).minusMinutes(1);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            rows.add(row((long) i, DESTINATION + "poison", i, writtenAt.plusNanos(i * 1000L)));
+            rows.add(row((long) i, DESTINATION + i, i, writtenAt.plusNanos((BATCH_SIZE + i) * 1000L)));
+        }
+        outboxRepository.saveAll(rows).forEach(row -> ids.add(row.getId()));
+
+        NotificationOutboxService dispatcher = dispatcher();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!allDispatchedOrFailed() && System.currentTimeMillis() < deadline) {
+            dispatcher.poll();
+            Thread.sleep(10);
+        }
+        assertTrue(allDispatchedOrFailed(), "outbox was not drained");
+
+        for (OutboxNotification row : outboxRepository.findAllById(ids)) {
+            if (row.getDestination().endsWith("poison")) {
+                assertNotNull(row.getFailedAt());
+                assertNull(row.getDispatchedAt());
+                assertEquals(MAX_ATTEMPTS, row.getAttempts());
+                assertNotNull(row.getLastError());
+            } else {
+                assertNotNull(row.getDispatchedAt());
+            }
+        }
+        synchronized (sent) {
+            assertEquals(BATCH_SIZE, sent.stream()
+                    .filter(message -> String.valueOf(SimpMessageHeaderAccessor.getDestination(message.getHeaders())).startsWith(DESTINATION))
+                    .count());
+        }
+    }
+
+    private static OutboxNotification row(Long userId, String destination, int seq, LocalDateTime createdAt) {
+        OutboxNotification row = new OutboxNotification();
+        row.setUserId(userId);
+        row.setDestination(destination);
+        row.setPayload("{\"seq\":" + seq + "}");
+        row.setCreatedAt(createdAt);
+        return row;
+    }
+
+    private NotificationOutboxService dispatcher() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (destination != null && destination.endsWith("poison")) {
+                throw new MessageDeliveryException(message, "broker rejected " + destination);
+            }
+            return sent.add(message);
+        });
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        NotificationOutboxService dispatcher = new NotificationOutboxService(outboxRepository, leaseRepository,
+                template, objectMapper, new SimpleMeterRegistry(), BATCH_SIZE, 24, 30_000, MAX_ATTEMPTS, 10);
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private boolean allDispatchedOrFailed() {
+        return outboxRepository.findAllById(ids).stream()
+                .allMatch(row -> row.getDispatchedAt() != null || row.getFailedAt() != null);
+    }
+
+    private boolean allDispatched() {
+        return outboxRepository.findAllById(ids).stream().allMatch(row -> row.getDispatchedAt() != null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.model.ActivityLog;
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.ActivityLogRepository;
+import com.teamhyungie.WildWatch.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static com.teamhyungie.WildWatch.config.TimezoneConfig.APP_TIMEZONE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * "Mark all as read" covers the logs the user could have seen: the watermark stops at the newest
+ * committed log, so a log committed afterwards with an earlier time stays unread
+ */
+@SpringBootTest
+@Transactional
+class NotificationReadMarkTest {
+
+    @Autowired
+    private NotificationReadMarkService readMarkService;
+    @Autowired
+    private ActivityLogService activityLogService;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void watermarkStopsAtTheNewestCommittedLog() {
+        User user = saveUser();
+        LocalDateTime now = LocalDateTime.now(APP_TIMEZONE).truncatedTo(ChronoUnit.MILLIS);
+        saveLog(user, now.minusMinutes(1));
+
+        assertEquals(now.minusMinutes(1), readMarkService.markActivityLogsRead(user));
+
+        // Written before the user marked everything read, committed after
+        saveLog(user, now.minusSeconds(30));
+        assertEquals(1, activityLogService.countUnread(user));
+    }
+
+    @Test
+    void watermarkDoesNotMoveWithoutNewLogs() {
+        User user = saveUser();
+
+        assertEquals(NotificationReadMarkService.NEVER, readMarkService.markActivityLogsRead(user));
+    }
+
+    private User saveUser() {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("read.mark@cit.edu");
+        user.setSchoolIdNumber("00-0000-003");
+        user.setPassword("password123");
+        user.setContactNumber("09171234567");
+        return userRepository.save(user);
+    }
+
+    private void saveLog(User user, LocalDateTime createdAt) {
+        ActivityLog log = new ActivityLog();
+        log.setActivityType("STATUS_CHANGE");
+        log.setDescription("Status changed");
+        log.setUser(user);
+        log.setCreatedAt(createdAt);
+        activityLogRepository.saveAndFlush(log);
+    }
+}
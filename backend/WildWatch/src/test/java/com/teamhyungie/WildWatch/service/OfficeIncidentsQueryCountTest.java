@@ -0,0 +1,145 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.dto.IncidentResponse;
+import com.teamhyungie.WildWatch.model.Incident;
+import com.teamhyungie.WildWatch.model.IncidentUpdate;
+import com.teamhyungie.WildWatch.model.Office;
+import com.teamhyungie.WildWatch.model.OfficeAdmin;
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.IncidentRepository;
+import com.teamhyungie.WildWatch.repository.IncidentUpdateRepository;
+import com.teamhyungie.WildWatch.repository.OfficeAdminRepository;
+import com.teamhyungie.WildWatch.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The office dashboard must be served by a constant number of SQL statements,
+ * regardless of how many incidents the office has, and only incidents that are currently
+ * Resolved or Dismissed have a finished date.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OfficeIncidentsQueryCountTest {
+
+    @Autowired
+    private IncidentService incidentService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OfficeAdminRepository officeAdminRepository;
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private IncidentUpdateRepository incidentUpdateRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void officeIncidentsUseConstantNumberOfStatements() {
+        User admin = saveUser("tsg.admin@cit.edu", "00-0000-001");
+        User reporter = saveUser("reporter@cit.edu", "00-0000-002");
+
+        OfficeAdmin officeAdmin = new OfficeAdmin();
+        officeAdmin.setUser(admin);
+        officeAdmin.setOfficeName(Office.TSG.getFullName());
+        officeAdmin.setOfficeCode(Office.TSG.name());
+        officeAdminRepository.save(officeAdmin);
+
+        for (int i = 0; i < 3; i++) {
+            saveIncident(reporter, admin, i % 2 == 0 ? "Resolved" : "Pending");
+        }
+        long smallOffice = countStatements(admin.getEmail(), 3);
+
+        for (int i = 0; i < 20; i++) {
+            saveIncident(reporter, admin, i % 2 == 0 ? "Dismissed" : "In Progress");
+        }
+        // Resolved, then reopened
+        saveIncident(reporter, admin, "In Progress", "Resolved");
+        long largeOffice = countStatements(admin.getEmail(), 24);
+
+        assertEquals(smallOffice, largeOffice);
+        assertTrue(largeOffice <= 3, "expected at most 3 statements, got " + largeOffice);
+
+        List<IncidentResponse> incidents = incidentService.getOfficeIncidents(admin.getEmail());
+        for (IncidentResponse incident : incidents) {
+            if ("Resolved".equals(incident.getStatus()) || "Dismissed".equals(incident.getStatus())) {
+                assertNotNull(incident.getFinishedDate());
+            } else {
+                assertNull(incident.getFinishedDate());
+            }
+        }
+    }
+
+    private long countStatements(String adminEmail, int expectedRows) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<IncidentResponse> incidents = incidentService.getOfficeIncidents(adminEmail);
+
+        assertEquals(expectedRows, incidents.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User saveUser(String email, String schoolId) {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail(email);
+        user.setSchoolIdNumber(schoolId);
+        user.setPassword("password123");
+        user.setContactNumber("09171234567");
+        return userRepository.save(user);
+    }
+
+    /**
+     * @param history statuses the incident had before its current one, oldest first
+     */
+    private void saveIncident(User reporter, User admin, String status, String... history) {
+        Incident incident = new Incident();
+        incident.setIncidentType("Equipment");
+        incident.setDateOfIncident(LocalDate.now());
+        incident.setTimeOfIncident(LocalTime.NOON);
+        incident.setLocation("NGE - NGE102");
+        incident.setDescription("Projector is not working");
+        incident.setAssignedOffice(Office.TSG);
+        incident.setSubmittedBy(reporter);
+        incident.setStatus(status);
+        incidentRepository.save(incident);
+
+        for (String previous : history) {
+            saveUpdate(incident, admin, previous);
+        }
+        if (!"Pending".equals(status)) {
+            saveUpdate(incident, admin, status);
+        }
+    }
+
+    private void saveUpdate(Incident incident, User admin, String status) {
+        IncidentUpdate update = new IncidentUpdate();
+        update.setIncident(incident);
+        update.setMessage("Status changed to " + status);
+        update.setStatus(status);
+        update.setUpdatedBy(admin);
+        incidentUpdateRepository.save(update);
+    }
+}
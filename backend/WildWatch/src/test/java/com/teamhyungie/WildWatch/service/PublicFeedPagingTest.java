@@ -0,0 +1,153 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.teamhyungie.WildWatch.dto.IncidentResponse;
+import com.teamhyungie.WildWatch.model.Evidence;
+import com.teamhyungie.WildWatch.model.Incident;
+import com.teamhyungie.WildWatch.model.Office;
+import com.teamhyungie.WildWatch.model.User;
+import com.teamhyungie.WildWatch.repository.EvidenceRepository;
+import com.teamhyungie.WildWatch.repository.IncidentRepository;
+import com.teamhyungie.WildWatch.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset paging of the public Community Reports feed: (upvoteCount, submittedAt, id) descending
+ */
+@SpringBootTest
+@Transactional
+class PublicFeedPagingTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2025, 3, 1, 8, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2025, 3, 2, 8, 0);
+
+    @Autowired
+    private IncidentService incidentService;
+    @Autowired
+    private IncidentRepository incidentRepository;
+    @Autowired
+    private EvidenceRepository evidenceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Incident mostUpvoted;
+    private List<String> tiedIds;
+    private Incident oldest;
+
+    @BeforeEach
+    void createFeed() {
+        User reporter = new User();
+        reporter.setFirstName("Test");
+        reporter.setLastName("User");
+        reporter.setEmail("feed.reporter@cit.edu");
+        reporter.setSchoolIdNumber("00-0000-010");
+        reporter.setPassword("password123");
+        reporter.setContactNumber("09171234567");
+        userRepository.save(reporter);
+
+        mostUpvoted = saveIncident(reporter, "INC-FEED-01", "Resolved", 3, EARLIER, false);
+        // Same upvotes and submittedAt: only the id orders these three
+        tiedIds = new ArrayList<>();
+        for (int i = 2; i <= 4; i++) {
+            tiedIds.add(saveIncident(reporter, "INC-FEED-0" + i, "In Progress", 1, LATER, false).getId());
+        }
+        tiedIds.sort(Comparator.reverseOrder());
+        oldest = saveIncident(reporter, "INC-FEED-05", "In Progress", 1, EARLIER, false);
+        // Not in the feed
+        saveIncident(reporter, "INC-FEED-06", "In Progress", 9, LATER, true);
+        saveIncident(reporter, "INC-FEED-07", "Pending", 9, LATER, false);
+
+        Evidence evidence = new Evidence();
+        evidence.setIncident(mostUpvoted);
+        evidence.setFileName("photo.jpg");
+        evidence.setFileType("image/jpeg");
+        evidence.setFileSize(1024L);
+        evidence.setFileUrl("https://storage.example/photo.jpg");
+        evidenceRepository.save(evidence);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void unpagedFeedIsOrderedByUpvotesThenSubmittedAtThenId() {
+        List<String> expected = new ArrayList<>();
+        expected.add(mostUpvoted.getId());
+        expected.addAll(tiedIds);
+        expected.add(oldest.getId());
+
+        List<IncidentResponse> feed = incidentService.getPublicIncidents(null, null, null, null);
+
+        assertEquals(expected, ids(feed));
+        assertEquals(1, feed.get(0).getEvidence().size());
+        assertEquals("photo.jpg", feed.get(0).getEvidence().get(0).getFileName());
+        assertTrue(feed.get(1).getEvidence().isEmpty());
+        assertTrue(feed.get(1).getWitnesses().isEmpty());
+    }
+
+    @Test
+    void cursorWithinTiesContinuesAtTheNextLowerId() {
+        List<IncidentResponse> page = incidentService.getPublicIncidents(10, 1, LATER, tiedIds.get(0));
+
+        assertEquals(List.of(tiedIds.get(1), tiedIds.get(2), oldest.getId()), ids(page));
+    }
+
+    @Test
+    void pagesCoverTheFeedOnceAndEndWithAShortPage() {
+        List<String> all = ids(incidentService.getPublicIncidents(null, null, null, null));
+
+        List<String> paged = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        List<IncidentResponse> page = incidentService.getPublicIncidents(2, null, null, null);
+        while (!page.isEmpty()) {
+            pageSizes.add(page.size());
+            paged.addAll(ids(page));
+            IncidentResponse last = page.get(page.size() - 1);
+            page = incidentService.getPublicIncidents(2, last.getUpvoteCount(), last.getSubmittedAt(), last.getId());
+        }
+
+        assertEquals(all, paged);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    private Incident saveIncident(User reporter, String trackingNumber, String status, int upvotes,
+                                  LocalDateTime submittedAt, boolean isPrivate) {
+        Incident incident = new Incident();
+        incident.setTrackingNumber(trackingNumber);
+        incident.setIncidentType("Equipment");
+        incident.setDateOfIncident(LocalDate.of(2025, 3, 1));
+        incident.setTimeOfIncident(LocalTime.NOON);
+        incident.setLocation("NGE - NGE102");
+        incident.setDescription("Projector is not working");
+        incident.setAssignedOffice(Office.TSG);
+        incident.setSubmittedBy(reporter);
+        incident.setStatus(status);
+        incident.setIsPrivate(isPrivate);
+        incident.setUpvoteCount(upvotes);
+        incidentRepository.saveAndFlush(incident);
+        // submittedAt is stamped on insert; overwrite it to control the order
+        incident.setSubmittedAt(submittedAt);
+        return incidentRepository.saveAndFlush(incident);
+    }
+
+    private static List<String> ids(List<IncidentResponse> feed) {
+        return feed.stream().map(IncidentResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,116 @@
+package com.teamhyungie.WildWatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recall/precision of the approximate MinHash/LSH similarity mode against the
+ * exact Jaccard path, on a seeded synthetic dataset of tag sets.
+ */
+class SimilarityModeComparisonTest {
+
+    private static final double THRESHOLD = 0.50;
+    private static final int TOPICS = 150;
+
+    @Test
+    void minHashModeTracksExactJaccard() {
+        Random random = new Random(42);
+        TagDictionary dictionary = new TagDictionary();
+        Map<String, Set<String>> tagsById = new HashMap<>();
+        List<IncidentTagIndex.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Set<String> tags = randomReport(random);
+            tagsById.put("inc-" + i, tags);
+            entries.add(new IncidentTagIndex.Entry("inc-" + i, null, null, null, null,
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i), null, null, null,
+                    dictionary.encode(tags), MinHash.signature(tags)));
+        }
+
+        IncidentTagIndex exact = new IncidentTagIndex();
+        TagLshIndex approximate = new TagLshIndex();
+        exact.replaceAll(entries);
+        approximate.replaceAll(entries);
+
+        int exactMatches = 0;
+        int approximateMatches = 0;
+        int truePositives = 0;
+        double lowestFalsePositiveJaccard = 1.0;
+
+        for (int q = 0; q < 300; q++) {
+            Set<String> query = randomReport(random);
+
+            Set<String> expected = new HashSet<>();
+            int minShared = (int) Math.ceil(THRESHOLD * query.size());
+            for (IncidentTagIndex.Match match : exact.topK(dictionary.encodeKnown(query), query.size(),
+                    minShared, THRESHOLD, entries.size())) {
+                expected.add(match.entry.id);
+            }
+
+            // The indexed exact path must agree with a brute-force Jaccard scan
+            Set<String> bruteForce = new HashSet<>();
+            tagsById.forEach((id, tags) -> {
+                if (jaccard(query, tags) >= THRESHOLD) {
+                    bruteForce.add(id);
+                }
+            });
+            assertEquals(bruteForce, expected);
+
+            Set<String> actual = new HashSet<>();
+            for (IncidentTagIndex.Match match : approximate.topK(MinHash.signature(query), THRESHOLD, entries.size())) {
+                actual.add(match.entry.id);
+                if (!expected.contains(match.entry.id)) {
+                    lowestFalsePositiveJaccard = Math.min(lowestFalsePositiveJaccard, jaccard(query, tagsById.get(match.entry.id)));
+                }
+            }
+
+            exactMatches += expected.size();
+            approximateMatches += actual.size();
+            actual.retainAll(expected);
+            truePositives += actual.size();
+        }
+
+        double recall = (double) truePositives / exactMatches;
+        double precision = (double) truePositives / approximateMatches;
+        String summary = String.format("exact=%d approx=%d recall=%.3f precision=%.3f lowestFalsePositiveJaccard=%.3f",
+                exactMatches, approximateMatches, recall, precision, lowestFalsePositiveJaccard);
+
+        assertTrue(exactMatches > 0, "dataset should contain similar incidents");
+        assertTrue(recall >= 0.85, "recall too low: " + summary);
+        assertTrue(precision >= 0.60, "precision too low: " + summary);
+        // Approximate false positives should only be near misses, never unrelated reports
+        assertTrue(lowestFalsePositiveJaccard >= 0.35, "unrelated false positive: " + summary);
+    }
+
+    /**
+     * 20 tags: most drawn from one topic's 24 specific tags, the rest from a generic pool
+     */
+    private static Set<String> randomReport(Random random) {
+        int topic = random.nextInt(TOPICS);
+        List<Integer> topicTags = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            topicTags.add(i);
+        }
+        Collections.shuffle(topicTags, random);
+
+        Set<String> tags = new HashSet<>();
+        int fromTopic = 14 + random.nextInt(6);
+        for (int i = 0; i < fromTopic; i++) {
+            tags.add("topic" + topic + "-" + topicTags.get(i));
+        }
+        while (tags.size() < 20) {
+            tags.add("generic-" + random.nextInt(400));
+        }
+        return tags;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        Set<String> intersection = new HashSet<>(a);
+        intersection.retainAll(b);
+        return (double) intersection.size() / (a.size() + b.size() - intersection.size());
+    }
+}
@@ -0,0 +1,153 @@
+package com.teamhyungie.WildWatch.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs SupabaseStorageService against a local stand-in for the Supabase storage object API
+ */
+class SupabaseStorageServiceTest {
+
+    private static final String OBJECT_PATH = "/storage/v1/object/wildwatch-uploads/";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private SupabaseStorageService storageService;
+
+    // Uploads wait here until this many are in flight, to show they run concurrently
+    private volatile CountDownLatch concurrentUploads = new CountDownLatch(0);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, String> uploadedBodies = new ConcurrentHashMap<>();
+    private final List<String> transferEncodings = new CopyOnWriteArrayList<>();
+    private final List<String> deleted = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(OBJECT_PATH, this::handle);
+        server.start();
+        storageService = new SupabaseStorageService(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test-key", 4, 8, 2000, 5000);
+    }
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        storageService.shutdown();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String objectName = exchange.getRequestURI().getPath().substring(OBJECT_PATH.length());
+        int status = 200;
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            deleted.add(objectName);
+        } else {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                transferEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding")));
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                concurrentUploads.countDown();
+                concurrentUploads.await(5, TimeUnit.SECONDS);
+                if (objectName.endsWith("_broken.txt")) {
+                    status = 400;
+                } else {
+                    uploadedBodies.put(objectName, body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+        byte[] bytes = (status == 200 ? "{\"Key\":\"" + objectName + "\"}" : "{\"error\":\"rejected\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private SupabaseStorageService.Upload spooled(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.writeString(path, content);
+        return new SupabaseStorageService.Upload(name, "text/plain", new FileSystemResource(path));
+    }
+
+    @Test
+    void uploadsFilesConcurrentlyAndStreamsThem() throws IOException {
+        concurrentUploads = new CountDownLatch(3);
+        List<SupabaseStorageService.Upload> uploads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            uploads.add(spooled("evidence" + i + ".txt", "content of evidence " + i));
+        }
+
+        List<SupabaseStorageService.Result> results = storageService.storeEach(uploads);
+
+        assertEquals(3, results.size());
+        assertEquals(3, maxInFlight.get(), "all three uploads should be in flight together");
+        for (int i = 0; i < 3; i++) {
+            String url = results.get(i).url();
+            assertTrue(url.contains("/storage/v1/object/public/wildwatch-uploads/"), url);
+            assertTrue(url.endsWith("_evidence" + i + ".txt"), "URLs keep the order of the uploads: " + url);
+            String objectName = url.substring(url.lastIndexOf('/') + 1);
+            assertTrue(uploadedBodies.get(objectName).contains("content of evidence " + i));
+            assertTrue(uploadedBodies.get(objectName).contains("Content-Type: text/plain"));
+        }
+        // No Content-Length up front: the body was streamed rather than built in memory first
+        assertEquals(List.of("chunked", "chunked", "chunked"), transferEncodings);
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void storeEachReportsFailuresPerFileAndKeepsTheRest() throws IOException {
+        List<SupabaseStorageService.Upload> uploads = List.of(
+                spooled("first.txt", "first"),
+                spooled("broken.txt", "rejected by the server"),
+                spooled("second.txt", "second"));
+
+        List<SupabaseStorageService.Result> results = storageService.storeEach(uploads);
+
+        assertTrue(results.get(0).succeeded());
+        assertFalse(results.get(1).succeeded());
+        assertNotNull(results.get(1).failure());
+        assertTrue(results.get(2).succeeded());
+        assertTrue(results.get(2).url().endsWith("_second.txt"));
+        assertEquals(2, uploadedBodies.size());
+        assertTrue(deleted.isEmpty(), "the caller decides what to keep");
+    }
+
+    @Test
+    void deleteFilesIgnoresUrlsOutsideTheBucket() {
+        storageService.deleteFiles(List.of("https://elsewhere.example/file.txt"));
+
+        assertTrue(deleted.isEmpty());
+    }
+}